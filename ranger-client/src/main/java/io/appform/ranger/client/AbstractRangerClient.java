@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.client;
 
+import com.google.common.cache.Cache;
 import io.appform.ranger.client.utils.CriteriaUtils;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.model.ServiceNode;
@@ -31,6 +32,7 @@ public abstract class AbstractRangerClient<T, R extends ServiceRegistry<T>> impl
 
     private final Predicate<T> initialCriteria;
     private final boolean alwaysUseInitialCriteria;
+    private final Cache<Predicate<T>, Predicate<T>> mergedCriteria = CriteriaUtils.mergedCriteriaCache();
 
     public abstract ServiceFinder<T, R> getServiceFinder();
 
@@ -55,7 +57,10 @@ public abstract class AbstractRangerClient<T, R extends ServiceRegistry<T>> impl
             Predicate<T> criteria,
             ShardSelector<T, R> shardSelector,
             ServiceNodeSelector<T> nodeSelector) {
-        return getServiceFinder().get(CriteriaUtils.getCriteria(alwaysUseInitialCriteria, initialCriteria, criteria),
+        return getServiceFinder().get(CriteriaUtils.getCriteria(alwaysUseInitialCriteria,
+                                                                initialCriteria,
+                                                                criteria,
+                                                                mergedCriteria),
                                       shardSelector,
                                       nodeSelector);
     }
@@ -75,7 +80,8 @@ public abstract class AbstractRangerClient<T, R extends ServiceRegistry<T>> impl
             Predicate<T> criteria, ShardSelector<T, R> shardSelector) {
         return getServiceFinder().getAll(CriteriaUtils.getCriteria(alwaysUseInitialCriteria,
                                                                    initialCriteria,
-                                                                   criteria),
+                                                                   criteria,
+                                                                   mergedCriteria),
                                          shardSelector);
     }
 
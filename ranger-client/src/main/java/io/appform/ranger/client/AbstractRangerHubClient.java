@@ -17,7 +17,11 @@ package io.appform.ranger.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
 import io.appform.ranger.client.utils.CriteriaUtils;
+import io.appform.ranger.core.executor.RefreshExecutor;
+import io.appform.ranger.core.feedback.NodeLease;
+import io.appform.ranger.core.finderhub.LazyFinderConfig;
 import io.appform.ranger.core.finderhub.ServiceDataSource;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
 import io.appform.ranger.core.finderhub.ServiceFinderHub;
@@ -29,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +53,14 @@ public abstract class AbstractRangerHubClient<T, R extends ServiceRegistry<T>, D
     private ServiceDataSource serviceDataSource;
     private long serviceRefreshDurationMs;
     private long hubRefreshDurationMs;
+    /* Optional executor shared by the hub and all its finders. Owned (and stopped) by the caller */
+    private RefreshExecutor refreshExecutor;
+    /* Number of finders started concurrently when services are discovered. Defaults when not set */
+    private int finderBootstrapParallelism;
+    /* Set to build finders only for services that are looked up */
+    private LazyFinderConfig lazyFinderConfig;
+    @Getter(AccessLevel.NONE)
+    private final Cache<Predicate<T>, Predicate<T>> mergedCriteria = CriteriaUtils.mergedCriteriaCache();
 
     @Override
     public void start() {
@@ -122,11 +135,43 @@ public abstract class AbstractRangerHubClient<T, R extends ServiceRegistry<T>, D
         return this.getHub()
                 .finder(service)
                 .flatMap(trServiceFinder
-                                 -> trServiceFinder.get(CriteriaUtils.getCriteria(alwaysUseInitialCriteria,
-                                                                                  initialCriteria,
-                                                                                  criteria),
-                                                        shardSelector,
-                                                        nodeSelector));
+                                 -> trServiceFinder.get(criteria(criteria), shardSelector, nodeSelector));
+    }
+
+    @Override
+    public Optional<ServiceNode<T>> getNodeForKey(
+            final Service service,
+            final Predicate<T> criteria,
+            final String key) {
+        return this.getHub()
+                .finder(service)
+                .flatMap(trServiceFinder
+                                 -> trServiceFinder.getForKey(criteria(criteria), key));
+    }
+
+    @Override
+    public Optional<NodeLease<T>> getNodeLease(final Service service, final Predicate<T> criteria) {
+        return this.getHub()
+                .finder(service)
+                .flatMap(trServiceFinder -> trServiceFinder.lease(criteria(criteria)));
+    }
+
+    @Override
+    public void onStart(final Service service, final ServiceNode<T> node) {
+        this.getHub()
+                .existingFinder(service)
+                .ifPresent(trServiceFinder -> trServiceFinder.onStart(node));
+    }
+
+    @Override
+    public void onComplete(
+            final Service service,
+            final ServiceNode<T> node,
+            long latencyNanos,
+            boolean success) {
+        this.getHub()
+                .existingFinder(service)
+                .ifPresent(trServiceFinder -> trServiceFinder.onComplete(node, latencyNanos, success));
     }
 
     @Override
@@ -144,12 +189,14 @@ public abstract class AbstractRangerHubClient<T, R extends ServiceRegistry<T>, D
             final ShardSelector<T, R> shardSelector) {
         return this.getHub()
                 .finder(service)
-                .map(trServiceFinder -> trServiceFinder.getAll(
-                        CriteriaUtils.getCriteria(alwaysUseInitialCriteria, initialCriteria, criteria),
-                        shardSelector))
+                .map(trServiceFinder -> trServiceFinder.getAll(criteria(criteria), shardSelector))
                 .orElse(Collections.emptyList());
     }
 
+    private Predicate<T> criteria(final Predicate<T> criteria) {
+        return CriteriaUtils.getCriteria(alwaysUseInitialCriteria, initialCriteria, criteria, mergedCriteria);
+    }
+
     @Override
     public Collection<Service> getRegisteredServices() {
         try {
@@ -15,6 +15,8 @@
  */
 package io.appform.ranger.client;
 
+import io.appform.ranger.core.feedback.NodeFeedbackListener;
+import io.appform.ranger.core.feedback.NodeLease;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceNodeSelector;
@@ -46,6 +48,49 @@ public interface RangerHubClient<T, R extends ServiceRegistry<T>> {
 
     List<ServiceNode<T>> getAllNodes(final Service service);
 
+    /**
+     * Get the node for a routing key. The same key keeps mapping to the same node as long as that node is
+     * available. Clients that don't support routing keys return any matching node.
+     */
+    default Optional<ServiceNode<T>> getNodeForKey(
+            final Service service,
+            final Predicate<T> criteria,
+            final String key) {
+        return getNode(service, criteria);
+    }
+
+    /**
+     * Get a node and report the call made to it as started. The call has to be completed on the returned lease.
+     */
+    default Optional<NodeLease<T>> getNodeLease(final Service service, final Predicate<T> criteria) {
+        return getNode(service, criteria).map(node -> new NodeLease<>(node, new NodeFeedbackListener<T>() {
+            @Override
+            public void onStart(ServiceNode<T> startedNode) {
+                RangerHubClient.this.onStart(service, startedNode);
+            }
+
+            @Override
+            public void onComplete(ServiceNode<T> completedNode, long latencyNanos, boolean success) {
+                RangerHubClient.this.onComplete(service, completedNode, latencyNanos, success);
+            }
+        }));
+    }
+
+    /**
+     * Report that a call to a node of the service has started. Ignored by clients that don't use feedback
+     */
+    default void onStart(final Service service, final ServiceNode<T> node) {
+        //No feedback is kept by default
+    }
+
+    /**
+     * Report that a call started using {@link #onStart(Service, ServiceNode)} has completed. Ignored by clients
+     * that don't use feedback
+     */
+    default void onComplete(final Service service, final ServiceNode<T> node, long latencyNanos, boolean success) {
+        //No feedback is kept by default
+    }
+
     Optional<ServiceNode<T>> getNode(
             Service service,
             Predicate<T> criteria,
@@ -15,11 +15,14 @@
  */
 package io.appform.ranger.client.utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.function.Predicate;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class CriteriaUtils {
+    private static final int MAX_MERGED_CRITERIA = 64;
 
     /*
         We use this merge only when the explicit arg criteria is passed to the clients.
@@ -38,4 +41,32 @@ public class CriteriaUtils {
                ? initialCriteria.and(argCriteria)
                : argCriteria;
     }
+
+    /*
+        Same merge as above, but repeated calls with the same arg criteria get the same merged predicate from the
+        cache. Finders and shard selectors cache results against the identity of the criteria, which a new merged
+        predicate on every call would defeat. The initial criteria is not merged with itself.
+     */
+    public static <T> Predicate<T> getCriteria(
+            boolean useInitialCriteria,
+            Predicate<T> initialCriteria,
+            Predicate<T> argCriteria,
+            Cache<Predicate<T>, Predicate<T>> mergedCriteria) {
+        if (null == initialCriteria || null == argCriteria || !useInitialCriteria || initialCriteria == argCriteria) {
+            return argCriteria;
+        }
+        return mergedCriteria.asMap()
+                .computeIfAbsent(argCriteria, criteria -> getCriteria(true, initialCriteria, criteria));
+    }
+
+    /**
+     * @return cache for merged criteria, keyed on the identity of the arg criteria. Bounded, as callers may pass a
+     * new criteria on every call
+     */
+    public static <T> Cache<Predicate<T>, Predicate<T>> mergedCriteriaCache() {
+        return CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(MAX_MERGED_CRITERIA)
+                .build();
+    }
 }
@@ -40,6 +40,10 @@ class AbstractRangerHubClientTest {
         Assertions.assertFalse(testAbstractHub.getNode(RangerTestUtils.getService("test", "test")).isPresent());
         Assertions.assertFalse(testAbstractHub.getNode(service, nodeData -> nodeData.getShardId() == 2).isPresent());
         Assertions.assertFalse(testAbstractHub.getNode(RangerTestUtils.getService("test", "test"), nodeData -> nodeData.getShardId() == 1).isPresent());
+        val keyedNode = testAbstractHub.getNodeForKey(service, null, "key-1").orElse(null);
+        Assertions.assertNotNull(keyedNode);
+        Assertions.assertEquals(9200, keyedNode.getPort());
+        Assertions.assertFalse(testAbstractHub.getNodeForKey(service, nodeData -> nodeData.getShardId() == 2, "key-1").isPresent());
         testAbstractHub.stop();
     }
 
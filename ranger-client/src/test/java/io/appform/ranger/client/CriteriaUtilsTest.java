@@ -40,4 +40,17 @@ class CriteriaUtilsTest {
         Assertions.assertFalse(mergedCriteria.test(TestNodeData.builder().shardId(1).build()));
         Assertions.assertTrue(mergedCriteria.test(TestNodeData.builder().shardId(2).build()));
     }
+
+    @Test
+    void testMergedCriteriaIsReused(){
+        val initialCriteria = getCriteria(1);
+        val argCriteria = getCriteria(2);
+        val cache = CriteriaUtils.<TestNodeData>mergedCriteriaCache();
+        val mergedCriteria = CriteriaUtils.getCriteria(true, initialCriteria, argCriteria, cache);
+        Assertions.assertSame(mergedCriteria, CriteriaUtils.getCriteria(true, initialCriteria, argCriteria, cache));
+        Assertions.assertFalse(mergedCriteria.test(TestNodeData.builder().shardId(2).build()));
+        Assertions.assertSame(initialCriteria, CriteriaUtils.getCriteria(true, initialCriteria, initialCriteria, cache));
+        Assertions.assertSame(argCriteria, CriteriaUtils.getCriteria(false, initialCriteria, argCriteria, cache));
+        Assertions.assertNull(CriteriaUtils.getCriteria(true, initialCriteria, null, cache));
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.client;
+
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+class RangerHubClientTest {
+
+    private static final Service service = RangerTestUtils.getService("test-ns", "test-s");
+
+    @Test
+    void testDefaultsForClientsWithoutFeedback() {
+        val client = new FixedNodeHubClient();
+        Assertions.assertSame(client.node, client.getNodeForKey(service, null, "key-1").orElse(null));
+        try (val lease = client.getNodeLease(service, null).orElseThrow()) {
+            Assertions.assertSame(client.node, lease.getNode());
+            lease.success();
+        }
+    }
+
+    @Test
+    void testDefaultLeaseReportsToClient() {
+        val started = new AtomicInteger();
+        val completed = new AtomicInteger();
+        val client = new FixedNodeHubClient() {
+            @Override
+            public void onStart(Service service, ServiceNode<TestNodeData> node) {
+                started.incrementAndGet();
+            }
+
+            @Override
+            public void onComplete(
+                    Service service,
+                    ServiceNode<TestNodeData> node,
+                    long latencyNanos,
+                    boolean success) {
+                completed.incrementAndGet();
+            }
+        };
+        try (val lease = client.getNodeLease(service, null).orElseThrow()) {
+            Assertions.assertEquals(1, started.get());
+            Assertions.assertEquals(0, completed.get());
+            lease.success();
+        }
+        Assertions.assertEquals(1, completed.get());
+    }
+
+    /*
+        Implements only the methods clients have always had to implement
+     */
+    private static class FixedNodeHubClient
+            implements RangerHubClient<TestNodeData, ListBasedServiceRegistry<TestNodeData>> {
+        private final ServiceNode<TestNodeData> node = RangerTestUtils.node(1);
+
+        @Override
+        public void start() {
+            //Nothing to start
+        }
+
+        @Override
+        public void stop() {
+            //Nothing to stop
+        }
+
+        @Override
+        public Collection<Service> getRegisteredServices() {
+            return List.of(service);
+        }
+
+        @Override
+        public CompletableFuture addService(Service service) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public Optional<ServiceNode<TestNodeData>> getNode(Service service) {
+            return Optional.of(node);
+        }
+
+        @Override
+        public Optional<ServiceNode<TestNodeData>> getNode(Service service, Predicate<TestNodeData> criteria) {
+            return Optional.of(node);
+        }
+
+        @Override
+        public Optional<ServiceNode<TestNodeData>> getNode(
+                Service service,
+                Predicate<TestNodeData> criteria,
+                ShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>> shardSelector) {
+            return Optional.of(node);
+        }
+
+        @Override
+        public Optional<ServiceNode<TestNodeData>> getNode(
+                Service service,
+                Predicate<TestNodeData> criteria,
+                ShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>> shardSelector,
+                ServiceNodeSelector<TestNodeData> nodeSelector) {
+            return Optional.of(node);
+        }
+
+        @Override
+        public List<ServiceNode<TestNodeData>> getAllNodes(Service service) {
+            return List.of(node);
+        }
+
+        @Override
+        public List<ServiceNode<TestNodeData>> getAllNodes(Service service, Predicate<TestNodeData> criteria) {
+            return List.of(node);
+        }
+
+        @Override
+        public List<ServiceNode<TestNodeData>> getAllNodes(
+                Service service,
+                Predicate<TestNodeData> criteria,
+                ShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>> shardSelector) {
+            return List.of(node);
+        }
+    }
+}
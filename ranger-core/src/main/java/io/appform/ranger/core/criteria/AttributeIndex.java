@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.criteria;
+
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Inverted index from attribute values to the positions of the nodes having them, for one immutable snapshot
+ * of nodes. Used to evaluate {@link Criteria} using set operations instead of testing every node.
+ */
+public final class AttributeIndex<T extends AttributedNodeData> {
+    private static final BitSet NO_NODES = new BitSet();
+
+    @Getter
+    private final long version;
+    @Getter
+    private final List<ServiceNode<T>> nodes;
+    private final Map<String, Map<String, BitSet>> postings;
+    private final BitSet allNodes;
+
+    private AttributeIndex(long version,
+                           List<ServiceNode<T>> nodes,
+                           Map<String, Map<String, BitSet>> postings,
+                           BitSet allNodes) {
+        this.version = version;
+        this.nodes = nodes;
+        this.postings = postings;
+        this.allNodes = allNodes;
+    }
+
+    /**
+     * @param version version of the snapshot the nodes belong to
+     * @param nodes   immutable snapshot of nodes
+     * @return index over the nodes
+     */
+    public static <T extends AttributedNodeData> AttributeIndex<T> build(long version, List<ServiceNode<T>> nodes) {
+        val postings = new HashMap<String, Map<String, BitSet>>();
+        val allNodes = new BitSet(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            allNodes.set(i);
+            val nodeData = nodes.get(i).getNodeData();
+            if (null == nodeData) {
+                continue;
+            }
+            val position = i;
+            nodeData.forEachAttribute((name, value) -> postings.computeIfAbsent(name, key -> new HashMap<>())
+                    .computeIfAbsent(value, key -> new BitSet(nodes.size()))
+                    .set(position));
+        }
+        return new AttributeIndex<>(version, nodes, postings, allNodes);
+    }
+
+    /**
+     * @return nodes matching the criteria, in snapshot order
+     */
+    public List<ServiceNode<T>> select(Criteria<T> criteria) {
+        val matches = criteria.evaluate(this);
+        val selected = new ArrayList<ServiceNode<T>>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            selected.add(nodes.get(i));
+        }
+        return Collections.unmodifiableList(selected);
+    }
+
+    BitSet nodesWith(String name, String value) {
+        val values = postings.get(name);
+        if (null == values) {
+            return NO_NODES;
+        }
+        return values.getOrDefault(value, NO_NODES);
+    }
+
+    BitSet allNodes() {
+        return allNodes;
+    }
+
+    BitSet scan(Predicate<T> predicate) {
+        val matches = new BitSet(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            if (predicate.test(nodes.get(i).getNodeData())) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.criteria;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Node data that exposes (possibly multi valued) string attributes, so that nodes can be matched using
+ * {@link Criteria} and indexed by {@link AttributeIndex}
+ */
+public interface AttributedNodeData {
+
+    /**
+     * @param name  attribute name
+     * @param value attribute value
+     * @return true if the attribute is set to (or, for multi valued attributes, contains) the given value
+     */
+    boolean hasAttribute(String name, String value);
+
+    /**
+     * Call the consumer once for every (name, value) pair. Multi valued attributes produce one call per value.
+     *
+     * @param consumer consumer of attribute name and value
+     */
+    void forEachAttribute(BiConsumer<String, String> consumer);
+}
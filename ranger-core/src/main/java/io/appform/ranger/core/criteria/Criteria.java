@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.criteria;
+
+import com.google.common.base.Preconditions;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Structured criteria over {@link AttributedNodeData}. Criteria are regular predicates and can be used with any
+ * shard selector. Selectors that keep an {@link AttributeIndex} evaluate attribute matches using the index
+ * instead of testing every node; only the parts built using {@link #matching(Predicate)} need a scan.
+ * Usage:
+ * <pre>
+ *     Criteria.attribute("environment", "prod").and(Criteria.anyOf(Criteria.attribute("tag", "a"),
+ *                                                                   Criteria.attribute("tag", "b")))
+ * </pre>
+ */
+public abstract class Criteria<T extends AttributedNodeData> implements Predicate<T> {
+
+    Criteria() {
+    }
+
+    /**
+     * Matches nodes for which the attribute has (or, for multi valued attributes, contains) the given value
+     */
+    public static <T extends AttributedNodeData> Criteria<T> attribute(String name, String value) {
+        return new AttributeCriteria<>(name, value);
+    }
+
+    /**
+     * Matches nodes that match all the given criteria. Matches all nodes if no criteria is given.
+     */
+    @SafeVarargs
+    public static <T extends AttributedNodeData> Criteria<T> allOf(Criteria<T>... criteria) {
+        return new AllOfCriteria<>(List.of(criteria));
+    }
+
+    /**
+     * Matches nodes that match any of the given criteria. Matches no nodes if no criteria is given.
+     */
+    @SafeVarargs
+    public static <T extends AttributedNodeData> Criteria<T> anyOf(Criteria<T>... criteria) {
+        return new AnyOfCriteria<>(List.of(criteria));
+    }
+
+    /**
+     * Fallback for conditions that can't be expressed on attributes. These are evaluated by testing every node.
+     */
+    public static <T extends AttributedNodeData> Criteria<T> matching(Predicate<T> predicate) {
+        return new PredicateCriteria<>(predicate);
+    }
+
+    public Criteria<T> and(Criteria<T> other) {
+        return allOf(this, other);
+    }
+
+    public Criteria<T> or(Criteria<T> other) {
+        return anyOf(this, other);
+    }
+
+    /**
+     * Compute the positions of the matching nodes in the index. The returned set may be owned by the index and
+     * must not be modified.
+     */
+    abstract BitSet evaluate(AttributeIndex<T> index);
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class AttributeCriteria<T extends AttributedNodeData> extends Criteria<T> {
+        private final String name;
+        private final String value;
+
+        private AttributeCriteria(String name, String value) {
+            this.name = Preconditions.checkNotNull(name, "Attribute name can't be null");
+            this.value = Preconditions.checkNotNull(value, "Attribute value can't be null");
+        }
+
+        @Override
+        public boolean test(T nodeData) {
+            return null != nodeData && nodeData.hasAttribute(name, value);
+        }
+
+        @Override
+        BitSet evaluate(AttributeIndex<T> index) {
+            return index.nodesWith(name, value);
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class AllOfCriteria<T extends AttributedNodeData> extends Criteria<T> {
+        private final List<Criteria<T>> criteria;
+
+        private AllOfCriteria(List<Criteria<T>> criteria) {
+            this.criteria = criteria;
+        }
+
+        @Override
+        public boolean test(T nodeData) {
+            for (val child : criteria) {
+                if (!child.test(nodeData)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        BitSet evaluate(AttributeIndex<T> index) {
+            if (criteria.isEmpty()) {
+                return index.allNodes();
+            }
+            if (criteria.size() == 1) {
+                return criteria.get(0).evaluate(index);
+            }
+            val result = (BitSet) criteria.get(0).evaluate(index).clone();
+            for (int i = 1; i < criteria.size() && !result.isEmpty(); i++) {
+                result.and(criteria.get(i).evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class AnyOfCriteria<T extends AttributedNodeData> extends Criteria<T> {
+        private final List<Criteria<T>> criteria;
+
+        private AnyOfCriteria(List<Criteria<T>> criteria) {
+            this.criteria = criteria;
+        }
+
+        @Override
+        public boolean test(T nodeData) {
+            for (val child : criteria) {
+                if (child.test(nodeData)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        BitSet evaluate(AttributeIndex<T> index) {
+            if (criteria.size() == 1) {
+                return criteria.get(0).evaluate(index);
+            }
+            val result = new BitSet();
+            for (val child : criteria) {
+                result.or(child.evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class PredicateCriteria<T extends AttributedNodeData> extends Criteria<T> {
+        private final Predicate<T> predicate;
+
+        private PredicateCriteria(Predicate<T> predicate) {
+            this.predicate = Preconditions.checkNotNull(predicate, "Predicate can't be null");
+        }
+
+        @Override
+        public boolean test(T nodeData) {
+            return predicate.test(nodeData);
+        }
+
+        @Override
+        BitSet evaluate(AttributeIndex<T> index) {
+            return index.scan(predicate);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.events;
+
+import io.appform.ranger.core.model.NodeListDelta;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Nodes added to and removed from a service. A node whose data or health changed is reported as removed
+ * (old version) and added (new version).
+ */
+@Value
+public class NodeChangeEvent<T> {
+    Service service;
+    NodeListDelta<T> delta;
+
+    public List<ServiceNode<T>> getAdded() {
+        return delta.getAdded();
+    }
+
+    public List<ServiceNode<T>> getRemoved() {
+        return delta.getRemoved();
+    }
+
+    /**
+     * @param next event that happened after this one, for the same service
+     * @return a single event with the net effect of both events
+     */
+    public NodeChangeEvent<T> merge(NodeChangeEvent<T> next) {
+        return new NodeChangeEvent<>(service, delta.merge(next.getDelta()));
+    }
+}
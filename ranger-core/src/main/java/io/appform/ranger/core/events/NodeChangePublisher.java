@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.events;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.appform.ranger.core.model.Service;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Publishes {@link NodeChangeEvent}s to any number of subscribers. Events are delivered asynchronously on the
+ * given executor and never block the publisher. By default, every publisher delivers on its own daemon thread, which
+ * is only kept alive while there are events to deliver. Events that a subscriber has not
+ * consumed yet are conflated per service, so a slow subscriber holds at most one pending event per service and
+ * receives the net change once it catches up.
+ * New subscribers first receive the current state (as additions) followed by subsequent changes. A change
+ * that races with a subscription may be seen twice, so consumers should treat events idempotently.
+ */
+@Slf4j
+public class NodeChangePublisher<T> implements Flow.Publisher<NodeChangeEvent<T>> {
+    private static final long DELIVERY_THREAD_IDLE_TIMEOUT_SECONDS = 60;
+
+    private final Supplier<List<NodeChangeEvent<T>>> currentState;
+    private final Executor executor;
+    private final List<NodeChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * @param currentState supplies events describing the current state, sent to every new subscriber
+     */
+    public NodeChangePublisher(Supplier<List<NodeChangeEvent<T>>> currentState) {
+        this(currentState, deliveryExecutor());
+    }
+
+    public NodeChangePublisher(Supplier<List<NodeChangeEvent<T>>> currentState, Executor executor) {
+        this.currentState = currentState;
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void subscribe(Flow.Subscriber<? super NodeChangeEvent<T>> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber can't be null");
+        val subscription = new NodeChangeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+            return;
+        }
+        subscriptions.add(subscription);
+        currentState.get().forEach(subscription::offer);
+    }
+
+    /**
+     * Receive events on a listener, without flow control
+     *
+     * @param listener called for every event. Should not block
+     * @return subscription that can be used to stop receiving events
+     */
+    public Flow.Subscription addListener(Consumer<NodeChangeEvent<T>> listener) {
+        val listenerSubscriber = new ListenerSubscriber<>(listener);
+        subscribe(listenerSubscriber);
+        return listenerSubscriber.subscription;
+    }
+
+    public synchronized void publish(NodeChangeEvent<T> event) {
+        if (closed || !event.getDelta().isChanged()) {
+            return;
+        }
+        subscriptions.forEach(subscription -> subscription.offer(event));
+    }
+
+    private static Executor deliveryExecutor() {
+        val executor = new ThreadPoolExecutor(1,
+                                              1,
+                                              DELIVERY_THREAD_IDLE_TIMEOUT_SECONDS,
+                                              TimeUnit.SECONDS,
+                                              new LinkedBlockingQueue<>(),
+                                              new ThreadFactoryBuilder()
+                                                      .setNameFormat("node-change-events-%d")
+                                                      .setDaemon(true)
+                                                      .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Complete all subscriptions once pending events have been delivered
+     */
+    public synchronized void close() {
+        closed = true;
+        subscriptions.forEach(NodeChangeSubscription::complete);
+        subscriptions.clear();
+    }
+
+    private final class NodeChangeSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super NodeChangeEvent<T>> subscriber;
+        private final LinkedHashMap<Service, NodeChangeEvent<T>> pending = new LinkedHashMap<>();
+        private final AtomicLong requested = new AtomicLong(0);
+        private final AtomicInteger workInProgress = new AtomicInteger(0);
+        private volatile boolean cancelled = false;
+        private volatile boolean completed = false;
+        private volatile Throwable failure = null;
+
+        private NodeChangeSubscription(Flow.Subscriber<? super NodeChangeEvent<T>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Non-positive request: " + n);
+                subscriptions.remove(this);
+            }
+            else {
+                requested.getAndUpdate(current -> Long.MAX_VALUE - current < n ? Long.MAX_VALUE : current + n);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void offer(NodeChangeEvent<T> event) {
+            synchronized (pending) {
+                pending.merge(event.getService(), event, NodeChangeEvent::merge);
+            }
+            scheduleDrain();
+        }
+
+        private void complete() {
+            completed = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            }
+            catch (RejectedExecutionException e) {
+                log.warn("Could not deliver node change events: {}", e.getMessage());
+                workInProgress.set(0);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!cancelled && null != failure) {
+                    cancelled = true;
+                    subscriber.onError(failure);
+                }
+                while (!cancelled && requested.get() > 0) {
+                    val event = nextEvent();
+                    if (null == event) {
+                        break;
+                    }
+                    if (!event.getDelta().isChanged()) {
+                        continue;
+                    }
+                    requested.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+                    deliver(event);
+                }
+                if (!cancelled && completed && isDrained()) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver(NodeChangeEvent<T> event) {
+            try {
+                subscriber.onNext(event);
+            }
+            catch (Exception e) {
+                log.error("Node change subscriber failed. Cancelling subscription", e);
+                cancel();
+            }
+        }
+
+        private NodeChangeEvent<T> nextEvent() {
+            synchronized (pending) {
+                val iterator = pending.values().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                val event = iterator.next();
+                iterator.remove();
+                return event;
+            }
+        }
+
+        private boolean isDrained() {
+            synchronized (pending) {
+                return pending.isEmpty();
+            }
+        }
+    }
+
+    private static final class ListenerSubscriber<T> implements Flow.Subscriber<NodeChangeEvent<T>> {
+        private final Consumer<NodeChangeEvent<T>> listener;
+        private Flow.Subscription subscription;
+
+        private ListenerSubscriber(Consumer<NodeChangeEvent<T>> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(NodeChangeEvent<T> item) {
+            listener.accept(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.error("Node change listener stopped due to error", throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            //Nothing to do here
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.executor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a refresh action in response to triggers, without ever blocking the triggering thread.
+ * Triggers received while a refresh is pending or running are coalesced into a single follow-up refresh.
+ * When a debounce window is set, the refresh is held back till no trigger has been received for the window,
+ * but never for longer than the max delay after the first pending trigger.
+ * The action is run on a dedicated thread, or on a {@link RefreshExecutor} if one is provided.
+ */
+@Slf4j
+public class CoalescingRefreshTrigger {
+    public static final long DEFAULT_DEBOUNCE_MS = 50;
+    public static final long DEFAULT_MAX_DELAY_MS = 500;
+
+    private final String name;
+    private final Runnable action;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final RefreshExecutor refreshExecutor;
+
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private final AtomicLong firstPendingAt = new AtomicLong(0);
+    private final AtomicLong lastTriggeredAt = new AtomicLong(0);
+    private final AtomicBoolean bypassDebounce = new AtomicBoolean(false);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+    private ExecutorService executorService;
+    private volatile Thread refreshThread;
+
+    /**
+     * @param name            name used for the dedicated thread and for logging
+     * @param action          refresh to be run
+     * @param debounceMs      quiet period to wait for after the last trigger. 0 to disable
+     * @param maxDelayMs      maximum time a pending refresh can be held back by the debounce
+     * @param refreshExecutor shared executor to run the action on, null to use a dedicated thread
+     */
+    public CoalescingRefreshTrigger(
+            String name,
+            Runnable action,
+            long debounceMs,
+            long maxDelayMs,
+            RefreshExecutor refreshExecutor) {
+        this.name = name;
+        this.action = action;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, debounceMs));
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(debounceMs, maxDelayMs));
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (null == refreshExecutor) {
+            executorService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                                                                        .setNameFormat(name + "-%d")
+                                                                        .setDaemon(true)
+                                                                        .build());
+            executorService.submit(this::refreshLoop);
+        }
+        else if (pending.get()) {
+            wakeUp();
+        }
+    }
+
+    public void stop() {
+        stopped.set(true);
+        if (null != executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Request a refresh. Returns immediately.
+     */
+    public void trigger() {
+        val now = System.nanoTime();
+        lastTriggeredAt.set(now);
+        firstPendingAt.compareAndSet(0, now);
+        pending.set(true);
+        wakeUp();
+    }
+
+    /**
+     * Request a refresh that is not held back by the debounce window. Returns immediately.
+     */
+    public void triggerNow() {
+        bypassDebounce.set(true);
+        trigger();
+    }
+
+    private void wakeUp() {
+        if (stopped.get() || !started.get()) {
+            return;
+        }
+        if (null == refreshExecutor) {
+            val thread = refreshThread;
+            if (null != thread) {
+                LockSupport.unpark(thread);
+            }
+            return;
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            submit(this::drain, 0);
+        }
+    }
+
+    private Void refreshLoop() {
+        refreshThread = Thread.currentThread();
+        while (!stopped.get() && !Thread.currentThread().isInterrupted()) {
+            if (!pending.get()) {
+                LockSupport.park(this);
+                continue;
+            }
+            val waitNanos = remainingDelayNanos();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+                continue;
+            }
+            runAction();
+        }
+        log.info("Refresh thread for {} stopped", name);
+        return null;
+    }
+
+    private void drain() {
+        if (stopped.get()) {
+            return;
+        }
+        if (pending.get()) {
+            val waitNanos = remainingDelayNanos();
+            if (waitNanos > 0) {
+                //Still scheduled, so triggers received in the meantime will not queue another drain
+                submit(this::drain, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+                return;
+            }
+            runAction();
+        }
+        drainScheduled.set(false);
+        //Catch triggers that arrived after the action started but before the flag was cleared
+        if (pending.get()) {
+            wakeUp();
+        }
+    }
+
+    private void submit(Runnable task, long delayMs) {
+        try {
+            if (delayMs <= 0) {
+                refreshExecutor.execute(task);
+            }
+            else {
+                refreshExecutor.executeAfter(task, delayMs);
+            }
+        }
+        catch (RejectedExecutionException e) {
+            drainScheduled.set(false);
+            log.debug("Refresh executor has been stopped. Dropping refresh for {}", name);
+        }
+    }
+
+    private void runAction() {
+        pending.set(false);
+        firstPendingAt.set(0);
+        bypassDebounce.set(false);
+        try {
+            action.run();
+        }
+        catch (Exception e) {
+            log.error("Refresh failed for " + name, e);
+        }
+    }
+
+    private long remainingDelayNanos() {
+        if (debounceNanos <= 0 || bypassDebounce.get()) {
+            return 0;
+        }
+        val now = System.nanoTime();
+        val untilQuiet = debounceNanos - (now - lastTriggeredAt.get());
+        val firstPending = firstPendingAt.get();
+        val untilMaxDelay = 0 == firstPending
+                            ? untilQuiet
+                            : maxDelayNanos - (now - firstPending);
+        return Math.max(0, Math.min(untilQuiet, untilMaxDelay));
+    }
+}
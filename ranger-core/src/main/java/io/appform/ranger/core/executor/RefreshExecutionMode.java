@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.executor;
+
+/**
+ * How blocking refresh calls are run by a {@link RefreshExecutor}
+ */
+public enum RefreshExecutionMode {
+    /**
+     * A bounded pool of platform threads. Idle threads are reclaimed.
+     */
+    PLATFORM,
+    /**
+     * One virtual thread per refresh, with the number of concurrent refreshes bounded.
+     * Falls back to {@link #PLATFORM} on runtimes that do not support virtual threads.
+     */
+    VIRTUAL
+}
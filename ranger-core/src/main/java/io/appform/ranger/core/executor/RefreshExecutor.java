@@ -0,0 +1,293 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.executor;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A shared executor that can be used by any number of finders (and hubs) to run their periodic and
+ * signal triggered refreshes. Instead of every finder holding on to its own updater thread and timer thread,
+ * timers for all services are multiplexed on a small scheduler and the actual (blocking) refresh calls are
+ * run on a bounded worker pool, or on virtual threads where the runtime supports them.
+ * Timers are jittered so that refreshes for a large number of services do not line up.
+ * The executor is owned by whoever creates it, and must be stopped by the owner once all users are stopped.
+ */
+@Slf4j
+public class RefreshExecutor {
+    private static final String DEFAULT_NAME = "ranger-refresh";
+    private static final double DEFAULT_JITTER_FACTOR = 0.1;
+    private static final double MAX_JITTER_FACTOR = 0.5;
+    private static final int DEFAULT_PARALLELISM = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    private static final long IDLE_WORKER_KEEP_ALIVE_SECONDS = 60;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final RefreshExecutionMode executionMode;
+    @Getter
+    private final int parallelism;
+    private final double jitterFactor;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+    /**
+     * @param name             prefix for thread names
+     * @param schedulerThreads number of threads used to drive timers (default: 1)
+     * @param parallelism      maximum number of refreshes running at the same time
+     *                         (default: max(4, 2 * available processors))
+     * @param executionMode    how refreshes are run (default: {@link RefreshExecutionMode#PLATFORM})
+     * @param jitterFactor     fraction of the refresh interval by which every tick is randomly spread.
+     *                         Values outside (0, 0.5] fall back to 0.1
+     */
+    @Builder
+    public RefreshExecutor(
+            String name,
+            int schedulerThreads,
+            int parallelism,
+            RefreshExecutionMode executionMode,
+            double jitterFactor) {
+        this.name = Strings.isNullOrEmpty(name) ? DEFAULT_NAME : name;
+        this.parallelism = parallelism > 0 ? parallelism : DEFAULT_PARALLELISM;
+        this.jitterFactor = jitterFactor > 0 && jitterFactor <= MAX_JITTER_FACTOR
+                            ? jitterFactor
+                            : DEFAULT_JITTER_FACTOR;
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.max(1, schedulerThreads),
+                                                         threadFactory(this.name + "-scheduler-%d"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        val requestedMode = null == executionMode ? RefreshExecutionMode.PLATFORM : executionMode;
+        val virtualThreadExecutor = requestedMode == RefreshExecutionMode.VIRTUAL
+                                    ? virtualThreadExecutor()
+                                    : Optional.<ExecutorService>empty();
+        if (virtualThreadExecutor.isPresent()) {
+            this.workers = virtualThreadExecutor.get();
+            this.permits = new Semaphore(this.parallelism);
+            this.executionMode = RefreshExecutionMode.VIRTUAL;
+        }
+        else {
+            if (requestedMode == RefreshExecutionMode.VIRTUAL) {
+                log.warn("Virtual threads are not supported on this runtime. Refresh executor {} will use platform threads",
+                         this.name);
+            }
+            val pool = new ThreadPoolExecutor(this.parallelism,
+                                              this.parallelism,
+                                              IDLE_WORKER_KEEP_ALIVE_SECONDS,
+                                              TimeUnit.SECONDS,
+                                              new LinkedBlockingQueue<>(),
+                                              threadFactory(this.name + "-worker-%d"));
+            pool.allowCoreThreadTimeOut(true);
+            this.workers = pool;
+            this.permits = null;
+            this.executionMode = RefreshExecutionMode.PLATFORM;
+        }
+        log.info("Started refresh executor {} with mode {} and parallelism {}",
+                 this.name, this.executionMode, this.parallelism);
+    }
+
+    /**
+     * Run a task on the worker pool
+     *
+     * @param task task to be run
+     */
+    public void execute(Runnable task) {
+        workers.execute(() -> {
+            if (null == permits) {
+                runSafely(task);
+                return;
+            }
+            try {
+                permits.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                runSafely(task);
+            }
+            finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Run a task once on the worker pool after the given delay
+     *
+     * @param task    task to be run
+     * @param delayMs delay after which the task is run
+     */
+    public void executeAfter(Runnable task, long delayMs) {
+        scheduler.schedule(() -> {
+            try {
+                execute(task);
+            }
+            catch (RejectedExecutionException e) {
+                log.debug("Refresh executor {} has been stopped. Dropping delayed task", name);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a task periodically on the worker pool. The first run happens at a random point within the first
+     * interval, subsequent runs happen one (jittered) interval after the previous run has completed.
+     *
+     * @param taskName   name of the task, used for logging
+     * @param task       task to be run
+     * @param intervalMs interval between runs
+     * @return a handle that can be used to cancel the task
+     */
+    public ScheduledRefresh schedule(String taskName, Runnable task, long intervalMs) {
+        val scheduledRefresh = new ScheduledRefresh(taskName, task, intervalMs);
+        scheduledRefresh.scheduleNext(ThreadLocalRandom.current().nextLong(Math.max(1, intervalMs)));
+        return scheduledRefresh;
+    }
+
+    public void stop() {
+        if (stopped.getAndSet(true)) {
+            log.info("Refresh executor {} is already stopped", name);
+            return;
+        }
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        log.info("Stopped refresh executor {}", name);
+    }
+
+    public boolean isStopped() {
+        return stopped.get();
+    }
+
+    private long jitteredDelay(long intervalMs) {
+        val spread = (long) (intervalMs * jitterFactor);
+        if (spread <= 0) {
+            return intervalMs;
+        }
+        return intervalMs + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        }
+        catch (Exception e) {
+            log.error("Error running refresh task on executor " + name, e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setDaemon(true)
+                .build();
+    }
+
+    /*
+        Virtual threads are available from Java 21 onwards. We compile against an older release, so look
+        the factory up at runtime.
+     */
+    private static Optional<ExecutorService> virtualThreadExecutor() {
+        try {
+            val factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        }
+        catch (Exception e) {
+            log.debug("Could not create virtual thread executor", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Handle to a task scheduled using {@link #schedule(String, Runnable, long)}
+     */
+    public final class ScheduledRefresh {
+        private final String taskName;
+        private final Runnable task;
+        private final long intervalMs;
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> nextRun;
+
+        private ScheduledRefresh(String taskName, Runnable task, long intervalMs) {
+            this.taskName = taskName;
+            this.task = task;
+            this.intervalMs = intervalMs;
+        }
+
+        public void cancel() {
+            cancelled.set(true);
+            val currentRun = nextRun;
+            if (null != currentRun) {
+                currentRun.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        private void scheduleNext(long delayMs) {
+            if (cancelled.get() || stopped.get()) {
+                return;
+            }
+            try {
+                nextRun = scheduler.schedule(this::fire, delayMs, TimeUnit.MILLISECONDS);
+            }
+            catch (RejectedExecutionException e) {
+                log.debug("Refresh executor {} has been stopped. Not scheduling {}", name, taskName);
+            }
+        }
+
+        private void fire() {
+            if (cancelled.get()) {
+                return;
+            }
+            try {
+                execute(() -> {
+                    try {
+                        if (!cancelled.get()) {
+                            task.run();
+                        }
+                    }
+                    finally {
+                        scheduleNext(jitteredDelay(intervalMs));
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                log.debug("Refresh executor {} has been stopped. Not running {}", name, taskName);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import io.appform.ranger.core.model.ServiceNode;
+
+import java.util.List;
+
+/**
+ * Receives feedback about calls made by the client to the nodes it has selected
+ */
+public interface NodeFeedbackListener<T> {
+
+    /**
+     * Called when a call to the node is started
+     */
+    void onStart(ServiceNode<T> node);
+
+    /**
+     * Called when a call started using {@link #onStart(ServiceNode)} has completed
+     *
+     * @param node         node that was called
+     * @param latencyNanos time taken by the call
+     * @param success      whether the call succeeded
+     */
+    void onComplete(ServiceNode<T> node, long latencyNanos, boolean success);
+
+    /**
+     * Called when nodes are no longer present in the registry, so that state kept for them can be dropped.
+     * Nodes whose data or health changed are not reported, as they are still present.
+     *
+     * @param nodes nodes that left the registry
+     */
+    default void onNodesRemoved(List<ServiceNode<T>> nodes) {
+        //Nothing is kept by default
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A node selected for a call. The call is reported as started when the lease is created, and as completed when
+ * {@link #success()} or {@link #failure()} is called. Closing a lease that has not been completed reports a
+ * failure, so the lease can be used in a try-with-resources block:
+ * <pre>
+ *     try (val lease = finder.lease(criteria).orElseThrow()) {
+ *         call(lease.getNode());
+ *         lease.success();
+ *     }
+ * </pre>
+ */
+public final class NodeLease<T> implements AutoCloseable {
+    @Getter
+    private final ServiceNode<T> node;
+    private final NodeFeedbackListener<T> listener;
+    private final long startTime;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    public NodeLease(ServiceNode<T> node, NodeFeedbackListener<T> listener) {
+        this.node = node;
+        this.listener = listener;
+        this.startTime = System.nanoTime();
+        listener.onStart(node);
+    }
+
+    public void success() {
+        complete(true);
+    }
+
+    public void failure() {
+        complete(false);
+    }
+
+    @Override
+    public void close() {
+        complete(false);
+    }
+
+    private void complete(boolean success) {
+        if (completed.compareAndSet(false, true)) {
+            listener.onComplete(node, System.nanoTime() - startTime, success);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load statistics for a node, maintained from client feedback without locks.
+ * Latency is tracked as a peak sensitive moving average: a sample higher than the average replaces it
+ * immediately, lower samples are folded in with a weight that decays with the time since the last sample.
+ */
+public final class NodeStats {
+    private final long decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong lastSampleTime = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param decayNanos time constant for latency decay. Samples older than this have about a third of the weight
+     */
+    public NodeStats(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return moving average of latency in nanoseconds, 0 if there have been no samples yet
+     */
+    public double getLatencyEwma() {
+        return Double.longBitsToDouble(latencyEwmaBits.get());
+    }
+
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    public void onComplete(long latencyNanos) {
+        inFlight.updateAndGet(current -> current > 0 ? current - 1 : 0);
+        recordLatency(Math.max(0, latencyNanos));
+    }
+
+    private void recordLatency(long latencyNanos) {
+        val now = System.nanoTime();
+        val elapsed = Math.max(0, now - lastSampleTime.getAndSet(now));
+        val weight = Math.exp(-(double) elapsed / decayNanos);
+        while (true) {
+            val currentBits = latencyEwmaBits.get();
+            val current = Double.longBitsToDouble(currentBits);
+            val next = latencyNanos > current
+                       ? latencyNanos
+                       : current * weight + latencyNanos * (1 - weight);
+            if (latencyEwmaBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
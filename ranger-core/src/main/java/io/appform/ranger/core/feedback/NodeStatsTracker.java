@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import io.appform.ranger.core.model.NodeKey;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link NodeStats} for nodes based on feedback. Stats are keyed on the identity of the node (host, port
+ * and scheme), so they survive refreshes, including ones that change the health or score of the node. Stats of
+ * a node are dropped once it is reported removed through {@link #onNodesRemoved(List)}, which finders do for
+ * their feedback listeners. Only {@link #onStart(ServiceNode)} creates stats, so that a call completing after its
+ * node was removed does not bring the stats of the node back.
+ */
+public class NodeStatsTracker<T> implements NodeFeedbackListener<T> {
+    public static final long DEFAULT_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final long decayNanos;
+    private final ConcurrentMap<NodeKey, NodeStats> stats = new ConcurrentHashMap<>();
+
+    public NodeStatsTracker() {
+        this(DEFAULT_DECAY_NANOS);
+    }
+
+    public NodeStatsTracker(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    /**
+     * @return stats for the node, or fresh stats that are not tracked if no call to the node has been started
+     */
+    public NodeStats stats(ServiceNode<T> node) {
+        val existing = stats.get(NodeKey.of(node));
+        return null != existing ? existing : new NodeStats(decayNanos);
+    }
+
+    @Override
+    public void onStart(ServiceNode<T> node) {
+        //Plain lookup first, computeIfAbsent lets the key and the lambda escape, so they get allocated on every call
+        val key = NodeKey.of(node);
+        val existing = stats.get(key);
+        (null != existing ? existing : stats.computeIfAbsent(key, k -> new NodeStats(decayNanos))).onStart();
+    }
+
+    @Override
+    public void onComplete(ServiceNode<T> node, long latencyNanos, boolean success) {
+        val existing = stats.get(NodeKey.of(node));
+        if (null != existing) {
+            existing.onComplete(latencyNanos);
+        }
+    }
+
+    @Override
+    public void onNodesRemoved(List<ServiceNode<T>> nodes) {
+        nodes.forEach(node -> stats.remove(NodeKey.of(node)));
+    }
+}
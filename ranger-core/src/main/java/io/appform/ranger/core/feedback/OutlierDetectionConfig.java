@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Thresholds for passive outlier detection. See {@link OutlierDetector}
+ */
+@Value
+@Builder
+public class OutlierDetectionConfig {
+    /**
+     * Eject a node after this many failed calls in a row. 0 disables the check
+     */
+    @Builder.Default
+    int consecutiveFailures = 5;
+    /**
+     * Eject a node once this percentage of calls in the current interval have failed. 0 disables the check
+     */
+    @Builder.Default
+    int failureRatePercent = 50;
+    /**
+     * Minimum calls in an interval before the failure rate is considered
+     */
+    @Builder.Default
+    int failureRateMinimumCalls = 20;
+    /**
+     * Length of the interval over which the failure rate is computed
+     */
+    @Builder.Default
+    long failureRateIntervalMs = 10_000;
+    /**
+     * Duration of the first ejection. Every ejection that follows soon after doubles this
+     */
+    @Builder.Default
+    long baseEjectionTimeMs = 10_000;
+    /**
+     * Upper bound on the duration of an ejection. A node that has not been ejected for this long starts over
+     * from the base ejection time
+     */
+    @Builder.Default
+    long maxEjectionTimeMs = 300_000;
+    /**
+     * Max percentage of the nodes of the service that can be ejected at the same time. At least one node can
+     * always be ejected as long as the service has more than one node
+     */
+    @Builder.Default
+    int maxEjectionPercent = 20;
+}
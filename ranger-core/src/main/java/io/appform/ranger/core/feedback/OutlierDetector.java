@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.core.model.NodeKey;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Passive outlier detection based on call feedback. Nodes that fail too many calls in a row, or fail too large
+ * a share of calls in an interval, are ejected for a while: they stay in the registry but are skipped during
+ * selection. Repeat offenders are ejected for exponentially longer periods, and only a bounded share of the
+ * nodes of a service can be ejected at any time.
+ * Like {@link NodeStatsTracker}, state is kept per node identity (host, port and scheme), so an ejection survives
+ * registry refreshes and health or score updates of the node. State is dropped once the node leaves the registry,
+ * and is only created when a call to the node starts, so calls completing after that do not bring it back.
+ */
+@Slf4j
+public class OutlierDetector<T> implements NodeFeedbackListener<T> {
+    private final OutlierDetectionConfig config;
+    private final IntSupplier nodeCount;
+    private final ConcurrentMap<NodeKey, OutlierStats> stats = new ConcurrentHashMap<>();
+    private final Object ejectionLock = new Object();
+    private volatile long ejectionsActiveTill = System.nanoTime();
+
+    /**
+     * @param config    detection thresholds
+     * @param nodeCount supplies the current number of nodes of the service, used to cap ejections
+     */
+    public OutlierDetector(OutlierDetectionConfig config, IntSupplier nodeCount) {
+        Preconditions.checkNotNull(config, "Outlier detection config can't be null");
+        Preconditions.checkNotNull(nodeCount, "Node count supplier can't be null");
+        Preconditions.checkArgument(config.getBaseEjectionTimeMs() > 0, "Base ejection time must be positive");
+        Preconditions.checkArgument(config.getMaxEjectionTimeMs() >= config.getBaseEjectionTimeMs(),
+                                    "Max ejection time can't be less than base ejection time");
+        Preconditions.checkArgument(config.getMaxEjectionPercent() >= 0 && config.getMaxEjectionPercent() <= 100,
+                                    "Max ejection percent must be between 0 and 100");
+        this.config = config;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Cheap check to skip ejection handling altogether when no node is ejected
+     *
+     * @return true if some node may currently be ejected
+     */
+    public boolean hasEjections() {
+        return System.nanoTime() - ejectionsActiveTill < 0;
+    }
+
+    public boolean isEjected(ServiceNode<T> node) {
+        if (!hasEjections()) {
+            return false;
+        }
+        val nodeStats = stats.get(NodeKey.of(node));
+        return null != nodeStats && nodeStats.isEjected(System.nanoTime());
+    }
+
+    /**
+     * @param nodes candidate nodes
+     * @return nodes that are not ejected. All nodes if every one of them is ejected
+     */
+    public List<ServiceNode<T>> available(List<ServiceNode<T>> nodes) {
+        if (!hasEjections()) {
+            return nodes;
+        }
+        val available = new ArrayList<ServiceNode<T>>(nodes.size());
+        for (val node : nodes) {
+            if (!isEjected(node)) {
+                available.add(node);
+            }
+        }
+        return available.isEmpty() ? nodes : available;
+    }
+
+    @Override
+    public void onStart(ServiceNode<T> node) {
+        val key = NodeKey.of(node);
+        if (null == stats.get(key)) {
+            stats.computeIfAbsent(key, k -> new OutlierStats());
+        }
+    }
+
+    @Override
+    public void onComplete(ServiceNode<T> node, long latencyNanos, boolean success) {
+        val nodeStats = stats.get(NodeKey.of(node));
+        if (null == nodeStats) {
+            //The node has left the registry since the call started
+            return;
+        }
+        val now = System.nanoTime();
+        synchronized (nodeStats) {
+            if (nodeStats.isEjected(now)) {
+                //Outcomes of calls made before the ejection
+                return;
+            }
+            nodeStats.record(success, now, TimeUnit.MILLISECONDS.toNanos(config.getFailureRateIntervalMs()));
+            if (success || !isOutlier(nodeStats)) {
+                return;
+            }
+            eject(node, nodeStats, now);
+        }
+    }
+
+    @Override
+    public void onNodesRemoved(List<ServiceNode<T>> nodes) {
+        for (val node : nodes) {
+            stats.remove(NodeKey.of(node));
+        }
+    }
+
+    private boolean isOutlier(OutlierStats nodeStats) {
+        if (config.getConsecutiveFailures() > 0 && nodeStats.consecutiveFailures >= config.getConsecutiveFailures()) {
+            return true;
+        }
+        return config.getFailureRatePercent() > 0
+                && nodeStats.windowCalls >= Math.max(1, config.getFailureRateMinimumCalls())
+                && nodeStats.windowFailures * 100L >= (long) config.getFailureRatePercent() * nodeStats.windowCalls;
+    }
+
+    private void eject(ServiceNode<T> node, OutlierStats nodeStats, long now) {
+        synchronized (ejectionLock) {
+            val ejected = stats.values().stream().filter(other -> other.isEjected(now)).count();
+            if (ejected >= maxEjections()) {
+                log.debug("Not ejecting {}:{} as {} nodes are already ejected", node.getHost(), node.getPort(), ejected);
+                nodeStats.reset(now);
+                return;
+            }
+            val maxEjectionNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxEjectionTimeMs());
+            if (nodeStats.ejections > 0 && now - nodeStats.ejectedTill > maxEjectionNanos) {
+                nodeStats.ejections = 0;
+            }
+            val duration = Math.min(TimeUnit.MILLISECONDS.toNanos(config.getBaseEjectionTimeMs())
+                                            << Math.min(nodeStats.ejections, 30),
+                                    maxEjectionNanos);
+            nodeStats.ejections++;
+            nodeStats.reset(now);
+            nodeStats.ejectedTill = now + duration;
+            if (nodeStats.ejectedTill - ejectionsActiveTill > 0) {
+                ejectionsActiveTill = nodeStats.ejectedTill;
+            }
+            log.warn("Ejected {}:{} for {} ms after repeated call failures. Ejection count: {}",
+                     node.getHost(), node.getPort(), TimeUnit.NANOSECONDS.toMillis(duration), nodeStats.ejections);
+        }
+    }
+
+    private long maxEjections() {
+        val total = nodeCount.getAsInt();
+        if (total <= 1 || config.getMaxEjectionPercent() == 0) {
+            return 0;
+        }
+        return Math.max(1, (long) total * config.getMaxEjectionPercent() / 100);
+    }
+
+    private static final class OutlierStats {
+        private int consecutiveFailures;
+        private long windowStart = System.nanoTime();
+        private int windowCalls;
+        private int windowFailures;
+        private int ejections;
+        private volatile long ejectedTill = System.nanoTime();
+
+        private boolean isEjected(long now) {
+            return now - ejectedTill < 0;
+        }
+
+        private void record(boolean success, long now, long windowNanos) {
+            if (now - windowStart >= windowNanos) {
+                windowStart = now;
+                windowCalls = 0;
+                windowFailures = 0;
+            }
+            windowCalls++;
+            if (success) {
+                consecutiveFailures = 0;
+            }
+            else {
+                consecutiveFailures++;
+                windowFailures++;
+            }
+        }
+
+        private void reset(long now) {
+            consecutiveFailures = 0;
+            windowStart = now;
+            windowCalls = 0;
+            windowFailures = 0;
+        }
+    }
+}
@@ -18,6 +18,9 @@ package io.appform.ranger.core.finder;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import io.appform.ranger.core.executor.CoalescingRefreshTrigger;
+import io.appform.ranger.core.executor.RefreshExecutor;
+import io.appform.ranger.core.feedback.OutlierDetectionConfig;
 import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
 import io.appform.ranger.core.finder.serviceregistry.ServiceRegistryUpdater;
 import io.appform.ranger.core.finder.serviceregistry.signal.ScheduledRegistryUpdateSignal;
@@ -49,6 +52,10 @@ public abstract class BaseServiceFinderBuilder
     protected D deserializer;
     protected ShardSelector<T, R> shardSelector;
     protected ServiceNodeSelector<T> nodeSelector = new RandomServiceNodeSelector<>();
+    protected RefreshExecutor refreshExecutor;
+    protected OutlierDetectionConfig outlierDetectionConfig;
+    protected long refreshDebounceMs = CoalescingRefreshTrigger.DEFAULT_DEBOUNCE_MS;
+    protected long refreshMaxDelayMs = CoalescingRefreshTrigger.DEFAULT_MAX_DELAY_MS;
     protected final List<Signal<T>> additionalRefreshSignals = new ArrayList<>();
     protected final List<Consumer<Void>> startSignalHandlers = Lists.newArrayList();
     protected final List<Consumer<Void>> stopSignalHandlers = Lists.newArrayList();
@@ -83,6 +90,52 @@ public abstract class BaseServiceFinderBuilder
         return (B)this;
     }
 
+    /**
+     * Run refreshes for this finder on a shared executor instead of dedicated updater and timer threads.
+     * The executor is not stopped when the finder is stopped.
+     *
+     * @param refreshExecutor shared executor, null to use dedicated threads
+     * @return builder for next call
+     */
+    public B withRefreshExecutor(RefreshExecutor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        return (B)this;
+    }
+
+    /**
+     * Hold back a refresh till no refresh signal has been received for the given period, so that a burst of
+     * watcher/timer signals results in a single refresh.
+     *
+     * @param refreshDebounceMs quiet period in ms, 0 to refresh as soon as a signal is received
+     * @return builder for next call
+     */
+    public B withRefreshDebounceMs(long refreshDebounceMs) {
+        this.refreshDebounceMs = refreshDebounceMs;
+        return (B)this;
+    }
+
+    /**
+     * Upper bound on how long a pending refresh can be held back by {@link #withRefreshDebounceMs(long)}
+     *
+     * @param refreshMaxDelayMs max delay in ms
+     * @return builder for next call
+     */
+    public B withRefreshMaxDelayMs(long refreshMaxDelayMs) {
+        this.refreshMaxDelayMs = refreshMaxDelayMs;
+        return (B)this;
+    }
+
+    /**
+     * Skip nodes that fail calls reported to the finder. See {@link ServiceFinder#enableOutlierDetection}
+     *
+     * @param outlierDetectionConfig detection thresholds, null to disable
+     * @return builder for next call
+     */
+    public B withOutlierDetection(OutlierDetectionConfig outlierDetectionConfig) {
+        this.outlierDetectionConfig = outlierDetectionConfig;
+        return (B)this;
+    }
+
     public B withDisableWatchers() {
         this.disablePushUpdaters = true;
         return (B)this;
@@ -142,18 +195,22 @@ public abstract class BaseServiceFinderBuilder
         }
         val service = Service.builder().namespace(namespace).serviceName(serviceName).build();
         val finder = buildFinder(service, shardSelector, nodeSelector);
+        if (null != outlierDetectionConfig) {
+            finder.enableOutlierDetection(outlierDetectionConfig);
+        }
         val registry = finder.getServiceRegistry();
         val signalGenerators = new ArrayList<Signal<T>>();
         val nodeDataSource = dataSource(service);
 
-        signalGenerators.add(new ScheduledRegistryUpdateSignal<>(service, nodeRefreshIntervalMs));
+        signalGenerators.add(new ScheduledRegistryUpdateSignal<>(service, nodeRefreshIntervalMs, refreshExecutor));
         additionalRefreshSignals.addAll(implementationSpecificRefreshSignals(service, nodeDataSource));
         if (!additionalRefreshSignals.isEmpty()) {
             signalGenerators.addAll(additionalRefreshSignals);
             log.debug("Added additional signal handlers");
         }
 
-        val updater = new ServiceRegistryUpdater<>(registry, nodeDataSource, signalGenerators, deserializer);
+        val updater = new ServiceRegistryUpdater<>(registry, nodeDataSource, signalGenerators, deserializer,
+                                                   refreshExecutor, refreshDebounceMs, refreshMaxDelayMs);
         finder.getStartSignal()
                 .registerConsumers(startSignalHandlers)
                 .registerConsumer(x -> nodeDataSource.start())
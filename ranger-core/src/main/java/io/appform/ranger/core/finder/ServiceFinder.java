@@ -16,6 +16,17 @@
 
 package io.appform.ranger.core.finder;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.events.NodeChangeEvent;
+import io.appform.ranger.core.feedback.NodeFeedbackListener;
+import io.appform.ranger.core.feedback.NodeLease;
+import io.appform.ranger.core.feedback.OutlierDetectionConfig;
+import io.appform.ranger.core.feedback.OutlierDetector;
+import io.appform.ranger.core.finder.nodeselector.ConsistentHashServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.OutlierAwareServiceNodeSelector;
+import io.appform.ranger.core.model.KeyedServiceNodeSelector;
+import io.appform.ranger.core.model.NodeKey;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ServiceRegistry;
@@ -23,20 +34,42 @@ import io.appform.ranger.core.model.ShardSelector;
 import io.appform.ranger.core.signals.ExternalTriggeredSignal;
 import io.appform.ranger.core.util.ObjectUtils;
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 @Slf4j
-public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> {
+public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> implements NodeFeedbackListener<T> {
     @Getter
     private final R serviceRegistry;
     private final ShardSelector<T, R> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private static final int MAX_CACHED_KEYED_CRITERIA = 256;
+
+    private final KeyedServiceNodeSelector<T> keyedNodeSelector = new ConsistentHashServiceNodeSelector<>();
+    /* Nodes for keyed lookups per criteria, for the current snapshot, so the keyed selector sees the same list */
+    private final Cache<Predicate<T>, KeyedNodes<T>> keyedNodes = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_CACHED_KEYED_CRITERIA)
+            .build();
+    private volatile KeyedNodes<T> unfilteredKeyedNodes;
+    private Flow.Subscription nodeRemovalForwarder;
+    /* Nodes present as of the last event seen by the removal forwarder. Only used on the event delivery thread */
+    private Map<NodeKey, ServiceNode<T>> forwarderNodes = Map.of();
+    private final List<NodeFeedbackListener<T>> feedbackListeners = new CopyOnWriteArrayList<>();
+    @Getter
+    private volatile OutlierDetector<T> outlierDetector;
     @Getter
     private final ExternalTriggeredSignal<Void> startSignal = new ExternalTriggeredSignal<>(() -> null,
                                                                                             Collections.emptyList());
@@ -44,6 +77,7 @@ public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> {
     private final ExternalTriggeredSignal<Void> stopSignal = new ExternalTriggeredSignal<>(() -> null,
                                                                                            Collections.emptyList());
 
+    @SuppressWarnings("unchecked")
     protected ServiceFinder(
             R serviceRegistry,
             ShardSelector<T, R> shardSelector,
@@ -51,6 +85,10 @@ public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> {
         this.serviceRegistry = serviceRegistry;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        if (nodeSelector instanceof NodeFeedbackListener) {
+            feedbackListeners.add((NodeFeedbackListener<T>) nodeSelector);
+            forwardNodeRemovals();
+        }
     }
 
     public Optional<ServiceNode<T>> get(Predicate<T> criteria) {
@@ -67,11 +105,171 @@ public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> {
             Predicate<T> criteria,
             final ShardSelector<T, R> shardSelector,
             final ServiceNodeSelector<T> nodeSelector) {
-        val nodes = ObjectUtils.requireNonNullElse(shardSelector, this.shardSelector)
-                .nodes(criteria, serviceRegistry);
-        return nodes.isEmpty()
-               ? Optional.empty()
-               : Optional.ofNullable(ObjectUtils.requireNonNullElse(nodeSelector, this.nodeSelector).select(nodes));
+        val selector = ObjectUtils.requireNonNullElse(shardSelector, this.shardSelector);
+        return Optional.ofNullable(selector.select(criteria,
+                                                   serviceRegistry,
+                                                   withoutOutliers(ObjectUtils.requireNonNullElse(nodeSelector,
+                                                                                                  this.nodeSelector))));
+    }
+
+    /**
+     * Get the node for a routing key. The same key keeps mapping to the same node as long as that node is
+     * available, which helps with cache affinity. Adding or removing a node only moves the keys of that node.
+     * The nodes matching a criteria are computed once per registry snapshot, with criteria matched by identity,
+     * so lookups that reuse their criteria do not go over all nodes.
+     *
+     * @param criteria criteria for the nodes to select from
+     * @param key      routing key
+     * @return node for the key
+     */
+    public Optional<ServiceNode<T>> getForKey(Predicate<T> criteria, String key) {
+        return getForKey(criteria, key, null, null);
+    }
+
+    public Optional<ServiceNode<T>> getForKey(
+            Predicate<T> criteria,
+            String key,
+            final ShardSelector<T, R> shardSelector,
+            final KeyedServiceNodeSelector<T> nodeSelector) {
+        val nodes = null == shardSelector
+                    ? keyedNodes(criteria)
+                    : shardSelector.nodes(criteria, serviceRegistry);
+        val selector = ObjectUtils.requireNonNullElse(nodeSelector, this.keyedNodeSelector);
+        val node = selector.select(nodes, key);
+        val detector = this.outlierDetector;
+        if (null == node || null == detector || !detector.isEjected(node)) {
+            return Optional.ofNullable(node);
+        }
+        return Optional.ofNullable(selector.select(detector.available(nodes), key));
+    }
+
+    /**
+     * Get a node and report the call made to it as started. The call has to be completed on the returned lease.
+     *
+     * @param criteria criteria for the node
+     * @return lease for the selected node
+     */
+    public Optional<NodeLease<T>> lease(Predicate<T> criteria) {
+        return get(criteria).map(node -> new NodeLease<>(node, this));
+    }
+
+    /**
+     * Register a listener for call feedback. The node selector of the finder is registered automatically if it
+     * uses feedback.
+     */
+    public void addFeedbackListener(NodeFeedbackListener<T> listener) {
+        feedbackListeners.add(listener);
+        forwardNodeRemovals();
+    }
+
+    /**
+     * Start skipping nodes that fail calls reported as feedback to this finder. Ejected nodes are excluded by
+     * {@link #get(Predicate)} and {@link #getForKey(Predicate, String)}, but are still returned by
+     * {@link #getAll(Predicate)}.
+     *
+     * @param config outlier detection thresholds
+     * @return the detector, registered as a feedback listener of this finder
+     */
+    public OutlierDetector<T> enableOutlierDetection(OutlierDetectionConfig config) {
+        val detector = new OutlierDetector<T>(config, () -> serviceRegistry.nodeList().size());
+        addFeedbackListener(detector);
+        this.outlierDetector = detector;
+        return detector;
+    }
+
+    /**
+     * Report that a call to a node returned by this finder has started
+     */
+    @Override
+    public void onStart(ServiceNode<T> node) {
+        for (val listener : feedbackListeners) {
+            listener.onStart(node);
+        }
+    }
+
+    /**
+     * Report that a call started using {@link #onStart(ServiceNode)} has completed
+     */
+    @Override
+    public void onComplete(ServiceNode<T> node, long latencyNanos, boolean success) {
+        for (val listener : feedbackListeners) {
+            listener.onComplete(node, latencyNanos, success);
+        }
+    }
+
+    private List<ServiceNode<T>> keyedNodes(Predicate<T> criteria) {
+        val version = serviceRegistry.getSnapshotVersion();
+        val cached = null == criteria ? unfilteredKeyedNodes : keyedNodes.getIfPresent(criteria);
+        if (null != cached && cached.getVersion() == version) {
+            return cached.getNodes();
+        }
+        val nodes = List.copyOf(shardSelector.nodes(criteria, serviceRegistry));
+        val updated = new KeyedNodes<>(version, nodes);
+        if (null == criteria) {
+            unfilteredKeyedNodes = updated;
+        }
+        else {
+            keyedNodes.put(criteria, updated);
+        }
+        return nodes;
+    }
+
+    /**
+     * Report nodes that left the registry to the feedback listeners
+     */
+    @Override
+    public void onNodesRemoved(List<ServiceNode<T>> nodes) {
+        for (val listener : feedbackListeners) {
+            listener.onNodesRemoved(nodes);
+        }
+    }
+
+    private synchronized void forwardNodeRemovals() {
+        if (null == nodeRemovalForwarder) {
+            forwarderNodes = nodesByKey(serviceRegistry.nodeList());
+            nodeRemovalForwarder = serviceRegistry.nodeChanges().addListener(this::onNodeChange);
+        }
+    }
+
+    /*
+        Changed nodes are reported as removed and added again, and events are delivered asynchronously, so only
+        nodes that are not in the registry any more are forwarded. Undelivered events are conflated, which can
+        net the removal of a node out against the initial state sent on subscription, so nodes present when the
+        forwarder was set up or in the last event seen are compared against the registry as well.
+     */
+    private void onNodeChange(NodeChangeEvent<T> event) {
+        val present = nodesByKey(serviceRegistry.nodeList());
+        val removed = new ArrayList<ServiceNode<T>>();
+        forwarderNodes.forEach((key, node) -> {
+            if (!present.containsKey(key)) {
+                removed.add(node);
+            }
+        });
+        for (val node : event.getRemoved()) {
+            val key = NodeKey.of(node);
+            if (!present.containsKey(key) && !forwarderNodes.containsKey(key)) {
+                removed.add(node);
+            }
+        }
+        forwarderNodes = present;
+        if (!removed.isEmpty()) {
+            onNodesRemoved(removed);
+        }
+    }
+
+    private static <T> Map<NodeKey, ServiceNode<T>> nodesByKey(List<ServiceNode<T>> nodes) {
+        val byKey = new HashMap<NodeKey, ServiceNode<T>>(Math.max(16, nodes.size() * 2));
+        for (val node : nodes) {
+            byKey.put(NodeKey.of(node), node);
+        }
+        return byKey;
+    }
+
+    private ServiceNodeSelector<T> withoutOutliers(ServiceNodeSelector<T> nodeSelector) {
+        val detector = this.outlierDetector;
+        return null != detector && detector.hasEjections()
+               ? new OutlierAwareServiceNodeSelector<>(nodeSelector, detector)
+               : nodeSelector;
     }
 
     public List<ServiceNode<T>> getAll(Predicate<T> criteria) {
@@ -83,11 +281,60 @@ public abstract class ServiceFinder<T, R extends ServiceRegistry<T>> {
                 .nodes(criteria, serviceRegistry);
     }
 
+    /**
+     * Subscribe to additions and removals of nodes for this service. Subscribers first receive the current
+     * nodes as additions. Delivery is asynchronous; undelivered events are conflated.
+     *
+     * @return publisher of node changes
+     */
+    public Flow.Publisher<NodeChangeEvent<T>> nodeChanges() {
+        return serviceRegistry.nodeChanges();
+    }
+
+    /**
+     * Listen to additions and removals of nodes for this service. See {@link #nodeChanges()}
+     *
+     * @param listener called asynchronously for every change. Should not block
+     * @return subscription that can be cancelled to stop listening
+     */
+    public Flow.Subscription addNodeChangeListener(Consumer<NodeChangeEvent<T>> listener) {
+        return serviceRegistry.nodeChanges().addListener(listener);
+    }
+
+    /**
+     * Start the finder. A finder that fails to start, for example because it was interrupted while waiting for
+     * its first refresh, is stopped before the error is rethrown, so that it leaves no threads or connections
+     * behind.
+     */
     public void start() {
-        startSignal.trigger();
+        try {
+            startSignal.trigger();
+        }
+        catch (RuntimeException e) {
+            log.warn("Could not start finder for service {}. Stopping it", serviceRegistry.getService().name());
+            try {
+                stop();
+            }
+            catch (RuntimeException stopError) {
+                e.addSuppressed(stopError);
+            }
+            throw e;
+        }
     }
 
     public void stop() {
+        synchronized (this) {
+            if (null != nodeRemovalForwarder) {
+                nodeRemovalForwarder.cancel();
+                nodeRemovalForwarder = null;
+            }
+        }
         stopSignal.trigger();
     }
+
+    @Value
+    private static class KeyedNodes<T> {
+        long version;
+        List<ServiceNode<T>> nodes;
+    }
 }
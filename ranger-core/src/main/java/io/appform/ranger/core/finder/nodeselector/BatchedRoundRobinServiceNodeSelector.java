@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Round-robin where every thread claims a batch of consecutive positions from a shared cursor and hands them out
+ * locally. The shared cursor is touched once per batch instead of once per call. Positions are claimed in
+ * order, so the rotation over all threads stays strict round-robin except for batches that are only partly
+ * used: no node gets more than {@code batchSize} requests above its fair share, which makes the batch size
+ * the fairness bound.
+ * Like {@link StripedRoundRobinServiceNodeSelector}, cursors are kept per node list, see {@link NodeListState}.
+ * A thread that alternates between node lists claims a new batch on every switch.
+ */
+public class BatchedRoundRobinServiceNodeSelector<T> implements ServiceNodeSelector<T> {
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    private final int batchSize;
+    private final NodeListState<AtomicLong> cursors = new NodeListState<>(
+            () -> new AtomicLong(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE)));
+    private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+
+    public BatchedRoundRobinServiceNodeSelector() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize positions claimed by a thread at a time
+     */
+    public BatchedRoundRobinServiceNodeSelector(int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        val size = serviceNodes.size();
+        return size == 0 ? null : serviceNodes.get(nextIndex(serviceNodes, size));
+    }
+
+    /*
+        Matching nodes are counted first and then the n-th match is picked, so no list of matches is built. The
+        cursor of the given list is used, so that all lookups on a snapshot share it.
+     */
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, Predicate<T> criteria) {
+        if (null == criteria) {
+            return select(serviceNodes);
+        }
+        val size = serviceNodes.size();
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            if (criteria.test(serviceNodes.get(i).getNodeData())) {
+                matched++;
+            }
+        }
+        if (matched == 0) {
+            return null;
+        }
+        int remaining = nextIndex(serviceNodes, matched);
+        for (int i = 0; i < size; i++) {
+            val node = serviceNodes.get(i);
+            if (criteria.test(node.getNodeData()) && remaining-- == 0) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private int nextIndex(List<ServiceNode<T>> serviceNodes, int count) {
+        if (count == 1) {
+            return 0;
+        }
+        val cursor = cursors.get(serviceNodes);
+        val batch = batches.get();
+        if (batch.cursor != cursor || batch.next == batch.end) {
+            batch.cursor = cursor;
+            batch.next = cursor.getAndAdd(batchSize);
+            batch.end = batch.next + batchSize;
+        }
+        return (int) (batch.next++ % count);
+    }
+
+    private static final class Batch {
+        private AtomicLong cursor;
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.appform.ranger.core.model.KeyedServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring based selector. Every node is placed at a number of (virtual) points on a ring, based on
+ * its host and port, and a key is served by the node owning the first point at or after the hash of the key.
+ * Adding or removing a node therefore only moves the keys of the affected node (about 1/N of all keys), and
+ * all clients map a key to the same node irrespective of the order in which they see the nodes.
+ * Rings are built once for every distinct set of nodes and looked up using a binary search. Rings are found by
+ * the identity of the list passed in, so callers that pass the same list for a snapshot (as
+ * {@link io.appform.ranger.core.finder.ServiceFinder#getForKey} does) get constant time ring lookups. Lists passed
+ * to the selector must therefore not be modified afterwards. Other lists cost one pass over the nodes to find
+ * their ring.
+ */
+public class ConsistentHashServiceNodeSelector<T> implements KeyedServiceNodeSelector<T> {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+    private static final int MAX_CACHED_RINGS = 64;
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final int virtualNodes;
+    private final Cache<Long, HashRing<T>> rings = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_RINGS)
+            .build();
+    private final Cache<List<ServiceNode<T>>, HashRing<T>> ringsByList = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_CACHED_RINGS)
+            .build();
+
+    public ConsistentHashServiceNodeSelector() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param virtualNodes number of points on the ring per node. More points spread keys more evenly at the cost
+     *                     of memory and build time
+     */
+    public ConsistentHashServiceNodeSelector(int virtualNodes) {
+        Preconditions.checkArgument(virtualNodes > 0, "Virtual nodes must be positive");
+        this.virtualNodes = virtualNodes;
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, String key) {
+        Preconditions.checkNotNull(key, "Routing key can't be null");
+        if (serviceNodes.isEmpty()) {
+            return null;
+        }
+        if (serviceNodes.size() == 1) {
+            return serviceNodes.get(0);
+        }
+        return ring(serviceNodes).get(HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong());
+    }
+
+    /*
+        Snapshots reuse node instances for unchanged nodes, so an identity based fingerprint finds the ring for a
+        node set without rebuilding it, even when the list itself is built afresh for every lookup.
+     */
+    private HashRing<T> ring(List<ServiceNode<T>> serviceNodes) {
+        val known = ringsByList.getIfPresent(serviceNodes);
+        if (null != known && known.nodes.size() == serviceNodes.size()) {
+            return known;
+        }
+        long fingerprint = serviceNodes.size();
+        for (int i = 0; i < serviceNodes.size(); i++) {
+            fingerprint = 31 * fingerprint + System.identityHashCode(serviceNodes.get(i));
+        }
+        var ring = rings.getIfPresent(fingerprint);
+        if (null == ring || !ring.isFor(serviceNodes)) {
+            ring = HashRing.build(serviceNodes, virtualNodes);
+            rings.put(fingerprint, ring);
+        }
+        ringsByList.put(serviceNodes, ring);
+        return ring;
+    }
+
+    private static final class HashRing<T> {
+        private final List<ServiceNode<T>> nodes;
+        private final long[] points;
+        private final int[] owners;
+
+        private HashRing(List<ServiceNode<T>> nodes, long[] points, int[] owners) {
+            this.nodes = nodes;
+            this.points = points;
+            this.owners = owners;
+        }
+
+        static <T> HashRing<T> build(List<ServiceNode<T>> nodes, int virtualNodes) {
+            val nodeSnapshot = List.copyOf(nodes);
+            val ring = new TreeMap<Long, Integer>();
+            for (int i = 0; i < nodeSnapshot.size(); i++) {
+                val node = nodeSnapshot.get(i);
+                val nodeId = node.getHost() + ":" + node.getPort() + "#";
+                for (int v = 0; v < virtualNodes; v++) {
+                    ring.putIfAbsent(HASH_FUNCTION.hashString(nodeId + v, StandardCharsets.UTF_8).asLong(), i);
+                }
+            }
+            val points = new long[ring.size()];
+            val owners = new int[ring.size()];
+            int position = 0;
+            for (val point : ring.entrySet()) {
+                points[position] = point.getKey();
+                owners[position] = point.getValue();
+                position++;
+            }
+            return new HashRing<>(nodeSnapshot, points, owners);
+        }
+
+        boolean isFor(List<ServiceNode<T>> serviceNodes) {
+            if (serviceNodes.size() != nodes.size()) {
+                return false;
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                if (serviceNodes.get(i) != nodes.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        ServiceNode<T> get(long keyHash) {
+            var position = Arrays.binarySearch(points, keyHash);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            return nodes.get(owners[position == points.length ? 0 : position]);
+        }
+    }
+}
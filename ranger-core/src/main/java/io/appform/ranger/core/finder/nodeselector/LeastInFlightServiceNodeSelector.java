@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.feedback.NodeStats;
+import io.appform.ranger.core.feedback.NodeStatsTracker;
+
+/**
+ * Power of two choices over the number of calls in flight to each node
+ */
+public class LeastInFlightServiceNodeSelector<T> extends PowerOfTwoChoicesServiceNodeSelector<T> {
+
+    public LeastInFlightServiceNodeSelector() {
+        super(new NodeStatsTracker<>());
+    }
+
+    @Override
+    protected double cost(NodeStats stats) {
+        return stats.getInFlight();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * State kept by a node selector for every node list it selects from, like the cursors of a round-robin selector.
+ * Registries publish one list instance per snapshot version, so every snapshot of a service gets state of its
+ * own and a selector shared by finders of different services keeps their state apart.
+ * State is found by the identity of the list passed in, in a small table of recently seen lists. A lookup that
+ * finds its list only reads the table, so lookups from many threads, for one or many services, do not contend.
+ * Shard selectors that build a new list on every call pass lists with the same node instances for a snapshot,
+ * and those are matched with one pass over the nodes.
+ */
+final class NodeListState<S> {
+    private static final int MAX_CACHED_LISTS = 64;
+
+    private final Supplier<S> stateFactory;
+    private final AtomicReferenceArray<Slot<S>> recentLists = new AtomicReferenceArray<>(MAX_CACHED_LISTS);
+    private final Cache<Long, Entry<S>> byFingerprint = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_LISTS)
+            .build();
+
+    NodeListState(Supplier<S> stateFactory) {
+        this.stateFactory = stateFactory;
+    }
+
+    S get(List<? extends ServiceNode<?>> serviceNodes) {
+        val index = System.identityHashCode(serviceNodes) & (MAX_CACHED_LISTS - 1);
+        val slot = recentLists.get(index);
+        if (null != slot && slot.source == serviceNodes && slot.size == serviceNodes.size()) {
+            return slot.state;
+        }
+        long fingerprint = serviceNodes.size();
+        for (int i = 0; i < serviceNodes.size(); i++) {
+            fingerprint = 31 * fingerprint + System.identityHashCode(serviceNodes.get(i));
+        }
+        var entry = byFingerprint.getIfPresent(fingerprint);
+        if (null == entry || !entry.isFor(serviceNodes)) {
+            entry = new Entry<>(serviceNodes, stateFactory.get());
+            byFingerprint.put(fingerprint, entry);
+        }
+        recentLists.set(index, new Slot<>(serviceNodes, entry.state));
+        return entry.state;
+    }
+
+    private static final class Slot<S> {
+        private final List<?> source;
+        private final int size;
+        private final S state;
+
+        private Slot(List<?> source, S state) {
+            this.source = source;
+            this.size = source.size();
+            this.state = state;
+        }
+    }
+
+    private static final class Entry<S> {
+        private final List<ServiceNode<?>> nodes;
+        private final S state;
+
+        private Entry(List<? extends ServiceNode<?>> source, S state) {
+            this.nodes = List.copyOf(source);
+            this.state = state;
+        }
+
+        private boolean isFor(List<? extends ServiceNode<?>> serviceNodes) {
+            if (serviceNodes.size() != nodes.size()) {
+                return false;
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i) != serviceNodes.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.feedback.OutlierDetector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Skips nodes ejected by an {@link OutlierDetector}. Selection is first done on the given nodes as is; the
+ * ejected nodes are filtered out only if an ejected node gets picked. If every candidate is ejected, the pick
+ * is returned anyway, as a possibly bad node is better than no node at all.
+ */
+public class OutlierAwareServiceNodeSelector<T> implements ServiceNodeSelector<T> {
+    private final ServiceNodeSelector<T> nodeSelector;
+    private final OutlierDetector<T> outlierDetector;
+
+    public OutlierAwareServiceNodeSelector(ServiceNodeSelector<T> nodeSelector, OutlierDetector<T> outlierDetector) {
+        this.nodeSelector = nodeSelector;
+        this.outlierDetector = outlierDetector;
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        val node = nodeSelector.select(serviceNodes);
+        if (null == node || !outlierDetector.isEjected(node)) {
+            return node;
+        }
+        val available = outlierDetector.available(serviceNodes);
+        return available == serviceNodes ? node : nodeSelector.select(available);
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, Predicate<T> criteria) {
+        val node = nodeSelector.select(serviceNodes, criteria);
+        if (null == node || !outlierDetector.isEjected(node)) {
+            return node;
+        }
+        val available = outlierDetector.available(
+                null == criteria
+                ? serviceNodes
+                : serviceNodes.stream().filter(candidate -> criteria.test(candidate.getNodeData())).toList());
+        return nodeSelector.select(available);
+    }
+}
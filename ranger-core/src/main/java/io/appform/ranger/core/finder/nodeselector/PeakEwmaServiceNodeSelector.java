@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.feedback.NodeStats;
+import io.appform.ranger.core.feedback.NodeStatsTracker;
+import lombok.val;
+
+/**
+ * Power of two choices over the peak EWMA latency of each node, scaled by the calls in flight to it.
+ * Latency spikes (GC pauses, warm up) are reflected immediately and decay over time. Nodes without latency
+ * samples are preferred while idle, but take only one call at a time till the first call completes.
+ */
+public class PeakEwmaServiceNodeSelector<T> extends PowerOfTwoChoicesServiceNodeSelector<T> {
+    private static final double UNKNOWN_LATENCY_PENALTY = Double.MAX_VALUE / 2;
+
+    public PeakEwmaServiceNodeSelector() {
+        this(NodeStatsTracker.DEFAULT_DECAY_NANOS);
+    }
+
+    /**
+     * @param decayNanos time constant over which latency samples lose their weight
+     */
+    public PeakEwmaServiceNodeSelector(long decayNanos) {
+        super(new NodeStatsTracker<>(decayNanos));
+    }
+
+    @Override
+    protected double cost(NodeStats stats) {
+        val latency = stats.getLatencyEwma();
+        val inFlight = stats.getInFlight();
+        if (latency == 0 && inFlight > 0) {
+            return UNKNOWN_LATENCY_PENALTY;
+        }
+        return latency * (inFlight + 1);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.feedback.NodeFeedbackListener;
+import io.appform.ranger.core.feedback.NodeStats;
+import io.appform.ranger.core.feedback.NodeStatsTracker;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base for selectors that use client feedback: two distinct nodes are picked at random and the one with the
+ * lower cost wins. This avoids herding on a single "best" node while still steering away from loaded nodes.
+ * Feedback needs to be reported to the selector (directly, or through the finder it is configured on).
+ */
+public abstract class PowerOfTwoChoicesServiceNodeSelector<T> implements ServiceNodeSelector<T>, NodeFeedbackListener<T> {
+    private final NodeStatsTracker<T> statsTracker;
+
+    protected PowerOfTwoChoicesServiceNodeSelector(NodeStatsTracker<T> statsTracker) {
+        this.statsTracker = statsTracker;
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        val size = serviceNodes.size();
+        if (size == 1) {
+            return serviceNodes.get(0);
+        }
+        val random = ThreadLocalRandom.current();
+        val first = random.nextInt(size);
+        var second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        val firstNode = serviceNodes.get(first);
+        val secondNode = serviceNodes.get(second);
+        return cost(statsTracker.stats(secondNode)) < cost(statsTracker.stats(firstNode)) ? secondNode : firstNode;
+    }
+
+    @Override
+    public void onStart(ServiceNode<T> node) {
+        statsTracker.onStart(node);
+    }
+
+    @Override
+    public void onComplete(ServiceNode<T> node, long latencyNanos, boolean success) {
+        statsTracker.onComplete(node, latencyNanos, success);
+    }
+
+    @Override
+    public void onNodesRemoved(List<ServiceNode<T>> nodes) {
+        statsTracker.onNodesRemoved(nodes);
+    }
+
+    public NodeStats stats(ServiceNode<T> node) {
+        return statsTracker.stats(node);
+    }
+
+    /**
+     * @return cost of sending a request to the node. Lower is better
+     */
+    protected abstract double cost(NodeStats stats);
+}
@@ -17,9 +17,11 @@ package io.appform.ranger.core.finder.nodeselector;
 
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
 
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
 public class RandomServiceNodeSelector<T> implements ServiceNodeSelector<T> {
 
@@ -27,4 +29,29 @@ public class RandomServiceNodeSelector<T> implements ServiceNodeSelector<T> {
     public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
         return serviceNodes.get(ThreadLocalRandom.current().nextInt(serviceNodes.size()));
     }
+
+    /*
+        Single pass reservoir selection: the k-th matching node replaces the current pick with probability 1/k,
+        so every matching node is equally likely to be picked without collecting the matches.
+     */
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, Predicate<T> criteria) {
+        val size = serviceNodes.size();
+        if (size == 0) {
+            return null;
+        }
+        val random = ThreadLocalRandom.current();
+        if (null == criteria) {
+            return serviceNodes.get(random.nextInt(size));
+        }
+        ServiceNode<T> selected = null;
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            val node = serviceNodes.get(i);
+            if (criteria.test(node.getNodeData()) && random.nextInt(++matched) == 0) {
+                selected = node;
+            }
+        }
+        return selected;
+    }
 }
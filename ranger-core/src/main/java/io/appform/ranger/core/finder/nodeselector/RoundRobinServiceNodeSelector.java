@@ -17,15 +17,55 @@ package io.appform.ranger.core.finder.nodeselector;
 
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
 
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 public class RoundRobinServiceNodeSelector<T> implements ServiceNodeSelector<T> {
     private final AtomicInteger index = new AtomicInteger();
 
     @Override
     public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
-        return serviceNodes.get(index.updateAndGet(i -> (i + 1) % serviceNodes.size()));
+        return serviceNodes.get(nextIndex(serviceNodes.size()));
+    }
+
+    /*
+        Matching nodes are counted first and then the n-th match is picked, so no list of matches is built.
+     */
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, Predicate<T> criteria) {
+        val size = serviceNodes.size();
+        if (null == criteria) {
+            return size == 0 ? null : serviceNodes.get(nextIndex(size));
+        }
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            if (criteria.test(serviceNodes.get(i).getNodeData())) {
+                matched++;
+            }
+        }
+        if (matched == 0) {
+            return null;
+        }
+        int remaining = nextIndex(matched);
+        for (int i = 0; i < size; i++) {
+            val node = serviceNodes.get(i);
+            if (criteria.test(node.getNodeData()) && remaining-- == 0) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private int nextIndex(int size) {
+        while (true) {
+            val current = index.get();
+            val next = (current + 1) % size;
+            if (index.compareAndSet(current, next)) {
+                return next;
+            }
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * Round-robin over independent cursors (stripes), each on its own cache line. A thread always uses the same
+ * stripe, so threads on different stripes never contend. Every stripe walks all the nodes, starting at a
+ * different offset, so at any point no node has received more than {@code stripes} requests above its fair
+ * share: the number of stripes is the fairness bound.
+ * Cursors are kept per node list, see {@link NodeListState}, so a selector shared by finders of different
+ * services does not interleave their rotations. A new snapshot starts its rotation at a random node.
+ */
+public class StripedRoundRobinServiceNodeSelector<T> implements ServiceNodeSelector<T> {
+    public static final int DEFAULT_STRIPES = Math.min(64, ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+    /* Counters are placed a cache line apart */
+    private static final int PADDING = 8;
+
+    private final int stripeMask;
+    private final NodeListState<AtomicLongArray> counters;
+
+    public StripedRoundRobinServiceNodeSelector() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes number of independent cursors, rounded up to a power of two. Higher values reduce
+     *                contention, lower values keep the distribution closer to strict round-robin
+     */
+    public StripedRoundRobinServiceNodeSelector(int stripes) {
+        Preconditions.checkArgument(stripes > 0 && stripes <= 1024, "Stripes must be between 1 and 1024");
+        val stripeCount = ceilingPowerOfTwo(stripes);
+        this.stripeMask = stripeCount - 1;
+        this.counters = new NodeListState<>(() -> newCounters(stripeCount));
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        val size = serviceNodes.size();
+        return size == 0 ? null : serviceNodes.get(nextIndex(serviceNodes, size));
+    }
+
+    /*
+        Matching nodes are counted first and then the n-th match is picked, so no list of matches is built. The
+        cursors of the given list are used, so that all lookups on a snapshot share them.
+     */
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, Predicate<T> criteria) {
+        if (null == criteria) {
+            return select(serviceNodes);
+        }
+        val size = serviceNodes.size();
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            if (criteria.test(serviceNodes.get(i).getNodeData())) {
+                matched++;
+            }
+        }
+        if (matched == 0) {
+            return null;
+        }
+        int remaining = nextIndex(serviceNodes, matched);
+        for (int i = 0; i < size; i++) {
+            val node = serviceNodes.get(i);
+            if (criteria.test(node.getNodeData()) && remaining-- == 0) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private int nextIndex(List<ServiceNode<T>> serviceNodes, int count) {
+        if (count == 1) {
+            return 0;
+        }
+        val stripe = stripe(Thread.currentThread().getId()) & stripeMask;
+        val offset = (long) stripe * count / (stripeMask + 1);
+        val position = counters.get(serviceNodes).getAndIncrement(stripe * PADDING);
+        return (int) ((position + offset) % count);
+    }
+
+    /*
+        All stripes start at the same random position, so that the offsets between them, and thereby the fairness
+        bound, are kept
+     */
+    private static AtomicLongArray newCounters(int stripeCount) {
+        val counters = new AtomicLongArray(stripeCount * PADDING);
+        val start = ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+        for (int i = 0; i < stripeCount; i++) {
+            counters.set(i * PADDING, start);
+        }
+        return counters;
+    }
+
+    private static int stripe(long threadId) {
+        val mixed = threadId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.util.AliasTable;
+import lombok.val;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Picks nodes at random with a probability proportional to their weight, by default the health score published
+ * by the node. A degraded node thereby gets proportionally less traffic instead of all or nothing.
+ * Weights are read once per node list into an alias table. Registries publish a new node list (with new node
+ * instances for changed nodes) whenever a score changes, so tables are looked up by the identity of the list and
+ * its nodes and are rebuilt only when the snapshot changes. Lists passed to the selector must therefore not be
+ * modified afterwards, which holds for registry snapshots.
+ * A pick is constant time only while the same list instance is passed again, as done by shard selectors that
+ * return registry snapshots or a {@link io.appform.ranger.core.finder.shardselector.CachingShardSelector}.
+ * Shard selectors that build a new list on every call, like
+ * {@link io.appform.ranger.core.finder.shardselector.MatchingShardSelector}, make every pick O(N) as the list
+ * has to be fingerprinted to find its table. Wrap those in a caching shard selector:
+ * <pre>
+ *     builder.withShardSelector(new CachingShardSelector&lt;&gt;(new MatchingShardSelector&lt;&gt;()))
+ *            .withNodeSelector(new WeightedServiceNodeSelector&lt;&gt;())
+ * </pre>
+ */
+public class WeightedServiceNodeSelector<T> implements ServiceNodeSelector<T> {
+    private static final int MAX_CACHED_TABLES = 64;
+
+    private final ToDoubleFunction<ServiceNode<T>> weightExtractor;
+    private final Cache<Long, WeightTable<T>> tables = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_TABLES)
+            .build();
+    private volatile WeightTable<T> lastTable;
+
+    public WeightedServiceNodeSelector() {
+        this(ServiceNode::getHealthScore);
+    }
+
+    /**
+     * @param weightExtractor weight of a node. Must be non-negative and must not change for a node instance
+     */
+    public WeightedServiceNodeSelector(ToDoubleFunction<ServiceNode<T>> weightExtractor) {
+        Preconditions.checkNotNull(weightExtractor, "Weight extractor can't be null");
+        this.weightExtractor = weightExtractor;
+    }
+
+    @Override
+    public ServiceNode<T> select(List<ServiceNode<T>> serviceNodes) {
+        if (serviceNodes.isEmpty()) {
+            return null;
+        }
+        if (serviceNodes.size() == 1) {
+            return serviceNodes.get(0);
+        }
+        return table(serviceNodes).select();
+    }
+
+    private WeightTable<T> table(List<ServiceNode<T>> serviceNodes) {
+        val last = lastTable;
+        if (null != last && last.source == serviceNodes && last.nodes.size() == serviceNodes.size()) {
+            return last;
+        }
+        long fingerprint = serviceNodes.size();
+        for (int i = 0; i < serviceNodes.size(); i++) {
+            fingerprint = 31 * fingerprint + System.identityHashCode(serviceNodes.get(i));
+        }
+        var table = tables.getIfPresent(fingerprint);
+        if (null == table || !table.isFor(serviceNodes)) {
+            table = new WeightTable<>(serviceNodes, weightExtractor);
+            tables.put(fingerprint, table);
+        }
+        lastTable = table;
+        return table;
+    }
+
+    private static final class WeightTable<T> {
+        private final List<ServiceNode<T>> source;
+        private final List<ServiceNode<T>> nodes;
+        private final AliasTable aliasTable;
+
+        private WeightTable(List<ServiceNode<T>> nodes, ToDoubleFunction<ServiceNode<T>> weightExtractor) {
+            this.source = nodes;
+            this.nodes = List.copyOf(nodes);
+            val weights = new double[nodes.size()];
+            for (int i = 0; i < weights.length; i++) {
+                val weight = weightExtractor.applyAsDouble(nodes.get(i));
+                weights[i] = Double.isFinite(weight) ? Math.max(0.0, weight) : 0.0;
+            }
+            this.aliasTable = new AliasTable(weights);
+        }
+
+        private boolean isFor(List<ServiceNode<T>> serviceNodes) {
+            if (serviceNodes.size() != nodes.size()) {
+                return false;
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i) != serviceNodes.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ServiceNode<T> select() {
+            return nodes.get(aliasTable.sample());
+        }
+    }
+}
@@ -16,42 +16,89 @@
 package io.appform.ranger.core.finder.serviceregistry;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
+import io.appform.ranger.core.model.NodeListDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceRegistry;
 
 import lombok.EqualsAndHashCode;
+import lombok.Value;
 import lombok.val;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 @EqualsAndHashCode(callSuper = true)
 public class MapBasedServiceRegistry<T> extends ServiceRegistry<T> {
-    private final AtomicReference<ListMultimap<T, ServiceNode<T>>> nodes = new AtomicReference<>();
+    private final AtomicReference<NodeSnapshot<T>> nodes = new AtomicReference<>();
 
     public MapBasedServiceRegistry(Service service) {
         super(service);
     }
 
     public ListMultimap<T, ServiceNode<T>> nodes() {
-        val nodeList = nodes.get();
-        return null == nodeList ? ImmutableListMultimap.of() : nodeList;
+        val snapshot = nodes.get();
+        return null == snapshot ? ImmutableListMultimap.of() : snapshot.getNodes();
     }
 
+    /**
+     * @return an immutable view of all nodes, precomputed when the registry was last updated
+     */
     @Override
     public List<ServiceNode<T>> nodeList() {
-        val nodeList = nodes.get();
-        return null == nodeList ? List.of() : new ArrayList<>(nodeList.values());
+        val snapshot = nodes.get();
+        return null == snapshot ? List.of() : snapshot.getNodeList();
     }
 
     @Override
     public void update(List<ServiceNode<T>> nodes) {
         ListMultimap<T, ServiceNode<T>> serviceNodes = ArrayListMultimap.create();
         nodes.forEach(serviceNode -> serviceNodes.put(serviceNode.getNodeData(), serviceNode));
-        this.nodes.set(ImmutableListMultimap.copyOf(serviceNodes));
+        this.nodes.set(NodeSnapshot.of(ImmutableListMultimap.copyOf(serviceNodes)));
+    }
+
+    /*
+        Only the node lists for shards touched by the delta are regrouped, the rest are carried over as is.
+     */
+    @Override
+    protected void update(List<ServiceNode<T>> nodes, NodeListDelta<T> delta) {
+        val snapshot = this.nodes.get();
+        if (null == snapshot) {
+            update(nodes);
+            return;
+        }
+        val current = snapshot.getNodes();
+        val affectedKeys = new HashSet<T>();
+        delta.getAdded().forEach(node -> affectedKeys.add(node.getNodeData()));
+        delta.getRemoved().forEach(node -> affectedKeys.add(node.getNodeData()));
+        val serviceNodes = ImmutableListMultimap.<T, ServiceNode<T>>builder();
+        current.asMap().forEach((key, keyNodes) -> {
+            if (!affectedKeys.contains(key)) {
+                serviceNodes.putAll(key, keyNodes);
+            }
+        });
+        nodes.forEach(node -> {
+            if (affectedKeys.contains(node.getNodeData())) {
+                serviceNodes.put(node.getNodeData(), node);
+            }
+        });
+        this.nodes.set(NodeSnapshot.of(serviceNodes.build()));
+    }
+
+    /*
+        Both views are built once per update so that lookups never need to copy or regroup nodes.
+     */
+    @Value
+    private static class NodeSnapshot<T> {
+        ImmutableListMultimap<T, ServiceNode<T>> nodes;
+        ImmutableList<ServiceNode<T>> nodeList;
+
+        static <T> NodeSnapshot<T> of(ImmutableListMultimap<T, ServiceNode<T>> nodes) {
+            return new NodeSnapshot<>(nodes, ImmutableList.copyOf(nodes.values()));
+        }
     }
 }
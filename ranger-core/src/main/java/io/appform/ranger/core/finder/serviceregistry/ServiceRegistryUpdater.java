@@ -15,9 +15,10 @@
  */
 package io.appform.ranger.core.finder.serviceregistry;
 
-import com.github.rholder.retry.RetryerBuilder;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import io.appform.ranger.core.executor.CoalescingRefreshTrigger;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.model.Deserializer;
 import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.ServiceRegistry;
@@ -27,13 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
@@ -41,37 +36,58 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
     private final ServiceRegistry<T> serviceRegistry;
     private final NodeDataSource<T,D> nodeDataSource;
     private final D deserializer;
+    private final CoalescingRefreshTrigger refreshTrigger;
 
-    private final Lock checkLock = new ReentrantLock();
-    private final Condition checkCondition = checkLock.newCondition();
-    private boolean checkForUpdate = false;
-    private Future<Void> queryThreadFuture;
+    public ServiceRegistryUpdater(
+            ServiceRegistry<T> serviceRegistry,
+            NodeDataSource<T,D> nodeDataSource,
+            List<Signal<T>> signalGenerators,
+            D deserializer) {
+        this(serviceRegistry, nodeDataSource, signalGenerators, deserializer, null);
+    }
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(1);
+    public ServiceRegistryUpdater(
+            ServiceRegistry<T> serviceRegistry,
+            NodeDataSource<T,D> nodeDataSource,
+            List<Signal<T>> signalGenerators,
+            D deserializer,
+            RefreshExecutor refreshExecutor) {
+        this(serviceRegistry, nodeDataSource, signalGenerators, deserializer, refreshExecutor,
+             CoalescingRefreshTrigger.DEFAULT_DEBOUNCE_MS, CoalescingRefreshTrigger.DEFAULT_MAX_DELAY_MS);
+    }
 
     public ServiceRegistryUpdater(
             ServiceRegistry<T> serviceRegistry,
             NodeDataSource<T,D> nodeDataSource,
             List<Signal<T>> signalGenerators,
-            D deserializer) {
+            D deserializer,
+            RefreshExecutor refreshExecutor,
+            long refreshDebounceMs,
+            long refreshMaxDelayMs) {
         this.serviceRegistry = serviceRegistry;
         this.nodeDataSource = nodeDataSource;
         this.deserializer = deserializer;
+        this.refreshTrigger = new CoalescingRefreshTrigger("registry-updater-" + serviceRegistry.getService().name(),
+                                                           this::updateRegistry,
+                                                           refreshDebounceMs,
+                                                           refreshMaxDelayMs,
+                                                           refreshExecutor);
         signalGenerators.forEach(signalGenerator -> signalGenerator.registerConsumer(this::checkForUpdate));
     }
 
     public void start() {
         val serviceName = serviceRegistry.getService().getServiceName();
-        queryThreadFuture = this.executorService.submit(this::queryExecutor);
+        refreshTrigger.start();
         log.info("Started updater for [{}]. Triggering initial update.", serviceName);
-        checkForUpdate(null);
+        refreshTrigger.triggerNow();
         log.info("Waiting for initial update to complete for: {}", serviceName);
         val stopwatch = Stopwatch.createStarted();
         try {
-            RetryerBuilder.<Boolean>newBuilder()
-                    .retryIfResult(r -> null == r || !r)
-                    .build()
-                    .call(serviceRegistry::isRefreshed);
+            serviceRegistry.awaitRefresh().get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Exceptions.illegalState("Interrupted while waiting for initial state for service: " + serviceName, e);
         }
         catch (Exception e) {
             Exceptions.illegalState("Could not perform initial state for service: " + serviceName, e);
@@ -81,49 +97,19 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
     }
 
     public void stop() {
-        if(null != queryThreadFuture) {
-            executorService.shutdownNow();
-        }
+        refreshTrigger.stop();
     }
 
+    /**
+     * Request a refresh of the registry. Never blocks; signals received while a refresh is pending or
+     * in progress are coalesced into a single refresh.
+     */
     public void checkForUpdate(T signalData) {
         Preconditions.checkArgument(null == signalData);
-        try {
-            checkLock.lock();
-            checkForUpdate = true;
-            checkCondition.signalAll();
-        }
-        finally {
-            checkLock.unlock();
-        }
-    }
-
-    private Void queryExecutor() {
-        //Start checking for updates
-        while (true) {
-            try {
-                checkLock.lock();
-                while (!checkForUpdate) {
-                    checkCondition.await();
-                }
-                updateRegistry();
-            }
-            catch (InterruptedException e) {
-                log.info("Updater thread interrupted");
-                Thread.currentThread().interrupt();
-                return null;
-            }
-            catch (Exception e) {
-                log.error("Registry update failed for service: " + serviceRegistry.getService().name(), e);
-            }
-            finally {
-                checkForUpdate = false;
-                checkLock.unlock();
-            }
-        }
+        refreshTrigger.trigger();
     }
 
-    private void updateRegistry() throws InterruptedException {
+    private void updateRegistry() {
         log.debug("Checking for updates on data source for service: {}",
                      serviceRegistry.getService().getServiceName());
         if(!nodeDataSource.isActive()) {
@@ -135,7 +121,12 @@ public class ServiceRegistryUpdater<T, D extends Deserializer<T>> {
         if (null != nodeList) {
             log.debug("Updating nodeList of size: {} for [{}]", nodeList.size(),
                          serviceRegistry.getService().getServiceName());
-            serviceRegistry.updateNodes(nodeList);
+            val delta = serviceRegistry.updateNodes(nodeList);
+            if (delta.isChanged()) {
+                log.info("Node list changed for [{}]. Added: {} Removed: {}",
+                         serviceRegistry.getService().getServiceName(),
+                         delta.getAdded().size(), delta.getRemoved().size());
+            }
         }
         else {
             log.warn("Empty list returned from node data source. We are in a weird state. Keeping old list for {}",
@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.core.finder.serviceregistry.signal;
 
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.signals.ScheduledSignal;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +31,14 @@ public class ScheduledRegistryUpdateSignal<T> extends ScheduledSignal<T> {
     public ScheduledRegistryUpdateSignal(
             Service service,
             long refreshIntervalMillis) {
-        super(service, () -> null, Collections.emptyList(), refreshIntervalMillis);
+        this(service, refreshIntervalMillis, null);
+    }
+
+    public ScheduledRegistryUpdateSignal(
+            Service service,
+            long refreshIntervalMillis,
+            RefreshExecutor refreshExecutor) {
+        super(service, () -> null, Collections.emptyList(), refreshIntervalMillis, refreshExecutor);
     }
 
 }
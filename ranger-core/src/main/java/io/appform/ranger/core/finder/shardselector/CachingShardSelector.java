@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.ShardSelector;
+import lombok.Value;
+import lombok.val;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Remembers the nodes matched by a criteria for the current snapshot of a registry, so that repeated lookups
+ * with the same criteria pick from a precomputed list instead of evaluating the criteria against every node.
+ * Criteria are matched by identity, so this only helps callers that reuse their {@link Predicate} instances.
+ * Cached results are discarded as soon as the registry publishes a changed node list.
+ * Usage:
+ * <pre>
+ *     builder.withShardSelector(new CachingShardSelector&lt;&gt;(new MatchingShardSelector&lt;&gt;()))
+ * </pre>
+ */
+public class CachingShardSelector<T, R extends ServiceRegistry<T>> implements ShardSelector<T, R> {
+    public static final int DEFAULT_MAX_CACHED_CRITERIA = 256;
+
+    private final ShardSelector<T, R> shardSelector;
+    private final int maxCachedCriteria;
+    private final Cache<R, Cache<Predicate<T>, CachedNodes<T>>> cache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    public CachingShardSelector(ShardSelector<T, R> shardSelector) {
+        this(shardSelector, DEFAULT_MAX_CACHED_CRITERIA);
+    }
+
+    /**
+     * @param shardSelector     selector used to compute the nodes matching a criteria
+     * @param maxCachedCriteria max number of criteria for which results are kept, per registry
+     */
+    public CachingShardSelector(ShardSelector<T, R> shardSelector, int maxCachedCriteria) {
+        Preconditions.checkNotNull(shardSelector, "Shard selector can't be null");
+        Preconditions.checkArgument(maxCachedCriteria > 0, "Max cached criteria must be positive");
+        this.shardSelector = shardSelector;
+        this.maxCachedCriteria = maxCachedCriteria;
+    }
+
+    @Override
+    public List<ServiceNode<T>> nodes(Predicate<T> criteria, R serviceRegistry) {
+        if (null == criteria) {
+            return shardSelector.nodes(null, serviceRegistry);
+        }
+        val version = serviceRegistry.getSnapshotVersion();
+        val registryCache = registryCache(serviceRegistry);
+        val cached = registryCache.getIfPresent(criteria);
+        if (null != cached && cached.getVersion() == version) {
+            return cached.getNodes();
+        }
+        val nodes = ImmutableList.copyOf(shardSelector.nodes(criteria, serviceRegistry));
+        registryCache.put(criteria, new CachedNodes<>(version, nodes));
+        return nodes;
+    }
+
+    @Override
+    public ServiceNode<T> select(Predicate<T> criteria, R serviceRegistry, ServiceNodeSelector<T> nodeSelector) {
+        if (null == criteria) {
+            return shardSelector.select(null, serviceRegistry, nodeSelector);
+        }
+        val nodes = nodes(criteria, serviceRegistry);
+        return nodes.isEmpty() ? null : nodeSelector.select(nodes);
+    }
+
+    private Cache<Predicate<T>, CachedNodes<T>> registryCache(R serviceRegistry) {
+        val registryCache = cache.getIfPresent(serviceRegistry);
+        if (null != registryCache) {
+            return registryCache;
+        }
+        return cache.asMap().computeIfAbsent(serviceRegistry, registry -> CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(maxCachedCriteria)
+                .build());
+    }
+
+    @Value
+    private static class CachedNodes<T> {
+        long version;
+        List<ServiceNode<T>> nodes;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.criteria.AttributeIndex;
+import io.appform.ranger.core.criteria.AttributedNodeData;
+import io.appform.ranger.core.criteria.Criteria;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.ShardSelector;
+import lombok.val;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Shard selector that evaluates {@link Criteria} using an {@link AttributeIndex} over the registry's nodes.
+ * The index is built once for every node list published by the registry. Criteria that are not {@link Criteria}
+ * are evaluated by testing every node.
+ * Works with any registry, and can be wrapped in a {@link CachingShardSelector} to also skip the index lookup
+ * for repeated criteria.
+ */
+public class IndexedShardSelector<T extends AttributedNodeData, R extends ServiceRegistry<T>>
+        implements ShardSelector<T, R> {
+    private final Cache<R, AtomicReference<AttributeIndex<T>>> indices = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    @Override
+    public List<ServiceNode<T>> nodes(Predicate<T> criteria, R serviceRegistry) {
+        if (null == criteria) {
+            return serviceRegistry.nodeList();
+        }
+        if (criteria instanceof Criteria) {
+            return index(serviceRegistry).select((Criteria<T>) criteria);
+        }
+        return serviceRegistry.nodeList()
+                .stream()
+                .filter(node -> criteria.test(node.getNodeData()))
+                .toList();
+    }
+
+    @Override
+    public ServiceNode<T> select(Predicate<T> criteria, R serviceRegistry, ServiceNodeSelector<T> nodeSelector) {
+        if (!(criteria instanceof Criteria)) {
+            return nodeSelector.select(serviceRegistry.nodeList(), criteria);
+        }
+        val nodes = nodes(criteria, serviceRegistry);
+        return nodes.isEmpty() ? null : nodeSelector.select(nodes);
+    }
+
+    private AttributeIndex<T> index(R serviceRegistry) {
+        val holder = indices.asMap().computeIfAbsent(serviceRegistry, registry -> new AtomicReference<>());
+        val version = serviceRegistry.getSnapshotVersion();
+        val current = holder.get();
+        if (null != current && current.getVersion() == version) {
+            return current;
+        }
+        val index = AttributeIndex.build(version, serviceRegistry.nodeList());
+        holder.set(index);
+        return index;
+    }
+}
@@ -17,6 +17,7 @@ package io.appform.ranger.core.finder.shardselector;
 
 import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
 
 import java.util.List;
@@ -32,4 +33,12 @@ public class ListShardSelector<T> implements ShardSelector<T, ListBasedServiceRe
                 .filter(node -> criteria.test(node.getNodeData()))
                 .toList();
     }
+
+    @Override
+    public ServiceNode<T> select(
+            Predicate<T> criteria,
+            ListBasedServiceRegistry<T> serviceRegistry,
+            ServiceNodeSelector<T> nodeSelector) {
+        return nodeSelector.select(serviceRegistry.nodeList(), criteria);
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.ShardSelector;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Prefers nodes in the caller's region. Traffic spills over to other regions only when the local region has too
+ * few nodes: the local region is expected to have at least {@code minLocalShare} of an even share of the nodes
+ * (total nodes / number of regions). Below that, the fraction of requests sent to the local region falls in
+ * proportion to its node count, and the rest are spread over the nodes in the other regions.
+ * Nodes are partitioned by region once for every node list published by the registry (and criteria), so that
+ * picking a region is constant time. The node within the region is picked by the node selector.
+ * Usage:
+ * <pre>
+ *     new LocalityAwareShardSelector&lt;&gt;("region-1", ShardInfo::getRegion)
+ * </pre>
+ */
+public class LocalityAwareShardSelector<T, R extends ServiceRegistry<T>> implements ShardSelector<T, R> {
+    public static final double DEFAULT_MIN_LOCAL_SHARE = 0.5;
+    private static final int MAX_CACHED_CRITERIA = 256;
+    private static final Object NO_CRITERIA = new Object();
+
+    private final String localRegion;
+    private final Function<T, String> regionExtractor;
+    private final double minLocalShare;
+    private final Cache<R, Cache<Object, RegionPartition<T>>> partitions = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    public LocalityAwareShardSelector(String localRegion, Function<T, String> regionExtractor) {
+        this(localRegion, regionExtractor, DEFAULT_MIN_LOCAL_SHARE);
+    }
+
+    /**
+     * @param localRegion     region of the caller
+     * @param regionExtractor extracts the region from node data
+     * @param minLocalShare   fraction of an even share of nodes below which traffic spills over to other
+     *                        regions. 0 disables spillover as long as there is a local node
+     */
+    public LocalityAwareShardSelector(String localRegion, Function<T, String> regionExtractor, double minLocalShare) {
+        Preconditions.checkNotNull(localRegion, "Local region can't be null");
+        Preconditions.checkNotNull(regionExtractor, "Region extractor can't be null");
+        Preconditions.checkArgument(minLocalShare >= 0 && minLocalShare <= 1, "Min local share must be in [0, 1]");
+        this.localRegion = localRegion;
+        this.regionExtractor = regionExtractor;
+        this.minLocalShare = minLocalShare;
+    }
+
+    /**
+     * @return local nodes if the local region has enough nodes, otherwise all matching nodes, local ones first
+     */
+    @Override
+    public List<ServiceNode<T>> nodes(Predicate<T> criteria, R serviceRegistry) {
+        val partition = partition(criteria, serviceRegistry);
+        return partition.getLocalProbability() >= 1.0 ? partition.getLocalNodes() : partition.getAllNodes();
+    }
+
+    @Override
+    public ServiceNode<T> select(Predicate<T> criteria, R serviceRegistry, ServiceNodeSelector<T> nodeSelector) {
+        val partition = partition(criteria, serviceRegistry);
+        val local = partition.getLocalNodes();
+        val remote = partition.getRemoteNodes();
+        if (remote.isEmpty()) {
+            return local.isEmpty() ? null : nodeSelector.select(local);
+        }
+        val localProbability = partition.getLocalProbability();
+        if (localProbability > 0
+                && (localProbability >= 1.0 || ThreadLocalRandom.current().nextDouble() < localProbability)) {
+            return nodeSelector.select(local);
+        }
+        return nodeSelector.select(remote);
+    }
+
+    private RegionPartition<T> partition(Predicate<T> criteria, R serviceRegistry) {
+        val registryPartitions = partitions.asMap()
+                .computeIfAbsent(serviceRegistry, registry -> CacheBuilder.newBuilder()
+                        .weakKeys()
+                        .maximumSize(MAX_CACHED_CRITERIA)
+                        .build());
+        val cacheKey = null == criteria ? NO_CRITERIA : criteria;
+        val version = serviceRegistry.getSnapshotVersion();
+        val cached = registryPartitions.getIfPresent(cacheKey);
+        if (null != cached && cached.getVersion() == version) {
+            return cached;
+        }
+        val partition = buildPartition(version, criteria, serviceRegistry.nodeList());
+        registryPartitions.put(cacheKey, partition);
+        return partition;
+    }
+
+    private RegionPartition<T> buildPartition(long version, Predicate<T> criteria, List<ServiceNode<T>> nodes) {
+        val local = ImmutableList.<ServiceNode<T>>builder();
+        val remote = ImmutableList.<ServiceNode<T>>builder();
+        val regions = new HashSet<String>();
+        int localCount = 0;
+        int totalCount = 0;
+        for (val node : nodes) {
+            val nodeData = node.getNodeData();
+            if (null != criteria && !criteria.test(nodeData)) {
+                continue;
+            }
+            val region = null == nodeData ? null : regionExtractor.apply(nodeData);
+            regions.add(Objects.requireNonNullElse(region, ""));
+            totalCount++;
+            if (localRegion.equals(region)) {
+                local.add(node);
+                localCount++;
+            }
+            else {
+                remote.add(node);
+            }
+        }
+        val expectedLocalCount = minLocalShare * totalCount / Math.max(1, regions.size());
+        val localProbability = expectedLocalCount <= 0 || localCount >= expectedLocalCount
+                               ? (localCount > 0 ? 1.0 : 0.0)
+                               : localCount / expectedLocalCount;
+        return new RegionPartition<>(version, local.build(), remote.build(), localProbability);
+    }
+
+    @Getter
+    private static final class RegionPartition<T> {
+        private final long version;
+        private final List<ServiceNode<T>> localNodes;
+        private final List<ServiceNode<T>> remoteNodes;
+        private final List<ServiceNode<T>> allNodes;
+        private final double localProbability;
+
+        private RegionPartition(
+                long version,
+                List<ServiceNode<T>> localNodes,
+                List<ServiceNode<T>> remoteNodes,
+                double localProbability) {
+            this.version = version;
+            this.localNodes = localNodes;
+            this.remoteNodes = remoteNodes;
+            this.allNodes = ImmutableList.<ServiceNode<T>>builder().addAll(localNodes).addAll(remoteNodes).build();
+            this.localProbability = localProbability;
+        }
+    }
+}
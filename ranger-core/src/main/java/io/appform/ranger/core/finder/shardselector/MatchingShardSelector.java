@@ -18,6 +18,7 @@ package io.appform.ranger.core.finder.shardselector;
 
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
 
 import java.util.List;
@@ -37,4 +38,16 @@ public class MatchingShardSelector<T> implements ShardSelector<T, MapBasedServic
                 .map(Map.Entry::getValue)
                 .toList();
     }
+
+    /*
+        Nodes are keyed on their own data, so matching against the flat snapshot selects from the same nodes as
+        matching against the keys.
+     */
+    @Override
+    public ServiceNode<T> select(
+            Predicate<T> criteria,
+            MapBasedServiceRegistry<T> serviceRegistry,
+            ServiceNodeSelector<T> nodeSelector) {
+        return nodeSelector.select(serviceRegistry.nodeList(), criteria);
+    }
 }
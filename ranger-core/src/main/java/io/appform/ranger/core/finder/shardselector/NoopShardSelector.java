@@ -17,6 +17,7 @@ package io.appform.ranger.core.finder.shardselector;
 
 import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
 
 import java.util.List;
@@ -28,4 +29,12 @@ public class NoopShardSelector<T> implements ShardSelector<T, ListBasedServiceRe
     public List<ServiceNode<T>> nodes(Predicate<T> criteria, ListBasedServiceRegistry<T> serviceRegistry) {
         return serviceRegistry.nodeList();
     }
+
+    @Override
+    public ServiceNode<T> select(
+            Predicate<T> criteria,
+            ListBasedServiceRegistry<T> serviceRegistry,
+            ServiceNodeSelector<T> nodeSelector) {
+        return nodeSelector.select(serviceRegistry.nodeList(), null);
+    }
 }
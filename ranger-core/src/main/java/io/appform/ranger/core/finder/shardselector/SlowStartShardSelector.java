@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.ShardSelector;
+import io.appform.ranger.core.util.AliasTable;
+import lombok.Value;
+import lombok.val;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Ramps up traffic to nodes that have recently joined a service, so that instances that are still warming up
+ * (cold caches, JIT etc.) do not get a full share right away. A new node starts at {@code minWeight} of the
+ * weight of an established node and reaches full weight at the end of the window, following
+ * {@code (age / window) ^ (1 / aggression)}: 1 is linear, higher values ramp up faster at first.
+ * Nodes are treated as new based on {@link ServiceRegistry#getFirstSeenTime(ServiceNode)}.
+ * While nodes are warming up, selection is a weighted random pick from a precomputed table, which is rebuilt
+ * when the registry publishes a new node list and otherwise once every refresh interval. When no node is
+ * warming up, selection is left to the wrapped shard selector and the configured node selector.
+ * Usage:
+ * <pre>
+ *     builder.withShardSelector(new SlowStartShardSelector&lt;&gt;(new ListShardSelector&lt;&gt;(), 60_000))
+ * </pre>
+ */
+public class SlowStartShardSelector<T, R extends ServiceRegistry<T>> implements ShardSelector<T, R> {
+    public static final double DEFAULT_AGGRESSION = 1.0;
+    public static final double DEFAULT_MIN_WEIGHT = 0.1;
+    public static final long DEFAULT_REFRESH_INTERVAL_MS = 1_000;
+    private static final int MAX_CACHED_CRITERIA = 256;
+    private static final Object NO_CRITERIA = new Object();
+
+    private final ShardSelector<T, R> shardSelector;
+    private final long windowMs;
+    private final double aggression;
+    private final double minWeight;
+    private final long refreshIntervalMs;
+    private final Cache<R, Cache<Object, WeightTable<T>>> tables = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    public SlowStartShardSelector(ShardSelector<T, R> shardSelector, long windowMs) {
+        this(shardSelector, windowMs, DEFAULT_AGGRESSION, DEFAULT_MIN_WEIGHT, DEFAULT_REFRESH_INTERVAL_MS);
+    }
+
+    /**
+     * @param shardSelector     selector for the nodes matching a criteria
+     * @param windowMs          time taken by a new node to reach full weight
+     * @param aggression        shape of the ramp. 1 is linear, higher values ramp up faster at the start
+     * @param minWeight         weight of a node that has just joined, relative to an established node
+     * @param refreshIntervalMs interval at which weights are recomputed while nodes are warming up
+     */
+    public SlowStartShardSelector(
+            ShardSelector<T, R> shardSelector,
+            long windowMs,
+            double aggression,
+            double minWeight,
+            long refreshIntervalMs) {
+        Preconditions.checkNotNull(shardSelector, "Shard selector can't be null");
+        Preconditions.checkArgument(windowMs > 0, "Slow start window must be positive");
+        Preconditions.checkArgument(aggression > 0, "Aggression must be positive");
+        Preconditions.checkArgument(minWeight > 0 && minWeight <= 1, "Min weight must be in (0, 1]");
+        Preconditions.checkArgument(refreshIntervalMs > 0, "Refresh interval must be positive");
+        this.shardSelector = shardSelector;
+        this.windowMs = windowMs;
+        this.aggression = aggression;
+        this.minWeight = minWeight;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @Override
+    public List<ServiceNode<T>> nodes(Predicate<T> criteria, R serviceRegistry) {
+        return shardSelector.nodes(criteria, serviceRegistry);
+    }
+
+    @Override
+    public ServiceNode<T> select(Predicate<T> criteria, R serviceRegistry, ServiceNodeSelector<T> nodeSelector) {
+        val now = System.currentTimeMillis();
+        if (now - serviceRegistry.getLatestFirstSeenTime() >= windowMs) {
+            return shardSelector.select(criteria, serviceRegistry, nodeSelector);
+        }
+        val table = table(criteria, serviceRegistry, now);
+        if (null == table.getAliasTable()) {
+            return table.getNodes().isEmpty() ? null : nodeSelector.select(table.getNodes());
+        }
+        return table.getNodes().get(table.getAliasTable().sample());
+    }
+
+    private WeightTable<T> table(Predicate<T> criteria, R serviceRegistry, long now) {
+        val registryTables = tables.asMap()
+                .computeIfAbsent(serviceRegistry, registry -> CacheBuilder.newBuilder()
+                        .weakKeys()
+                        .maximumSize(MAX_CACHED_CRITERIA)
+                        .build());
+        val cacheKey = null == criteria ? NO_CRITERIA : criteria;
+        val version = serviceRegistry.getSnapshotVersion();
+        val cached = registryTables.getIfPresent(cacheKey);
+        if (null != cached && cached.getVersion() == version && now - cached.getBuiltAt() < refreshIntervalMs) {
+            return cached;
+        }
+        val table = buildTable(version, now, shardSelector.nodes(criteria, serviceRegistry), serviceRegistry);
+        registryTables.put(cacheKey, table);
+        return table;
+    }
+
+    private WeightTable<T> buildTable(long version, long now, List<ServiceNode<T>> nodes, R serviceRegistry) {
+        if (nodes.isEmpty()) {
+            return new WeightTable<>(version, now, nodes, null);
+        }
+        val weights = new double[nodes.size()];
+        var warming = false;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weight(now - serviceRegistry.getFirstSeenTime(nodes.get(i)));
+            warming |= weights[i] < 1.0;
+        }
+        return new WeightTable<>(version, now, nodes, warming ? new AliasTable(weights) : null);
+    }
+
+    private double weight(long ageMs) {
+        if (ageMs >= windowMs) {
+            return 1.0;
+        }
+        val timeFactor = Math.max(ageMs, 1L) / (double) windowMs;
+        return Math.max(minWeight, Math.pow(timeFactor, 1.0 / aggression));
+    }
+
+    @Value
+    private static class WeightTable<T> {
+        long version;
+        long builtAt;
+        List<ServiceNode<T>> nodes;
+        AliasTable aliasTable;
+    }
+}
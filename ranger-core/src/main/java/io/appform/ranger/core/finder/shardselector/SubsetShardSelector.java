@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.model.ShardSelector;
+import lombok.Value;
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Restricts every client to a stable subset of the nodes of a service, so that the number of connections
+ * between a large fleet of clients and a large fleet of servers stays bounded: each client talks to at most
+ * {@code subsetSize} nodes. Nodes are ranked by a hash of the client id and the node's host and port
+ * (rendezvous hashing), and the top ranked nodes form the subset. The same client id therefore always gets the
+ * same subset for the same nodes, and a change in nodes only moves the clients that had the removed node, or
+ * that rank the added node within their subset.
+ * Subsets are computed once for every node list published by the registry (and criteria), so picking a node
+ * costs the same as without subsetting.
+ * Usage:
+ * <pre>
+ *     builder.withShardSelector(new SubsetShardSelector&lt;&gt;(new ListShardSelector&lt;&gt;(), hostname, 20))
+ * </pre>
+ */
+public class SubsetShardSelector<T, R extends ServiceRegistry<T>> implements ShardSelector<T, R> {
+    private static final int MAX_CACHED_CRITERIA = 256;
+    private static final Object NO_CRITERIA = new Object();
+
+    private final ShardSelector<T, R> shardSelector;
+    private final int subsetSize;
+    private final HashFunction hashFunction;
+    private final Cache<R, Cache<Object, Subset<T>>> subsets = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    /**
+     * @param shardSelector selector for the nodes matching a criteria, the subset is taken from these
+     * @param clientId      stable id of the client instance, for example its hostname
+     * @param subsetSize    max number of nodes the client uses
+     */
+    public SubsetShardSelector(ShardSelector<T, R> shardSelector, String clientId, int subsetSize) {
+        Preconditions.checkNotNull(shardSelector, "Shard selector can't be null");
+        Preconditions.checkArgument(null != clientId && !clientId.isEmpty(), "Client id can't be empty");
+        Preconditions.checkArgument(subsetSize > 0, "Subset size must be positive");
+        this.shardSelector = shardSelector;
+        this.subsetSize = subsetSize;
+        this.hashFunction = Hashing.murmur3_128(Hashing.murmur3_32_fixed()
+                                                        .hashString(clientId, StandardCharsets.UTF_8)
+                                                        .asInt());
+    }
+
+    @Override
+    public List<ServiceNode<T>> nodes(Predicate<T> criteria, R serviceRegistry) {
+        return subset(criteria, serviceRegistry).getNodes();
+    }
+
+    @Override
+    public ServiceNode<T> select(Predicate<T> criteria, R serviceRegistry, ServiceNodeSelector<T> nodeSelector) {
+        val nodes = subset(criteria, serviceRegistry).getNodes();
+        return nodes.isEmpty() ? null : nodeSelector.select(nodes);
+    }
+
+    private Subset<T> subset(Predicate<T> criteria, R serviceRegistry) {
+        val registrySubsets = subsets.asMap()
+                .computeIfAbsent(serviceRegistry, registry -> CacheBuilder.newBuilder()
+                        .weakKeys()
+                        .maximumSize(MAX_CACHED_CRITERIA)
+                        .build());
+        val cacheKey = null == criteria ? NO_CRITERIA : criteria;
+        val version = serviceRegistry.getSnapshotVersion();
+        val cached = registrySubsets.getIfPresent(cacheKey);
+        if (null != cached && cached.getVersion() == version) {
+            return cached;
+        }
+        val subset = new Subset<>(version, computeSubset(shardSelector.nodes(criteria, serviceRegistry)));
+        registrySubsets.put(cacheKey, subset);
+        return subset;
+    }
+
+    private List<ServiceNode<T>> computeSubset(List<ServiceNode<T>> nodes) {
+        if (nodes.size() <= subsetSize) {
+            return ImmutableList.copyOf(nodes);
+        }
+        //Min heap of the top ranked nodes seen so far
+        val top = new PriorityQueue<RankedNode<T>>(subsetSize + 1, Comparator.comparingLong(RankedNode::getRank));
+        for (val node : nodes) {
+            top.add(new RankedNode<>(rank(node), node));
+            if (top.size() > subsetSize) {
+                top.poll();
+            }
+        }
+        return top.stream()
+                .sorted(Comparator.comparingLong(RankedNode<T>::getRank).reversed())
+                .map(RankedNode::getNode)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private long rank(ServiceNode<T> node) {
+        return hashFunction.newHasher()
+                .putString(String.valueOf(node.getHost()), StandardCharsets.UTF_8)
+                .putInt(node.getPort())
+                .hash()
+                .asLong();
+    }
+
+    @Value
+    private static class Subset<T> {
+        long version;
+        List<ServiceNode<T>> nodes;
+    }
+
+    @Value
+    private static class RankedNode<T> {
+        long rank;
+        ServiceNode<T> node;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finderhub;
+
+import io.appform.ranger.core.model.HubConstants;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Enables lazy finders on a {@link ServiceFinderHub}. Finders are built only when a service is first looked up,
+ * and are stopped and evicted once they have not been looked up for a while.
+ */
+@Value
+@Builder
+public class LazyFinderConfig {
+    /**
+     * Maximum time the first lookup for a service waits for its finder to be ready
+     */
+    @Builder.Default
+    long firstLookupWaitMs = HubConstants.LAZY_FINDER_FIRST_LOOKUP_WAIT_MS;
+    /**
+     * Finders that have not been looked up for this long are stopped and evicted. 0 disables eviction
+     */
+    @Builder.Default
+    long idleTimeoutMs = HubConstants.LAZY_FINDER_IDLE_TIMEOUT_MS;
+}
@@ -15,12 +15,15 @@
  */
 package io.appform.ranger.core.finderhub;
 
-import com.github.rholder.retry.RetryerBuilder;
-import com.github.rholder.retry.StopStrategies;
 import com.google.common.base.Stopwatch;
-import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.appform.ranger.core.events.NodeChangeEvent;
+import io.appform.ranger.core.events.NodeChangePublisher;
+import io.appform.ranger.core.executor.CoalescingRefreshTrigger;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.model.HubConstants;
+import io.appform.ranger.core.model.NodeListDelta;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.core.signals.ExternalTriggeredSignal;
@@ -34,11 +37,9 @@ import lombok.val;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -49,10 +50,7 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
     @Getter
     private final AtomicReference<Map<Service, ServiceFinder<T, R>>> finders =
             new AtomicReference<>(new ConcurrentHashMap<>());
-    private final Lock updateLock = new ReentrantLock();
-    private final Condition updateCond = updateLock.newCondition();
-    private boolean updateAvailable = false;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(1);
+    private final CoalescingRefreshTrigger refreshTrigger;
 
     @Getter
     private final ExternalTriggeredSignal<Void> startSignal
@@ -68,7 +66,24 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
     private final ServiceFinderFactory<T, R> finderFactory;
 
     private final AtomicBoolean alreadyUpdating = new AtomicBoolean(false);
-    private Future<?> monitorFuture = null;
+    /* Completed when a finder for a service that has been waited upon gets published */
+    private final Map<Service, CompletableFuture<ServiceFinder<T, R>>> pendingFinders = new ConcurrentHashMap<>();
+    /* Finders are built (and started) on this pool, so that slow services do not hold up the rest */
+    private final ExecutorService bootstrapExecutor;
+    private final Set<Service> bootstrapsInProgress = ConcurrentHashMap.newKeySet();
+
+    /* Set only in lazy mode, where finders are built for looked up services only */
+    private final LazyFinderConfig lazyFinderConfig;
+    private final Set<Service> requestedServices = ConcurrentHashMap.newKeySet();
+    private final Map<Service, AtomicLong> lastLookupTimes = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> serviceListLoaded = new CompletableFuture<>();
+    private volatile Set<Service> knownServices = Collections.emptySet();
+
+    private final AtomicLong stoppedFinderCount = new AtomicLong(0);
+
+    /* Node changes of all published finders are forwarded to this publisher */
+    private final NodeChangePublisher<T> nodeChangePublisher = new NodeChangePublisher<>(this::currentState);
+    private final Map<Service, Flow.Subscription> nodeChangeForwarders = new ConcurrentHashMap<>();
 
     private final long serviceRefreshDurationMs;
     private final long hubRefreshDurationMs;
@@ -86,17 +101,120 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
             ServiceFinderFactory<T, R> finderFactory,
             long serviceRefreshDurationMs,
             long hubRefreshDurationMs) {
+        this(serviceDataSource, finderFactory, serviceRefreshDurationMs, hubRefreshDurationMs, null);
+    }
+
+    public ServiceFinderHub(
+            ServiceDataSource serviceDataSource,
+            ServiceFinderFactory<T, R> finderFactory,
+            long serviceRefreshDurationMs,
+            long hubRefreshDurationMs,
+            RefreshExecutor refreshExecutor) {
+        this(serviceDataSource, finderFactory, serviceRefreshDurationMs, hubRefreshDurationMs, refreshExecutor,
+             CoalescingRefreshTrigger.DEFAULT_DEBOUNCE_MS, CoalescingRefreshTrigger.DEFAULT_MAX_DELAY_MS);
+    }
+
+    public ServiceFinderHub(
+            ServiceDataSource serviceDataSource,
+            ServiceFinderFactory<T, R> finderFactory,
+            long serviceRefreshDurationMs,
+            long hubRefreshDurationMs,
+            RefreshExecutor refreshExecutor,
+            long refreshDebounceMs,
+            long refreshMaxDelayMs) {
+        this(serviceDataSource, finderFactory, serviceRefreshDurationMs, hubRefreshDurationMs, refreshExecutor,
+             refreshDebounceMs, refreshMaxDelayMs, HubConstants.FINDER_BOOTSTRAP_PARALLELISM);
+    }
+
+    public ServiceFinderHub(
+            ServiceDataSource serviceDataSource,
+            ServiceFinderFactory<T, R> finderFactory,
+            long serviceRefreshDurationMs,
+            long hubRefreshDurationMs,
+            RefreshExecutor refreshExecutor,
+            long refreshDebounceMs,
+            long refreshMaxDelayMs,
+            int finderBootstrapParallelism) {
+        this(serviceDataSource, finderFactory, serviceRefreshDurationMs, hubRefreshDurationMs, refreshExecutor,
+             refreshDebounceMs, refreshMaxDelayMs, finderBootstrapParallelism, null);
+    }
+
+    /**
+     * @param lazyFinderConfig non-null to build finders only for services that are looked up
+     */
+    public ServiceFinderHub(
+            ServiceDataSource serviceDataSource,
+            ServiceFinderFactory<T, R> finderFactory,
+            long serviceRefreshDurationMs,
+            long hubRefreshDurationMs,
+            RefreshExecutor refreshExecutor,
+            long refreshDebounceMs,
+            long refreshMaxDelayMs,
+            int finderBootstrapParallelism,
+            LazyFinderConfig lazyFinderConfig) {
         this.serviceDataSource = serviceDataSource;
         this.finderFactory = finderFactory;
         this.serviceRefreshDurationMs = serviceRefreshDurationMs;
         this.hubRefreshDurationMs = hubRefreshDurationMs;
+        this.lazyFinderConfig = lazyFinderConfig;
         this.refreshSignals.add(new ScheduledSignal<>("service-hub-updater",
                                                       () -> null,
                                                       Collections.emptyList(),
-                                                      10_000));
+                                                      10_000,
+                                                      refreshExecutor));
+        this.refreshTrigger = new CoalescingRefreshTrigger("service-hub-monitor",
+                                                           this::updateRegistry,
+                                                           refreshDebounceMs,
+                                                           refreshMaxDelayMs,
+                                                           refreshExecutor);
+        /*
+            Deliberately not run on the refresh executor. Building a finder blocks till its first refresh,
+            which itself needs a slot on the refresh executor.
+         */
+        val parallelism = finderBootstrapParallelism > 0
+                          ? finderBootstrapParallelism
+                          : HubConstants.FINDER_BOOTSTRAP_PARALLELISM;
+        val pool = new ThreadPoolExecutor(parallelism,
+                                          parallelism,
+                                          60,
+                                          TimeUnit.SECONDS,
+                                          new LinkedBlockingQueue<>(),
+                                          new ThreadFactoryBuilder()
+                                                  .setNameFormat("service-hub-bootstrap-%d")
+                                                  .setDaemon(true)
+                                                  .build());
+        pool.allowCoreThreadTimeOut(true);
+        this.bootstrapExecutor = pool;
     }
 
+    /**
+     * Get the finder for a service. In lazy mode, the first lookup for a known service triggers a build of
+     * its finder and waits for it for a bounded time.
+     *
+     * @param service service to look up
+     * @return finder if present (or ready in time in lazy mode)
+     */
     public Optional<ServiceFinder<T, R>> finder(final Service service) {
+        val finder = finders.get().get(service);
+        if (null == lazyFinderConfig) {
+            return Optional.ofNullable(finder);
+        }
+        if (null != finder) {
+            recordLookup(service);
+            return Optional.of(finder);
+        }
+        return materialize(service);
+    }
+
+    /**
+     * Get the finder for a service only if it has already been built. Unlike {@link #finder(Service)}, this never
+     * triggers a build or waits for one in lazy mode, and is not counted as a lookup for idle eviction. Meant for
+     * callers that do not route traffic, such as call feedback.
+     *
+     * @param service service to look up
+     * @return finder if present
+     */
+    public Optional<ServiceFinder<T, R>> existingFinder(final Service service) {
         return Optional.ofNullable(finders.get().get(service));
     }
 
@@ -106,77 +224,92 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
             return CompletableFuture.completedFuture(finder);
         }
         serviceDataSource.add(service);
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                updateAvailable();
-                waitTillServiceIsReady(service);
-                return finders.get().get(service);
-            }
-            catch (Exception e) {
-                log.warn("Exception whiling building finder", e);
-                throw e;
-            }
-        });
+        if (null != lazyFinderConfig) {
+            requestedServices.add(service);
+            recordLookup(service);
+        }
+        val ready = finderReady(service)
+                .orTimeout(serviceRefreshDurationMs, TimeUnit.MILLISECONDS)
+                .exceptionally(t -> {
+                    log.warn("Exception whiling building finder", t);
+                    throw new IllegalStateException("Could not perform initial state for service: "
+                                                            + service.getServiceName(), t);
+                });
+        refreshTrigger.triggerNow();
+        return ready;
     }
 
     public void start() {
         log.info("Waiting for the service finder hub to start");
         val stopwatch = Stopwatch.createStarted();
-        monitorFuture = executorService.submit(this::monitor);
+        refreshTrigger.start();
         refreshSignals.forEach(signal -> signal.registerConsumer(x -> updateAvailable()));
         startSignal.trigger();
-        updateAvailable();
+        refreshTrigger.triggerNow();
         waitTillHubIsReady();
         log.info("Service finder hub started in {} ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
     }
 
     public void stop() {
         stopSignal.trigger();
-        if (null != monitorFuture) {
-            try {
-                monitorFuture.cancel(true);
-            }
-            catch (Exception e) {
-                log.warn("Error stopping service finder hub monitor: {}", e.getMessage());
-            }
-        }
+        refreshTrigger.stop();
+        bootstrapExecutor.shutdownNow();
+        finders.getAndSet(new ConcurrentHashMap<>())
+                .values()
+                .forEach(this::stopFinder);
+        nodeChangePublisher.close();
+        pendingFinders.values()
+                .forEach(pending -> pending.completeExceptionally(
+                        new IllegalStateException("Service finder hub has been stopped")));
+        pendingFinders.clear();
         log.info("Service finder hub stopped");
     }
 
+    /**
+     * Subscribe to additions and removals of nodes across all services known to the hub. Subscribers first
+     * receive the current nodes of all ready finders as additions. All nodes of a service are reported as
+     * removed when its finder is stopped. Delivery is asynchronous; undelivered events are conflated per service.
+     *
+     * @return publisher of node changes
+     */
+    public Flow.Publisher<NodeChangeEvent<T>> nodeChanges() {
+        return nodeChangePublisher;
+    }
+
+    /**
+     * Listen to additions and removals of nodes across all services. See {@link #nodeChanges()}
+     *
+     * @param listener called asynchronously for every change. Should not block
+     * @return subscription that can be cancelled to stop listening
+     */
+    public Flow.Subscription addNodeChangeListener(Consumer<NodeChangeEvent<T>> listener) {
+        return nodeChangePublisher.addListener(listener);
+    }
+
+    /**
+     * @return number of finders currently published by the hub
+     */
+    public long getLiveFinderCount() {
+        return finders.get().size();
+    }
+
+    /**
+     * @return number of finders stopped so far, because their service went away, was idle or the hub was stopped
+     */
+    public long getStoppedFinderCount() {
+        return stoppedFinderCount.get();
+    }
+
     public void registerUpdateSignal(final Signal<Void> refreshSignal) {
         refreshSignals.add(refreshSignal);
     }
 
+    /**
+     * Request a refresh of the list of finders. Never blocks; requests received while a refresh is pending or
+     * in progress are coalesced into a single refresh.
+     */
     public void updateAvailable() {
-        try {
-            updateLock.lock();
-            updateAvailable = true;
-            updateCond.signalAll();
-        }
-        finally {
-            updateLock.unlock();
-        }
-    }
-
-    private void monitor() {
-        while (true) {
-            try {
-                updateLock.lock();
-                while (!updateAvailable) {
-                    updateCond.await();
-                }
-                updateRegistry();
-            }
-            catch (InterruptedException e) {
-                log.info("Updater thread interrupted");
-                Thread.currentThread().interrupt();
-                break;
-            }
-            finally {
-                updateAvailable = false;
-                updateLock.unlock();
-            }
-        }
+        refreshTrigger.trigger();
     }
 
     private void updateRegistry() {
@@ -185,28 +318,44 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
             return;
         }
         alreadyUpdating.set(true);
-        final Map<Service, ServiceFinder<T, R>> updatedFinders = new HashMap<>();
         try {
             val services = serviceDataSource.services();
+            knownServices = Set.copyOf(services);
+            serviceListLoaded.complete(null);
+            //Idle finders are evicted even when the data source returns nothing
+            evictIdleFinders();
             if (services.isEmpty()) {
                 log.debug("No services found for the service data source. Skipping update on the registry");
                 return;
             }
             val knownServiceFinders = finders.get();
-            val newFinders = services.stream()
+            val newServices = services.stream()
                     .filter(service -> !knownServiceFinders.containsKey(service))
-                    .collect(Collectors.toMap(Function.identity(), finderFactory::buildFinder));
-            val matchingServices = knownServiceFinders.entrySet()
+                    .filter(service -> null == lazyFinderConfig || requestedServices.contains(service))
+                    .collect(Collectors.toList());
+            val removedServices = knownServiceFinders.keySet()
                     .stream()
-                    .filter(entry -> services.contains(entry.getKey()))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-            if (newFinders.isEmpty() && matchingServices.size() == knownServiceFinders.size()) {
+                    .filter(service -> !services.contains(service))
+                    .collect(Collectors.toSet());
+            if (newServices.isEmpty() && removedServices.isEmpty()) {
                 log.debug("No update to known list of services. Skipping update on the registry.");
                 return;
             }
-            updatedFinders.putAll(newFinders);
-            updatedFinders.putAll(matchingServices);
-            finders.set(updatedFinders);
+            if (!removedServices.isEmpty()) {
+                finders.updateAndGet(current -> current.entrySet()
+                        .stream()
+                        .filter(entry -> !removedServices.contains(entry.getKey()))
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+                removedServices.forEach(service -> {
+                    log.info("Service {} is not available any more. Stopping its finder", service.name());
+                    requestedServices.remove(service);
+                    lastLookupTimes.remove(service);
+                    stopFinder(knownServiceFinders.get(service));
+                });
+            }
+            newServices.stream()
+                    .filter(bootstrapsInProgress::add)
+                    .forEach(this::bootstrapFinder);
         }
         catch (Exception e) {
             log.error("Error updating service list. Will maintain older list", e);
@@ -216,15 +365,82 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
         }
     }
 
+    /*
+        Builds the finder on the bootstrap pool and publishes it as soon as it is ready. Builds that take
+        longer than the service refresh duration are interrupted and retried on the next hub refresh. A finder
+        that still gets built after its build has timed out is stopped, never published.
+     */
+    private void bootstrapFinder(Service service) {
+        val outcome = new CompletableFuture<ServiceFinder<T, R>>();
+        final Future<?> build;
+        try {
+            build = bootstrapExecutor.submit(() -> {
+                try {
+                    val finder = finderFactory.buildFinder(service);
+                    if (!outcome.complete(finder)) {
+                        log.info("Finder for service {} was built after its build timed out. Stopping it",
+                                 service.name());
+                        stopUnpublishedFinder(finder);
+                    }
+                }
+                catch (Throwable t) {
+                    outcome.completeExceptionally(t);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            bootstrapsInProgress.remove(service);
+            log.debug("Service finder hub has been stopped. Not building finder for {}", service.name());
+            return;
+        }
+        outcome.orTimeout(serviceRefreshDurationMs, TimeUnit.MILLISECONDS)
+                .whenComplete((finder, error) -> onBootstrapCompleted(service, finder, error, build));
+    }
+
+    private void onBootstrapCompleted(
+            Service service,
+            ServiceFinder<T, R> finder,
+            Throwable error,
+            Future<?> build) {
+        bootstrapsInProgress.remove(service);
+        if (error instanceof TimeoutException) {
+            //Interrupts the wait for the first refresh, the finder stops itself when its start fails
+            build.cancel(true);
+            log.error("Finder for service {} could not be started in {} ms. Will be retried on next refresh",
+                      service.name(), serviceRefreshDurationMs);
+            return;
+        }
+        if (null != error) {
+            log.error("Error building finder for service " + service.name() + ". Will be retried on next refresh",
+                      error);
+            return;
+        }
+        if (!knownServices.contains(service)) {
+            log.info("Service {} went away while its finder was being built. Stopping the finder",
+                     service.name());
+            stopUnpublishedFinder(finder);
+            return;
+        }
+        finders.updateAndGet(current -> {
+            val updated = new HashMap<>(current);
+            updated.put(service, finder);
+            return updated;
+        });
+        nodeChangeForwarders.put(service, finder.getServiceRegistry()
+                .nodeChanges()
+                .addListener(nodeChangePublisher::publish));
+        Optional.ofNullable(pendingFinders.remove(service))
+                .ifPresent(pending -> pending.complete(finder));
+    }
+
     private void waitTillHubIsReady() {
-        val hubRefresher = CompletableFuture.allOf(
-                serviceDataSource.services()
-                        .stream()
-                        .map(service -> CompletableFuture.supplyAsync((Supplier<Void>) () -> {
-                            waitTillServiceIsReady(service);
-                            return null;
-                        })).toArray(CompletableFuture[]::new)
-                                                  );
+        val hubRefresher = null != lazyFinderConfig
+                           ? serviceListLoaded
+                           : CompletableFuture.allOf(
+                                   serviceDataSource.services()
+                                           .stream()
+                                           .map(this::finderReady)
+                                           .toArray(CompletableFuture[]::new));
         try {
             hubRefresher.get(hubRefreshDurationMs, TimeUnit.MILLISECONDS);
         }
@@ -243,20 +459,129 @@ public class ServiceFinderHub<T, R extends ServiceRegistry<T>> {
         }
     }
 
-    private void waitTillServiceIsReady(Service service) {
+    private Optional<ServiceFinder<T, R>> materialize(Service service) {
+        if (!knownServices.contains(service)) {
+            return Optional.empty();
+        }
+        recordLookup(service);
+        val ready = finderReady(service);
+        if (requestedServices.add(service)) {
+            log.info("Building finder for service {} on first lookup", service.name());
+            refreshTrigger.triggerNow();
+        }
         try {
-            RetryerBuilder.<Boolean>newBuilder()
-                    .retryIfResult(r -> !r)
-                    .withStopStrategy(StopStrategies.stopAfterDelay(serviceRefreshDurationMs, TimeUnit.MILLISECONDS))
-                    .build()
-                    .call(() -> Optional.ofNullable(getFinders().get().get(service))
-                            .map(ServiceFinder::getServiceRegistry)
-                            .map(ServiceRegistry::isRefreshed)
-                            .orElse(false));
+            return Optional.of(ready.get(lazyFinderConfig.getFirstLookupWaitMs(), TimeUnit.MILLISECONDS));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        catch (TimeoutException e) {
+            log.warn("Finder for service {} is not ready yet", service.name());
+            return Optional.empty();
+        }
+        catch (ExecutionException e) {
+            log.warn("Finder for service {} could not be built: {}", service.name(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void recordLookup(Service service) {
+        lastLookupTimes.computeIfAbsent(service, key -> new AtomicLong())
+                .set(System.currentTimeMillis());
+    }
+
+    private void evictIdleFinders() {
+        if (null == lazyFinderConfig || lazyFinderConfig.getIdleTimeoutMs() <= 0) {
+            return;
+        }
+        val idleSince = System.currentTimeMillis() - lazyFinderConfig.getIdleTimeoutMs();
+        val idleServices = finders.get()
+                .keySet()
+                .stream()
+                .filter(service -> Optional.ofNullable(lastLookupTimes.get(service))
+                        .map(lastLookup -> lastLookup.get() < idleSince)
+                        .orElse(true))
+                .collect(Collectors.toSet());
+        if (idleServices.isEmpty()) {
+            return;
+        }
+        val current = finders.get();
+        finders.updateAndGet(existing -> existing.entrySet()
+                .stream()
+                .filter(entry -> !idleServices.contains(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        idleServices.forEach(service -> {
+            requestedServices.remove(service);
+            lastLookupTimes.remove(service);
+            log.info("Evicting finder for idle service {}", service.name());
+            stopFinder(current.get(service));
+        });
+    }
+
+    private void stopFinder(ServiceFinder<T, R> finder) {
+        val registry = finder.getServiceRegistry();
+        val forwarder = nodeChangeForwarders.remove(registry.getService());
+        if (null != forwarder) {
+            forwarder.cancel();
+            nodeChangePublisher.publish(new NodeChangeEvent<>(
+                    registry.getService(), new NodeListDelta<>(List.of(), List.copyOf(registry.nodeList()))));
+        }
+        try {
+            finder.stop();
+            stoppedFinderCount.incrementAndGet();
         }
         catch (Exception e) {
-            Exceptions
-                    .illegalState("Could not perform initial state for service: " + service.getServiceName(), e);
+            log.warn("Error stopping finder for service {}: {}",
+                     finder.getServiceRegistry().getService().name(), e.getMessage());
+        }
+    }
+
+    private void stopUnpublishedFinder(ServiceFinder<T, R> finder) {
+        try {
+            finder.stop();
+            stoppedFinderCount.incrementAndGet();
+        }
+        catch (Exception e) {
+            log.warn("Error stopping finder for service {}: {}",
+                     finder.getServiceRegistry().getService().name(), e.getMessage());
+        }
+    }
+
+    private List<NodeChangeEvent<T>> currentState() {
+        return finders.get()
+                .values()
+                .stream()
+                .map(ServiceFinder::getServiceRegistry)
+                .filter(ServiceRegistry::isRefreshed)
+                .map(registry -> new NodeChangeEvent<>(registry.getService(),
+                                                       new NodeListDelta<>(List.copyOf(registry.nodeList()),
+                                                                           List.of())))
+                .toList();
+    }
+
+    /*
+        Completes once a finder for the service has been published and its registry has been refreshed.
+        Nothing is polled; the future is completed by the hub refresh and the registry update respectively.
+     */
+    private CompletableFuture<ServiceFinder<T, R>> finderReady(Service service) {
+        val finder = finders.get().get(service);
+        if (null != finder) {
+            return registryReady(finder);
         }
+        val pending = pendingFinders.computeIfAbsent(service, key -> new CompletableFuture<>());
+        //The finder might have been published between the lookup above and registering the pending future
+        val published = finders.get().get(service);
+        if (null != published) {
+            pendingFinders.remove(service, pending);
+            pending.complete(published);
+        }
+        return pending.thenCompose(this::registryReady);
+    }
+
+    private CompletableFuture<ServiceFinder<T, R>> registryReady(ServiceFinder<T, R> finder) {
+        return finder.getServiceRegistry()
+                .awaitRefresh()
+                .thenApply(ignored -> finder);
     }
 }
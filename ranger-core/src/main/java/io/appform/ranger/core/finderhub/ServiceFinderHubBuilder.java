@@ -16,6 +16,8 @@
 package io.appform.ranger.core.finderhub;
 
 import com.google.common.base.Preconditions;
+import io.appform.ranger.core.executor.CoalescingRefreshTrigger;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.model.HubConstants;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.core.signals.ScheduledSignal;
@@ -40,6 +42,11 @@ public abstract class ServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> {
     private final List<Signal<Void>> extraRefreshSignals = new ArrayList<>();
     private long serviceRefreshDurationMs = HubConstants.SERVICE_REFRESH_DURATION_MS;
     private long hubRefreshDurationMs = HubConstants.HUB_REFRESH_DURATION_MS;
+    private RefreshExecutor refreshExecutor;
+    private long refreshDebounceMs = CoalescingRefreshTrigger.DEFAULT_DEBOUNCE_MS;
+    private long refreshMaxDelayMs = CoalescingRefreshTrigger.DEFAULT_MAX_DELAY_MS;
+    private int finderBootstrapParallelism = HubConstants.FINDER_BOOTSTRAP_PARALLELISM;
+    private LazyFinderConfig lazyFinderConfig;
 
     public ServiceFinderHubBuilder<T, R> withServiceDataSource(ServiceDataSource serviceDataSource) {
         this.serviceDataSource = serviceDataSource;
@@ -81,17 +88,76 @@ public abstract class ServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> {
         return this;
     }
 
+    /**
+     * Run the hub refresh timers on a shared executor. To run refreshes of the finders on the same executor,
+     * pass it to the {@link ServiceFinderFactory} as well. The executor is not stopped when the hub is stopped.
+     *
+     * @param refreshExecutor shared executor, null to use dedicated threads
+     * @return builder for next call
+     */
+    public ServiceFinderHubBuilder<T, R> withRefreshExecutor(RefreshExecutor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        return this;
+    }
+
+    /**
+     * Hold back a refresh of the list of finders till no refresh request has been received for the given period
+     *
+     * @param refreshDebounceMs quiet period in ms, 0 to refresh as soon as a request is received
+     * @return builder for next call
+     */
+    public ServiceFinderHubBuilder<T, R> withRefreshDebounceMs(long refreshDebounceMs) {
+        this.refreshDebounceMs = refreshDebounceMs;
+        return this;
+    }
+
+    /**
+     * Upper bound on how long a pending refresh can be held back by {@link #withRefreshDebounceMs(long)}
+     *
+     * @param refreshMaxDelayMs max delay in ms
+     * @return builder for next call
+     */
+    public ServiceFinderHubBuilder<T, R> withRefreshMaxDelayMs(long refreshMaxDelayMs) {
+        this.refreshMaxDelayMs = refreshMaxDelayMs;
+        return this;
+    }
+
+    /**
+     * Number of finders that are built and started concurrently when new services are discovered.
+     * Each finder build is bounded by {@link #withServiceRefreshDuration(long)}
+     *
+     * @param finderBootstrapParallelism max concurrent finder builds
+     * @return builder for next call
+     */
+    public ServiceFinderHubBuilder<T, R> withFinderBootstrapParallelism(int finderBootstrapParallelism) {
+        this.finderBootstrapParallelism = finderBootstrapParallelism;
+        return this;
+    }
+
+    /**
+     * Build finders only for services that are looked up, and evict finders that are not looked up any more
+     *
+     * @param lazyFinderConfig lazy finder settings, null to build finders for all services eagerly
+     * @return builder for next call
+     */
+    public ServiceFinderHubBuilder<T, R> withLazyFinderConfig(LazyFinderConfig lazyFinderConfig) {
+        this.lazyFinderConfig = lazyFinderConfig;
+        return this;
+    }
+
     public ServiceFinderHub<T, R> build() {
         preBuild();
         Preconditions.checkNotNull(serviceDataSource, "Provide a non-null service data source");
         Preconditions.checkNotNull(serviceFinderFactory, "Provide a non-null service finder factory");
 
         val hub = new ServiceFinderHub<>(serviceDataSource, serviceFinderFactory,
-                serviceRefreshDurationMs, hubRefreshDurationMs);
+                serviceRefreshDurationMs, hubRefreshDurationMs, refreshExecutor,
+                refreshDebounceMs, refreshMaxDelayMs, finderBootstrapParallelism, lazyFinderConfig);
         final ScheduledSignal<Void> refreshSignal = new ScheduledSignal<>("service-hub-refresh-timer",
                                                                           () -> null,
                                                                           Collections.emptyList(),
-                                                                          refreshFrequencyMs);
+                                                                          refreshFrequencyMs,
+                                                                          refreshExecutor);
         hub.registerUpdateSignal(refreshSignal);
         extraRefreshSignals.forEach(hub::registerUpdateSignal);
 
@@ -26,14 +26,28 @@ import java.util.function.Supplier;
  */
 @Slf4j
 public class HealthChecker implements Supplier<HealthcheckResult> {
+    /* Smaller changes in score are not published, to avoid an update on every small fluctuation */
+    public static final double MIN_SCORE_CHANGE = 0.05;
 
     private final List<Healthcheck> healthChecks;
+    private final List<HealthScorer> healthScorers;
     private final int staleUpdateThreshold;
     private HealthcheckStatus lastHealthcheckStatus;
+    private double lastPublishedScore = 1.0;
     private long lastUpdatedTime;
 
     public HealthChecker(List<Healthcheck> healthChecks, int staleUpdateThreshold) {
+        this(healthChecks, List.of(), staleUpdateThreshold);
+    }
+
+    /**
+     * @param healthChecks         checks that decide if the node is healthy
+     * @param healthScorers        graders for the capacity of a healthy node. The lowest score is published
+     * @param staleUpdateThreshold max time after which the health is published even if unchanged
+     */
+    public HealthChecker(List<Healthcheck> healthChecks, List<HealthScorer> healthScorers, int staleUpdateThreshold) {
         this.healthChecks = healthChecks;
+        this.healthScorers = healthScorers;
         this.staleUpdateThreshold = staleUpdateThreshold;
     }
 
@@ -43,6 +57,7 @@ public class HealthChecker implements Supplier<HealthcheckResult> {
             return HealthcheckResult.builder()
                     .status(lastHealthcheckStatus)
                     .updatedTime(lastUpdatedTime)
+                    .score(lastPublishedScore)
                     .build();
         }
         return null;
@@ -62,17 +77,22 @@ public class HealthChecker implements Supplier<HealthcheckResult> {
                 break;
             }
         }
+        val score = HealthcheckStatus.healthy == healthcheckStatus ? score() : 0.0;
         //Trigger update only if state change has happened
         //Conditions on which update will be triggered
         //1. First time
         //2. Stale update threshold breach
         //3. Update in health status
+        //4. Large enough change in score
         try {
             val currentTime = System.currentTimeMillis();
             if (lastHealthcheckStatus == null
                     || (currentTime - lastUpdatedTime) > staleUpdateThreshold
-                    || lastHealthcheckStatus != healthcheckStatus) {
+                    || lastHealthcheckStatus != healthcheckStatus
+                    || Math.abs(score - lastPublishedScore) >= MIN_SCORE_CHANGE
+                    || (score != lastPublishedScore && (score == 0.0 || score == 1.0))) {
                 lastUpdatedTime = currentTime;
+                lastPublishedScore = score;
                 return true;
             }
         }
@@ -81,4 +101,20 @@ public class HealthChecker implements Supplier<HealthcheckResult> {
         }
         return false;
     }
+
+    private double score() {
+        double score = 1.0;
+        for (val healthScorer : healthScorers) {
+            try {
+                val scored = healthScorer.score();
+                if (!Double.isNaN(scored)) {
+                    score = Math.min(score, scored);
+                }
+            }
+            catch (Exception e) {
+                log.error("Error running health scorer. Ignoring its score", e);
+            }
+        }
+        return Math.max(0.0, score);
+    }
 }
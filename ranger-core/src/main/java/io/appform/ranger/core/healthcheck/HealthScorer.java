@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.healthcheck;
+
+/**
+ * Grades the capacity of a healthy service instance. The score is published along with the health of the node,
+ * so that clients can send proportionally less traffic to a degraded node instead of all or nothing.
+ *
+ * @see HealthScorers
+ */
+@FunctionalInterface
+public interface HealthScorer {
+
+    /**
+     * @return score between 0 (can't take traffic) and 1 (full capacity)
+     */
+    double score();
+}
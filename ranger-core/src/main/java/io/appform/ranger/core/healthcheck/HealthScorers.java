@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.healthcheck;
+
+import com.google.common.base.Preconditions;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+
+@UtilityClass
+@SuppressWarnings("unused")
+public class HealthScorers {
+
+    /**
+     * Score based on the system load average per available processor. Full score below {@code lowLoadPerCore},
+     * falling linearly to 0 at {@code highLoadPerCore}. Scores 1 on platforms that do not report load average.
+     */
+    public static HealthScorer systemLoad(double lowLoadPerCore, double highLoadPerCore) {
+        Preconditions.checkArgument(highLoadPerCore > lowLoadPerCore, "High load must be more than low load");
+        val osBean = ManagementFactory.getOperatingSystemMXBean();
+        return () -> {
+            val load = osBean.getSystemLoadAverage();
+            if (load < 0) {
+                return 1.0;
+            }
+            return linearScore(load / osBean.getAvailableProcessors(), lowLoadPerCore, highLoadPerCore);
+        };
+    }
+
+    /**
+     * Score based on the depth of a work queue (executor queue, pending requests etc.). Full score up to
+     * {@code lowDepth}, falling linearly to 0 at {@code highDepth}.
+     */
+    public static HealthScorer queueDepth(IntSupplier depth, int lowDepth, int highDepth) {
+        Preconditions.checkArgument(highDepth > lowDepth, "High depth must be more than low depth");
+        return () -> linearScore(depth.getAsInt(), lowDepth, highDepth);
+    }
+
+    private static double linearScore(double value, double low, double high) {
+        if (value <= low) {
+            return 1.0;
+        }
+        if (value >= high) {
+            return 0.0;
+        }
+        return (high - value) / (high - low);
+    }
+}
@@ -23,4 +23,7 @@ import lombok.Value;
 public class HealthcheckResult {
     HealthcheckStatus status;
     long updatedTime;
+    /* Graded capacity of the node, see HealthScorer. 0 for unhealthy nodes */
+    @Builder.Default
+    double score = 1.0;
 }
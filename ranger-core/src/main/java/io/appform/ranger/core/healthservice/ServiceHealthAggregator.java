@@ -17,6 +17,7 @@
 package io.appform.ranger.core.healthservice;
 
 import com.google.common.collect.Lists;
+import io.appform.ranger.core.healthcheck.HealthScorer;
 import io.appform.ranger.core.healthcheck.Healthcheck;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
 import io.appform.ranger.core.healthservice.monitor.IsolatedHealthMonitor;
@@ -36,9 +37,10 @@ import java.util.concurrent.atomic.AtomicReference;
  * This is a simple {@link HealthService} implementation,
  * which can be used to register a set of {@link IsolatedHealthMonitor}s and get an aggregated health of the service.
  * The aggregated health is maintained by scheduling and running the set of registered (enabled) monitors at regular intervals.
+ * Monitors that also implement {@link HealthScorer} contribute to a graded score, the lowest of their scores.
  */
 @Slf4j
-public class ServiceHealthAggregator implements HealthService<HealthcheckStatus>, Healthcheck {
+public class ServiceHealthAggregator implements HealthService<HealthcheckStatus>, Healthcheck, HealthScorer {
 
     /* An atomic reference of the aggregated health */
     private final AtomicReference<HealthcheckStatus> healthcheckStatus;
@@ -158,6 +160,25 @@ public class ServiceHealthAggregator implements HealthService<HealthcheckStatus>
         return getServiceHealth();
     }
 
+    /**
+     * @return lowest score of the registered (enabled) monitors that grade health, 1 if there are none
+     */
+    @Override
+    public double score() {
+        double score = 1.0;
+        for (val monitor : isolatedHealthMonitorList) {
+            if (!monitor.isDisabled() && monitor instanceof HealthScorer healthScorer) {
+                score = Math.min(score, healthScorer.score());
+            }
+        }
+        for (val monitor : inlineHealthMonitorList) {
+            if (!monitor.isDisabled() && monitor instanceof HealthScorer healthScorer) {
+                score = Math.min(score, healthScorer.score());
+            }
+        }
+        return score;
+    }
+
     private boolean isIsolatedMonitorUnHealthy(IsolatedHealthMonitor<HealthcheckStatus> isolatedHealthMonitor, Date currentTime) {
         if (HealthcheckStatus.unhealthy == isolatedHealthMonitor.getHealthStatus()) {
             return true;
@@ -17,48 +17,56 @@
 package io.appform.ranger.core.healthservice.monitor;
 
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import lombok.val;
 
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class may be used to keep track of health in a rolling window
- * Maintains a queue of {@link HealthcheckStatus}s of size {@code rollingWindowSize}
+ * Maintains the last {@code rollingWindowSize} {@link HealthcheckStatus}es in a ring buffer. Statuses can be
+ * recorded from multiple threads without locking: every status claims the next slot of the ring and swaps out
+ * the oldest status, adjusting the failure count by the difference.
  */
 public class RollingWindowHealthQueue {
+    /* Slots start out as 0, i.e. empty */
+    private static final int HEALTHY = 1;
+    private static final int UNHEALTHY = 2;
 
     /* size of the rolling window */
-    private final Integer rollingWindowSize;
+    private final int rollingWindowSize;
 
     /* maximum failures allowed in the window */
-    private final Integer maxFailures;
+    private final int maxFailures;
 
     /* current failures in the window */
-    private final AtomicReference<Integer> currentFailuresCount = new AtomicReference<>();
+    private final AtomicInteger currentFailuresCount = new AtomicInteger(0);
 
-    /* queue of health statuses */
-    private final Queue<HealthcheckStatus> statusQueue;
+    /* total statuses recorded so far, the next slot to be written is derived from this */
+    private final AtomicLong recordedCount = new AtomicLong(0);
+
+    /* ring of health statuses */
+    private final AtomicIntegerArray statuses;
 
     /**
      * @param rollingWindowSize size of the rolling window to be maintained
      * @param maxFailures       maximum failures allowed in the window
      */
     public RollingWindowHealthQueue(Integer rollingWindowSize, Integer maxFailures) {
-        this.rollingWindowSize = rollingWindowSize;
-        this.maxFailures = maxFailures;
-        this.currentFailuresCount.set(0);
-        statusQueue = new LinkedList<>();
         if (rollingWindowSize <= 0) {
             throw new UnsupportedOperationException("rollingWindowSize cant be <= 0");
         }
         if (maxFailures > rollingWindowSize) {
             throw new UnsupportedOperationException("maxFailures cant be greater than the rollingWindowSize");
         }
+        this.rollingWindowSize = rollingWindowSize;
+        this.maxFailures = maxFailures;
+        this.statuses = new AtomicIntegerArray(rollingWindowSize);
     }
 
     /**
-     * dequeues the latest incoming status, enqueues the latest health status
+     * dequeues the oldest status (once the window is full), enqueues the latest health status
      * updates the failure counts accordingly
      *
      * @param currentHealthStatus current health status coming from outside
@@ -66,25 +74,25 @@ public class RollingWindowHealthQueue {
      * <code>false</code> if the current failures in the queue are more than or equal to the maxFailures
      */
     public boolean checkInRollingWindow(HealthcheckStatus currentHealthStatus) {
-        HealthcheckStatus oldestStatus;
-        if (currentHealthStatus == HealthcheckStatus.healthy) {
-            if (statusQueue.size() == rollingWindowSize) {
-                oldestStatus = statusQueue.remove();
-                if (oldestStatus == HealthcheckStatus.unhealthy) {
-                    currentFailuresCount.getAndSet(currentFailuresCount.get() - 1);
-                }
-            }
-        } else {
-            if (statusQueue.size() == rollingWindowSize) {
-                oldestStatus = statusQueue.remove();
-                if (oldestStatus == HealthcheckStatus.healthy) {
-                    currentFailuresCount.getAndSet(currentFailuresCount.get() + 1);
-                }
-            } else {
-                currentFailuresCount.getAndSet(currentFailuresCount.get() + 1);
-            }
+        val current = currentHealthStatus == HealthcheckStatus.healthy ? HEALTHY : UNHEALTHY;
+        val slot = (int) (recordedCount.getAndIncrement() % rollingWindowSize);
+        val oldest = statuses.getAndSet(slot, current);
+        val change = (current == UNHEALTHY ? 1 : 0) - (oldest == UNHEALTHY ? 1 : 0);
+        val failures = change == 0
+                       ? currentFailuresCount.get()
+                       : currentFailuresCount.addAndGet(change);
+        return failures < maxFailures;
+    }
+
+    /**
+     * @return fraction of healthy statuses in the current window, 1 if nothing has been recorded yet
+     */
+    public double healthScore() {
+        val recorded = Math.min(recordedCount.get(), rollingWindowSize);
+        if (recorded == 0) {
+            return 1.0;
         }
-        statusQueue.add(currentHealthStatus);
-        return currentFailuresCount.get() < maxFailures;
+        val failures = Math.min(currentFailuresCount.get(), recorded);
+        return (double) (recorded - failures) / recorded;
     }
 }
@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.core.healthservice.monitor.sample;
 
+import io.appform.ranger.core.healthcheck.HealthScorer;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
 import io.appform.ranger.core.healthservice.TimeEntity;
 import io.appform.ranger.core.healthservice.monitor.IsolatedHealthMonitor;
@@ -34,10 +35,11 @@ import java.util.concurrent.*;
 /**
  * A Ping checking monitor, which executes a {@link HttpRequest} at regular intervals
  * Maintains every healthcheck in a {@link RollingWindowHealthQueue} to prevent continuous flaps of health
+ * The share of successful pings in the window is used as the health score
  */
 @Slf4j
 @SuppressWarnings("unused")
-public class PingCheckMonitor extends IsolatedHealthMonitor<HealthcheckStatus> {
+public class PingCheckMonitor extends IsolatedHealthMonitor<HealthcheckStatus> implements HealthScorer {
     
     private final HttpRequest httpRequest;
     private final String host;
@@ -100,6 +102,11 @@ public class PingCheckMonitor extends IsolatedHealthMonitor<HealthcheckStatus> {
         }
     }
 
+    @Override
+    public double score() {
+        return rollingWindowHealthQueue.healthScore();
+    }
+
     private HealthcheckStatus getRollingWindowHealthcheckStatus(HealthcheckStatus healthy) {
         if (rollingWindowHealthQueue.checkInRollingWindow(healthy)) {
             return HealthcheckStatus.healthy;
@@ -24,4 +24,7 @@ public class HubConstants {
     public static final long REFRESH_FREQUENCY_MS = 10_000;
     public static final int CONNECTION_RETRY_TIME_MS = 5_000;
     public static final int MINIMUM_REFRESH_TIME_MS = 5_000;
+    public static final int FINDER_BOOTSTRAP_PARALLELISM = 16;
+    public static final long LAZY_FINDER_FIRST_LOOKUP_WAIT_MS = 2_000;
+    public static final long LAZY_FINDER_IDLE_TIMEOUT_MS = 600_000;
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import java.util.List;
+
+/**
+ * Selects a node for a routing key, such that the same key maps to the same node as long as the node is available
+ */
+public interface KeyedServiceNodeSelector<T> {
+
+    /**
+     * @param serviceNodes nodes to select from
+     * @param key          routing key
+     * @return node for the key or null if there are no nodes
+     */
+    ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, String key);
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import lombok.Value;
+
+/**
+ * Identity of a node: host, port and scheme. Stays the same when the data, health or score of the node change,
+ * while registries publish a new {@link ServiceNode} instance for it.
+ */
+@Value
+public class NodeKey {
+    String host;
+    int port;
+    String portScheme;
+
+    public static NodeKey of(ServiceNode<?> node) {
+        return new NodeKey(node.getHost(), node.getPort(), node.getPortScheme());
+    }
+}
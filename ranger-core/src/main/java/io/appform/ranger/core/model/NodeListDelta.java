@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import lombok.Value;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nodes added to and removed from a {@link ServiceRegistry} by an update. A node whose data or health changed
+ * shows up as removed (old version) and added (new version). Heartbeat timestamp changes are not considered
+ * changes.
+ */
+@Value
+public class NodeListDelta<T> {
+    List<ServiceNode<T>> added;
+    List<ServiceNode<T>> removed;
+
+    public static <T> NodeListDelta<T> unchanged() {
+        return new NodeListDelta<>(List.of(), List.of());
+    }
+
+    public boolean isChanged() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+
+    /**
+     * @param next delta applied after this one
+     * @return a single delta with the net effect of both deltas
+     */
+    public NodeListDelta<T> merge(NodeListDelta<T> next) {
+        val mergedAdded = new ArrayList<ServiceNode<T>>();
+        added.stream()
+                .filter(node -> !next.getRemoved().contains(node))
+                .forEach(mergedAdded::add);
+        next.getAdded()
+                .stream()
+                .filter(node -> !removed.contains(node))
+                .forEach(mergedAdded::add);
+        val mergedRemoved = new ArrayList<ServiceNode<T>>();
+        removed.stream()
+                .filter(node -> !next.getAdded().contains(node))
+                .forEach(mergedRemoved::add);
+        next.getRemoved()
+                .stream()
+                .filter(node -> !added.contains(node))
+                .forEach(mergedRemoved::add);
+        return new NodeListDelta<>(List.copyOf(mergedAdded), List.copyOf(mergedRemoved));
+    }
+}
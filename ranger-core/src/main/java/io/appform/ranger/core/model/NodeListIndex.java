@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index over the node list last published to a {@link ServiceRegistry}, used to detect unchanged refreshes
+ * and to compute deltas. Nodes are identified by host, port and scheme; their content by node data, health and
+ * health score.
+ * The index also remembers when each node was first seen, which carries over as long as a node with the same
+ * identity is present in every update.
+ */
+final class NodeListIndex<T> {
+    private final long fingerprint;
+    private final int size;
+    private final Map<NodeKey, ServiceNode<T>> nodes;
+    private final Map<NodeKey, Long> firstSeen;
+    private final long latestFirstSeen;
+
+    private NodeListIndex(long fingerprint, List<ServiceNode<T>> nodeList, NodeListIndex<T> previous, long now) {
+        this.fingerprint = fingerprint;
+        this.size = nodeList.size();
+        this.nodes = new HashMap<>(Math.max(16, nodeList.size() * 2));
+        this.firstSeen = new HashMap<>(Math.max(16, nodeList.size() * 2));
+        long latest = 0;
+        for (val node : nodeList) {
+            val key = NodeKey.of(node);
+            nodes.put(key, node);
+            long seenAt = 0L;
+            if (null != previous) {
+                seenAt = previous.nodes.containsKey(key) ? previous.firstSeen.getOrDefault(key, 0L) : now;
+            }
+            if (seenAt != 0) {
+                firstSeen.put(key, seenAt);
+                latest = Math.max(latest, seenAt);
+            }
+        }
+        this.latestFirstSeen = latest;
+    }
+
+    /**
+     * Index for the first list published to a registry. These nodes are not considered new
+     */
+    static <T> NodeListIndex<T> of(List<ServiceNode<T>> nodeList) {
+        return new NodeListIndex<>(fingerprint(nodeList), nodeList, null, 0);
+    }
+
+    /**
+     * Index for a subsequent list. Nodes not present in the previous index are recorded as first seen now
+     */
+    static <T> NodeListIndex<T> of(List<ServiceNode<T>> nodeList, NodeListIndex<T> previous, long now) {
+        return new NodeListIndex<>(fingerprint(nodeList), nodeList, previous, now);
+    }
+
+    /**
+     * @return time (epoch ms) at which the node was first seen, 0 if it has been present since the first list
+     */
+    long firstSeen(ServiceNode<T> node) {
+        return firstSeen.isEmpty() ? 0L : firstSeen.getOrDefault(NodeKey.of(node), 0L);
+    }
+
+    /**
+     * @return latest first seen time of any node in the index, 0 if all nodes were present in the first list
+     */
+    long latestFirstSeen() {
+        return latestFirstSeen;
+    }
+
+    /**
+     * Order independent hash over the identity and content of all nodes. Does not allocate.
+     */
+    static <T> long fingerprint(List<ServiceNode<T>> nodeList) {
+        long sum = 0;
+        long xor = 0;
+        for (val node : nodeList) {
+            val hash = contentHash(node);
+            sum += hash;
+            xor ^= hash * 0x9E3779B97F4A7C15L;
+        }
+        return sum * 31 + xor;
+    }
+
+    /**
+     * @return true if the given list has the same nodes, with the same content, as this index
+     */
+    boolean matches(long otherFingerprint, List<ServiceNode<T>> nodeList) {
+        if (otherFingerprint != fingerprint || nodeList.size() != size) {
+            return false;
+        }
+        for (val node : nodeList) {
+            if (!sameContent(nodes.get(NodeKey.of(node)), node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Carry heartbeat timestamps over to the published nodes of an unchanged list. Published nodes are updated in
+     * place to keep their identity, which is safe as the timestamp is volatile and only advisory to readers
+     */
+    void refreshTimestamps(List<ServiceNode<T>> nodeList) {
+        for (val node : nodeList) {
+            val published = nodes.get(NodeKey.of(node));
+            if (null != published && published != node) {
+                published.setLastUpdatedTimeStamp(node.getLastUpdatedTimeStamp());
+            }
+        }
+    }
+
+    /**
+     * Replace nodes that are unchanged from the published ones with the published instances (with their
+     * timestamps carried over in place, as in {@link #refreshTimestamps(List)}), so that the registry keeps
+     * referring to a single instance per node
+     */
+    List<ServiceNode<T>> canonicalize(List<ServiceNode<T>> nodeList) {
+        val canonical = new ArrayList<ServiceNode<T>>(nodeList.size());
+        for (val node : nodeList) {
+            val published = nodes.get(NodeKey.of(node));
+            if (sameContent(published, node)) {
+                published.setLastUpdatedTimeStamp(node.getLastUpdatedTimeStamp());
+                canonical.add(published);
+            }
+            else {
+                canonical.add(node);
+            }
+        }
+        return canonical;
+    }
+
+    NodeListDelta<T> diff(NodeListIndex<T> next) {
+        val added = new ArrayList<ServiceNode<T>>();
+        val removed = new ArrayList<ServiceNode<T>>();
+        next.nodes.forEach((key, node) -> {
+            if (!sameContent(nodes.get(key), node)) {
+                added.add(node);
+            }
+        });
+        nodes.forEach((key, node) -> {
+            if (!sameContent(next.nodes.get(key), node)) {
+                removed.add(node);
+            }
+        });
+        return new NodeListDelta<>(List.copyOf(added), List.copyOf(removed));
+    }
+
+    private static <T> boolean sameContent(ServiceNode<T> lhs, ServiceNode<T> rhs) {
+        return null != lhs
+                && null != rhs
+                && lhs.getPort() == rhs.getPort()
+                && Objects.equals(lhs.getHost(), rhs.getHost())
+                && Objects.equals(lhs.getPortScheme(), rhs.getPortScheme())
+                && lhs.getHealthcheckStatus() == rhs.getHealthcheckStatus()
+                && Double.compare(lhs.getHealthScore(), rhs.getHealthScore()) == 0
+                && Objects.equals(lhs.getNodeData(), rhs.getNodeData());
+    }
+
+    private static long contentHash(ServiceNode<?> node) {
+        long hash = Objects.hashCode(node.getHost());
+        hash = hash * 31 + node.getPort();
+        hash = hash * 31 + Objects.hashCode(node.getPortScheme());
+        hash = hash * 31 + Objects.hashCode(node.getHealthcheckStatus());
+        hash = hash * 31 + Double.hashCode(node.getHealthScore());
+        hash = hash * 31 + Objects.hashCode(node.getNodeData());
+        return hash;
+    }
+}
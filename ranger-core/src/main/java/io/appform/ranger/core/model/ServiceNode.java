@@ -16,6 +16,7 @@
  */
 package io.appform.ranger.core.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,18 +28,52 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class ServiceNode<T> {
+    public static final double DEFAULT_HEALTH_SCORE = 1.0;
+
     private String host;
     private int port;
     private T nodeData;
     @Builder.Default
     private HealthcheckStatus healthcheckStatus = HealthcheckStatus.healthy;
+    //Heartbeat time. Registries carry it over in place onto the published instance for unchanged refreshes, so it
+    //is advisory: readers may see it lag a concurrent refresh, but never see a torn value
     @Builder.Default
-    private long lastUpdatedTimeStamp = Long.MIN_VALUE;
+    private volatile long lastUpdatedTimeStamp = Long.MIN_VALUE;
     //Can be any scheme that you intend to init.
     @Builder.Default
     private String portScheme = PortSchemes.HTTP;
+    //Graded capacity published by the node, between 0 and 1. See HealthScorer
+    //Left out while at the default, so that finders that fail on unknown properties can still read the node
+    @Builder.Default
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = DefaultHealthScoreFilter.class)
+    private double healthScore = DEFAULT_HEALTH_SCORE;
+
+    public ServiceNode(
+            String host,
+            int port,
+            T nodeData,
+            HealthcheckStatus healthcheckStatus,
+            long lastUpdatedTimeStamp,
+            String portScheme) {
+        this(host, port, nodeData, healthcheckStatus, lastUpdatedTimeStamp, portScheme, DEFAULT_HEALTH_SCORE);
+    }
 
     public String representation() {
         return String.format("%s:%d", host, port);
     }
+
+    /**
+     * Jackson value filter that leaves out the health score when it is the default
+     */
+    public static final class DefaultHealthScoreFilter {
+        @Override
+        public boolean equals(Object value) {
+            return value instanceof Double score && score == DEFAULT_HEALTH_SCORE;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(DEFAULT_HEALTH_SCORE);
+        }
+    }
 }
@@ -15,8 +15,33 @@
  */
 package io.appform.ranger.core.model;
 
+import lombok.val;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface ServiceNodeSelector<T> {
     ServiceNode<T> select(List<ServiceNode<T>> serviceNodes);
+
+    /**
+     * Select one of the nodes whose data matches the criteria. Implementations should pick the node directly
+     * from the given list without building an intermediate list of matching nodes.
+     *
+     * @param serviceNodes immutable snapshot of nodes to select from
+     * @param criteria     criteria to be matched against node data. Null matches all nodes
+     * @return selected node or null if no node matches
+     */
+    default ServiceNode<T> select(List<ServiceNode<T>> serviceNodes, Predicate<T> criteria) {
+        if (null == criteria) {
+            return serviceNodes.isEmpty() ? null : select(serviceNodes);
+        }
+        val matchingNodes = new ArrayList<ServiceNode<T>>();
+        for (val node : serviceNodes) {
+            if (criteria.test(node.getNodeData())) {
+                matchingNodes.add(node);
+            }
+        }
+        return matchingNodes.isEmpty() ? null : select(matchingNodes);
+    }
 }
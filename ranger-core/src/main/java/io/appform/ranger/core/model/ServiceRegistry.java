@@ -15,30 +15,137 @@
  */
 package io.appform.ranger.core.model;
 
+import io.appform.ranger.core.events.NodeChangeEvent;
+import io.appform.ranger.core.events.NodeChangePublisher;
+
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import java.util.List;
 import lombok.Getter;
+import lombok.val;
 
 public abstract class ServiceRegistry<T> {
     @Getter
     private final Service service;
     private final AtomicBoolean refreshed = new AtomicBoolean(false);
+    private final CompletableFuture<Void> firstRefresh = new CompletableFuture<>();
+    /* Only written by the (single) updater of the registry */
+    private volatile NodeListIndex<T> publishedIndex;
+    /* Written after the snapshot is published, so a reader that sees a version sees the snapshot for it */
+    private volatile long snapshotVersion = 0;
+    private final NodeChangePublisher<T> nodeChangePublisher = new NodeChangePublisher<>(this::currentState);
 
     public abstract List<ServiceNode<T>> nodeList();
 
-    public void updateNodes(List<ServiceNode<T>> nodes) {
-        update(nodes);
+    /**
+     * Update the node list. If the nodes are the same as the published ones (ignoring heartbeat timestamps),
+     * the published list is retained and only the timestamps are carried over.
+     *
+     * @param nodes latest list of nodes
+     * @return nodes added and removed by this update
+     */
+    public NodeListDelta<T> updateNodes(List<ServiceNode<T>> nodes) {
+        val previous = publishedIndex;
+        val fingerprint = NodeListIndex.fingerprint(nodes);
+        NodeListDelta<T> delta;
+        if (null != previous && previous.matches(fingerprint, nodes)) {
+            previous.refreshTimestamps(nodes);
+            delta = NodeListDelta.unchanged();
+        }
+        else if (null == previous) {
+            delta = new NodeListDelta<>(List.copyOf(nodes), List.of());
+            update(nodes, delta);
+            publishedIndex = NodeListIndex.of(nodes);
+            snapshotVersion++;
+        }
+        else {
+            val canonical = previous.canonicalize(nodes);
+            val next = NodeListIndex.of(canonical, previous, System.currentTimeMillis());
+            delta = previous.diff(next);
+            update(canonical, delta);
+            publishedIndex = next;
+            snapshotVersion++;
+        }
         refreshed.set(true);
+        firstRefresh.complete(null);
+        if (delta.isChanged() && nodeChangePublisher.hasSubscribers()) {
+            nodeChangePublisher.publish(new NodeChangeEvent<>(service, delta));
+        }
+        return delta;
+    }
+
+    /**
+     * @return publisher of changes to the node list. Subscribers first receive the current nodes as additions
+     */
+    public NodeChangePublisher<T> nodeChanges() {
+        return nodeChangePublisher;
+    }
+
+    /**
+     * Version of the published node list. Changes every time {@link #updateNodes(List)} publishes a changed
+     * list and stays the same for updates that only refresh heartbeats. Read the version before reading the
+     * nodes to safely associate anything derived from the nodes with it.
+     *
+     * @return current snapshot version
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * Time at which a node was first seen in an update, tracked by node identity (host, port and scheme).
+     * Changes to the node data do not reset it. Nodes that were present in the first update are treated as
+     * having been around forever.
+     *
+     * @param node node to look up
+     * @return first seen time in epoch ms, 0 for nodes present since the first update or not present at all
+     */
+    public long getFirstSeenTime(ServiceNode<T> node) {
+        val index = publishedIndex;
+        return null == index ? 0L : index.firstSeen(node);
+    }
+
+    /**
+     * @return latest {@link #getFirstSeenTime(ServiceNode)} of the published nodes. Useful to cheaply check if
+     * any node is new
+     */
+    public long getLatestFirstSeenTime() {
+        val index = publishedIndex;
+        return null == index ? 0L : index.latestFirstSeen();
     }
 
     public boolean isRefreshed() {
         return refreshed.get();
     }
 
+    /**
+     * @return a future that completes once the node list has been updated for the first time
+     */
+    public CompletableFuture<Void> awaitRefresh() {
+        return firstRefresh.copy();
+    }
+
+    private List<NodeChangeEvent<T>> currentState() {
+        if (!isRefreshed()) {
+            return List.of();
+        }
+        return List.of(new NodeChangeEvent<>(service, new NodeListDelta<>(List.copyOf(nodeList()), List.of())));
+    }
+
     protected ServiceRegistry(Service service) {
         this.service = service;
     }
 
     protected abstract void update(List<ServiceNode<T>> nodes);
+
+    /**
+     * Publish a changed node list. Override to rebuild only the parts affected by the delta.
+     *
+     * @param nodes full list of nodes
+     * @param delta changes from the currently published list
+     */
+    protected void update(List<ServiceNode<T>> nodes, NodeListDelta<T> delta) {
+        update(nodes);
+    }
 }
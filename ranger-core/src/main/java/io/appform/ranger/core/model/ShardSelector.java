@@ -15,6 +15,8 @@
  */
 package io.appform.ranger.core.model;
 
+import lombok.val;
+
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -22,4 +24,20 @@ public interface ShardSelector<T, R extends ServiceRegistry<T>> {
 
     List<ServiceNode<T>> nodes(final Predicate<T> criteria, final R serviceRegistry);
 
+    /**
+     * Select a single node matching the criteria. Selectors that can expose the registry snapshot directly
+     * should override this to avoid materializing the list of matching nodes on every lookup.
+     *
+     * @param criteria        criteria to be matched against node data
+     * @param serviceRegistry registry to select from
+     * @param nodeSelector    selector used to pick one of the matching nodes
+     * @return selected node or null if no node matches
+     */
+    default ServiceNode<T> select(final Predicate<T> criteria,
+                                  final R serviceRegistry,
+                                  final ServiceNodeSelector<T> nodeSelector) {
+        val nodes = nodes(criteria, serviceRegistry);
+        return nodes.isEmpty() ? null : nodeSelector.select(nodes);
+    }
+
 }
@@ -20,6 +20,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import io.appform.ranger.core.healthcheck.HealthChecker;
+import io.appform.ranger.core.healthcheck.HealthScorer;
 import io.appform.ranger.core.healthcheck.Healthcheck;
 import io.appform.ranger.core.healthcheck.HealthcheckResult;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
@@ -57,6 +58,7 @@ public abstract class BaseServiceProviderBuilder<T, B extends BaseServiceProvide
     protected int staleUpdateThresholdMs;
     protected NodeDataSink<T, S> nodeDataSource = null;
     protected final List<Healthcheck> healthchecks = Lists.newArrayList();
+    protected final List<HealthScorer> healthScorers = Lists.newArrayList();
     protected final List<Consumer<Void>> startSignalHandlers = Lists.newArrayList();
     protected final List<Consumer<Void>> stopSignalHandlers = Lists.newArrayList();
     protected final List<Signal<HealthcheckResult>> additionalRefreshSignals = Lists.newArrayList();
@@ -104,6 +106,18 @@ public abstract class BaseServiceProviderBuilder<T, B extends BaseServiceProvide
         return (B)this;
     }
 
+    /**
+     * Publish a graded score along with the health of the node. See {@link HealthScorer}. Isolated monitors that
+     * implement {@link HealthScorer} are used automatically
+     *
+     * @param healthScorer grader for the capacity of the node
+     * @return builder for next call
+     */
+    public B withHealthScorer(HealthScorer healthScorer) {
+        this.healthScorers.add(healthScorer);
+        return (B)this;
+    }
+
     public B withHealthUpdateIntervalMs(int healthUpdateIntervalMs) {
         this.healthUpdateIntervalMs = healthUpdateIntervalMs;
         return (B)this;
@@ -187,13 +201,14 @@ public abstract class BaseServiceProviderBuilder<T, B extends BaseServiceProvide
         isolatedMonitors.forEach(serviceHealthAggregator::addIsolatedMonitor);
 
         healthchecks.add(serviceHealthAggregator);
+        healthScorers.add(serviceHealthAggregator);
         val service = Service.builder().namespace(namespace).serviceName(serviceName).build();
         val usableNodeDataSource = dataSink(service);
 
         val healthcheckUpdateSignalGenerator
                 = new ScheduledSignal<>(
                 service,
-                new HealthChecker(healthchecks, staleUpdateThresholdMs),
+                new HealthChecker(healthchecks, healthScorers, staleUpdateThresholdMs),
                 Collections.emptyList(),
                 healthUpdateIntervalMs
         );
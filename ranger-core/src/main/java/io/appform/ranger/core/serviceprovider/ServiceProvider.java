@@ -71,6 +71,7 @@ public class ServiceProvider<T, S extends Serializer<T>> {
         }
         serviceNode.setHealthcheckStatus(result.getStatus());
         serviceNode.setLastUpdatedTimeStamp(result.getUpdatedTime());
+        serviceNode.setHealthScore(result.getScore());
         dataSink.updateState(serializer, serviceNode);
         log.debug("Updated node with health check result: {}", result);
     }
@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.core.signals;
 
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.model.Service;
 import lombok.Builder;
 import lombok.Singular;
@@ -29,26 +30,41 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- *
+ * A signal that fires at a fixed interval. By default, every signal runs on its own timer thread.
+ * If a {@link RefreshExecutor} is provided, the signal is instead scheduled (with jitter) on the shared executor.
  */
 @Slf4j
 public class ScheduledSignal<T> extends Signal<T> {
     private final String name;
     private final long refreshIntervalMillis;
+    private final RefreshExecutor refreshExecutor;
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private ScheduledExecutorService scheduler = null;
 
     private ScheduledFuture<?> scheduledFuture = null;
 
-    @Builder
+    private RefreshExecutor.ScheduledRefresh scheduledRefresh = null;
+
     public ScheduledSignal(
             final Service service,
             final Supplier<T> signalDataGenerator,
             @Singular List<Consumer<T>> consumers,
             long refreshIntervalMillis) {
-        super(signalDataGenerator, consumers);
-        this.name = String.format("timer-%s-%s", service.getNamespace(), service.getServiceName());
-        this.refreshIntervalMillis = refreshIntervalMillis;
+        this(service, signalDataGenerator, consumers, refreshIntervalMillis, null);
+    }
+
+    @Builder
+    public ScheduledSignal(
+            final Service service,
+            final Supplier<T> signalDataGenerator,
+            @Singular List<Consumer<T>> consumers,
+            long refreshIntervalMillis,
+            RefreshExecutor refreshExecutor) {
+        this(String.format("timer-%s-%s", service.getNamespace(), service.getServiceName()),
+             signalDataGenerator,
+             consumers,
+             refreshIntervalMillis,
+             refreshExecutor);
     }
 
     public ScheduledSignal(
@@ -56,28 +72,52 @@ public class ScheduledSignal<T> extends Signal<T> {
             final Supplier<T> signalDataGenerator,
             @Singular List<Consumer<T>> consumers,
             long refreshIntervalMillis) {
+        this(name, signalDataGenerator, consumers, refreshIntervalMillis, null);
+    }
+
+    public ScheduledSignal(
+            final String name,
+            final Supplier<T> signalDataGenerator,
+            @Singular List<Consumer<T>> consumers,
+            long refreshIntervalMillis,
+            RefreshExecutor refreshExecutor) {
         super(signalDataGenerator, consumers);
         this.name = name;
         this.refreshIntervalMillis = refreshIntervalMillis;
+        this.refreshExecutor = refreshExecutor;
     }
 
     @Override
-    public final void start() {
-        scheduledFuture = scheduler.scheduleWithFixedDelay(() -> {
-            try {
-                onSignalReceived();
-            } catch (Exception e) {
-                log.error("Error delivering signal for:" + name , e);
-            }
-        }, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    public final synchronized void start() {
+        if (null != refreshExecutor) {
+            scheduledRefresh = refreshExecutor.schedule(name, this::fire, refreshIntervalMillis);
+            log.info("Started scheduled signal generator: {} on shared executor: {}", name, refreshExecutor.getName());
+            return;
+        }
+        scheduler = Executors.newScheduledThreadPool(1);
+        scheduledFuture = scheduler.scheduleWithFixedDelay(this::fire, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
         log.info("Started scheduled signal generator: {}", name);
     }
 
     @Override
-    public final void stop() {
+    public final synchronized void stop() {
+        if (null != scheduledRefresh) {
+            scheduledRefresh.cancel();
+        }
         if(null != scheduledFuture) {
             scheduledFuture.cancel(true);
         }
+        if (null != scheduler) {
+            scheduler.shutdownNow();
+        }
         log.info("Stopped scheduled signal generator: {}", name);
     }
+
+    private void fire() {
+        try {
+            onSignalReceived();
+        } catch (Exception e) {
+            log.error("Error delivering signal for:" + name , e);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.util;
+
+import com.google.common.base.Preconditions;
+import lombok.val;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Walker/Vose alias table for weighted random sampling. Building the table is linear in the number of weights,
+ * after which every sample is constant time: one random slot, and one coin flip between the slot and its alias.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class AliasTable {
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights non-negative weights. If all weights are zero, sampling is uniform
+     */
+    public AliasTable(double[] weights) {
+        Preconditions.checkArgument(weights.length > 0, "Weights can't be empty");
+        val size = weights.length;
+        double total = 0;
+        for (val weight : weights) {
+            Preconditions.checkArgument(weight >= 0 && Double.isFinite(weight),
+                                        "Weights must be finite and non-negative");
+            total += weight;
+        }
+        this.probabilities = new double[size];
+        this.aliases = new int[size];
+        val scaled = new double[size];
+        for (int i = 0; i < size; i++) {
+            scaled[i] = total > 0 ? weights[i] * size / total : 1.0;
+        }
+        val small = new int[size];
+        val large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            }
+            else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            val less = small[--smallCount];
+            val more = large[--largeCount];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            }
+            else {
+                large[largeCount++] = more;
+            }
+        }
+        //Whatever is left is (up to rounding errors) exactly full
+        while (largeCount > 0) {
+            val index = large[--largeCount];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+        while (smallCount > 0) {
+            val index = small[--smallCount];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * @return index of a weight, picked with a probability proportional to the weight
+     */
+    public int sample() {
+        val random = ThreadLocalRandom.current();
+        val slot = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[slot] ? slot : aliases[slot];
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.criteria;
+
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.IndexedShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.Value;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+class CriteriaTest {
+
+    @Value
+    private static class Zone implements AttributedNodeData {
+        String region;
+        Set<String> tags;
+
+        @Override
+        public boolean hasAttribute(String name, String value) {
+            return name.equals("region") ? region.equals(value) : name.equals("tag") && tags.contains(value);
+        }
+
+        @Override
+        public void forEachAttribute(BiConsumer<String, String> consumer) {
+            consumer.accept("region", region);
+            tags.forEach(tag -> consumer.accept("tag", tag));
+        }
+    }
+
+    @Test
+    void testIndexedLookupMatchesScan() {
+        val registry = registry();
+        val shardSelector = new IndexedShardSelector<Zone, ListBasedServiceRegistry<Zone>>();
+        val criteria = List.<Criteria<Zone>>of(
+                Criteria.attribute("region", "r1"),
+                Criteria.attribute("tag", "gpu"),
+                Criteria.<Zone>attribute("region", "r2").and(Criteria.attribute("tag", "canary")),
+                Criteria.anyOf(Criteria.attribute("tag", "canary"), Criteria.attribute("region", "r3")),
+                Criteria.<Zone>attribute("region", "r1").and(Criteria.matching(zone -> zone.getTags().isEmpty())),
+                Criteria.allOf(),
+                Criteria.anyOf(),
+                Criteria.attribute("zone", "z1"));
+        for (val criterion : criteria) {
+            val expected = registry.nodeList()
+                    .stream()
+                    .filter(node -> criterion.test(node.getNodeData()))
+                    .toList();
+            Assertions.assertEquals(expected, shardSelector.nodes(criterion, registry), criterion.toString());
+        }
+        val canary = Criteria.<Zone>attribute("region", "r2").and(Criteria.attribute("tag", "canary"));
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("host-5",
+                                    shardSelector.select(canary, registry, new RandomServiceNodeSelector<>())
+                                            .getHost());
+        }
+    }
+
+    @Test
+    void testIndexIsRebuiltOnlyForChangedSnapshots() {
+        val registry = registry();
+        val shardSelector = new IndexedShardSelector<Zone, ListBasedServiceRegistry<Zone>>();
+        val scans = new AtomicInteger();
+        Predicate<Zone> counting = zone -> scans.incrementAndGet() > 0;
+        val criteria = Criteria.<Zone>attribute("region", "r1");
+        Assertions.assertEquals(4, shardSelector.nodes(criteria, registry).size());
+
+        val nodes = new ArrayList<>(registry.nodeList());
+        nodes.add(node(100, "r1", Set.of()));
+        registry.updateNodes(nodes);
+        Assertions.assertEquals(5, shardSelector.nodes(criteria, registry).size());
+
+        //Plain predicates are still supported, and are evaluated by a scan
+        Assertions.assertEquals(nodes.size(), shardSelector.nodes(counting, registry).size());
+        Assertions.assertEquals(nodes.size(), scans.get());
+    }
+
+    private static ListBasedServiceRegistry<Zone> registry() {
+        val registry = new ListBasedServiceRegistry<Zone>(RangerTestUtils.getService("test", "zones"));
+        val nodes = new ArrayList<ServiceNode<Zone>>();
+        for (int i = 0; i < 12; i++) {
+            val tags = i % 5 == 0 ? Set.of("canary") : i % 2 == 0 ? Set.of("gpu") : Set.<String>of();
+            nodes.add(node(i, "r" + (i % 3), tags));
+        }
+        registry.updateNodes(nodes);
+        return registry;
+    }
+
+    private static ServiceNode<Zone> node(int i, String region, Set<String> tags) {
+        return ServiceNode.<Zone>builder()
+                .host("host-" + i)
+                .port(8000 + i)
+                .nodeData(new Zone(region, tags))
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.events;
+
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+
+class NodeChangePublisherTest {
+
+    @Test
+    void testListenerReceivesCurrentStateAndChanges() {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        registry.updateNodes(nodes(1, 2));
+        val events = new CopyOnWriteArrayList<NodeChangeEvent<TestNodeData>>();
+        val subscription = registry.nodeChanges().addListener(events::add);
+        await().atMost(Duration.ofSeconds(5)).until(() -> events.size() == 1);
+        Assertions.assertEquals(2, events.get(0).getAdded().size());
+
+        registry.updateNodes(nodes(2, 3));
+        await().atMost(Duration.ofSeconds(5)).until(() -> events.size() == 2);
+        Assertions.assertEquals(List.of("host-3"), hosts(events.get(1).getAdded()));
+        Assertions.assertEquals(List.of("host-1"), hosts(events.get(1).getRemoved()));
+
+        //Unchanged refresh does not produce an event
+        registry.updateNodes(nodes(2, 3));
+        subscription.cancel();
+        registry.updateNodes(nodes(4));
+        await().pollDelay(Duration.ofMillis(200)).until(() -> true);
+        Assertions.assertEquals(2, events.size());
+    }
+
+    @Test
+    void testSlowSubscriberReceivesConflatedChanges() {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        registry.updateNodes(nodes(0));
+        val subscriber = new ManualSubscriber();
+        registry.nodeChanges().subscribe(subscriber);
+        for (int i = 1; i <= 10; i++) {
+            registry.updateNodes(nodes(i));
+        }
+        await().pollDelay(Duration.ofMillis(100)).until(() -> true);
+        Assertions.assertTrue(subscriber.events.isEmpty());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        await().atMost(Duration.ofSeconds(5)).until(() -> subscriber.events.size() == 1);
+        await().pollDelay(Duration.ofMillis(100)).until(() -> true);
+        Assertions.assertEquals(1, subscriber.events.size());
+        //Initial state followed by ten replacements nets out to just the last node
+        Assertions.assertEquals(List.of("host-10"), hosts(subscriber.events.get(0).getAdded()));
+        Assertions.assertTrue(subscriber.events.get(0).getRemoved().isEmpty());
+    }
+
+    @Test
+    void testCloseCompletesSubscribers() {
+        val publisher = new NodeChangePublisher<TestNodeData>(List::of);
+        val subscriber = new ManualSubscriber();
+        publisher.subscribe(subscriber);
+        publisher.close();
+        await().atMost(Duration.ofSeconds(5)).until(subscriber.completed::get);
+        Assertions.assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    void testEventsAreDeliveredOnDedicatedDaemonThread() {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        registry.updateNodes(nodes(1));
+        val deliveryThread = new AtomicReference<Thread>();
+        registry.nodeChanges().addListener(event -> deliveryThread.set(Thread.currentThread()));
+        await().atMost(Duration.ofSeconds(5)).until(() -> null != deliveryThread.get());
+        Assertions.assertTrue(deliveryThread.get().isDaemon());
+        Assertions.assertTrue(deliveryThread.get().getName().startsWith("node-change-events-"));
+    }
+
+    private static List<ServiceNode<TestNodeData>> nodes(int... ids) {
+        return IntStream.of(ids)
+                .mapToObj(id -> ServiceNode.<TestNodeData>builder()
+                        .host("host-" + id)
+                        .port(8080)
+                        .nodeData(TestNodeData.builder().shardId(id).build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> hosts(List<ServiceNode<TestNodeData>> nodes) {
+        return nodes.stream().map(ServiceNode::getHost).toList();
+    }
+
+    private static class ManualSubscriber implements Flow.Subscriber<NodeChangeEvent<TestNodeData>> {
+        private final List<NodeChangeEvent<TestNodeData>> events = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(NodeChangeEvent<TestNodeData> item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            //Not expected
+        }
+
+        @Override
+        public void onComplete() {
+            completed.set(true);
+        }
+    }
+}
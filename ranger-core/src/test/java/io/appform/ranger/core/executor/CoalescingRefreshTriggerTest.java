@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.executor;
+
+import com.google.common.base.Stopwatch;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+
+class CoalescingRefreshTriggerTest {
+
+    @Test
+    void testTriggerDoesNotBlockOnSlowRefresh() throws Exception {
+        val release = new CountDownLatch(1);
+        val runs = new AtomicInteger();
+        val trigger = new CoalescingRefreshTrigger("test", () -> {
+            runs.incrementAndGet();
+            awaitQuietly(release);
+        }, 0, 0, null);
+        trigger.start();
+        try {
+            trigger.trigger();
+            await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 1);
+            val stopwatch = Stopwatch.createStarted();
+            for (int i = 0; i < 1000; i++) {
+                trigger.trigger();
+            }
+            Assertions.assertTrue(stopwatch.elapsed(TimeUnit.MILLISECONDS) < 1000);
+            release.countDown();
+            //All triggers received during the slow refresh collapse into a single follow-up refresh
+            await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 2);
+            await().pollDelay(Duration.ofMillis(200)).until(() -> true);
+            Assertions.assertEquals(2, runs.get());
+        }
+        finally {
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void testDebounceCollapsesBurst() {
+        testDebounce(null);
+    }
+
+    @Test
+    void testDebounceCollapsesBurstOnSharedExecutor() {
+        val executor = RefreshExecutor.builder().build();
+        try {
+            testDebounce(executor);
+        }
+        finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    void testMaxDelayBoundsDebounce() {
+        val runs = new AtomicInteger();
+        val trigger = new CoalescingRefreshTrigger("test", runs::incrementAndGet, 100, 300, null);
+        trigger.start();
+        try {
+            val stopwatch = Stopwatch.createStarted();
+            //Keep triggering faster than the debounce window
+            while (runs.get() == 0 && stopwatch.elapsed(TimeUnit.MILLISECONDS) < 5_000) {
+                trigger.trigger();
+                sleepQuietly(10);
+            }
+            Assertions.assertEquals(1, runs.get());
+            Assertions.assertTrue(stopwatch.elapsed(TimeUnit.MILLISECONDS) < 2_000);
+        }
+        finally {
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void testTriggerNowBypassesDebounce() {
+        val runs = new AtomicInteger();
+        val trigger = new CoalescingRefreshTrigger("test", runs::incrementAndGet, 60_000, 60_000, null);
+        trigger.start();
+        try {
+            trigger.triggerNow();
+            await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 1);
+        }
+        finally {
+            trigger.stop();
+        }
+    }
+
+    private static void testDebounce(RefreshExecutor executor) {
+        val runs = new AtomicInteger();
+        val trigger = new CoalescingRefreshTrigger("test", runs::incrementAndGet, 200, 5_000, executor);
+        trigger.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                trigger.trigger();
+            }
+            await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 1);
+            await().pollDelay(Duration.ofMillis(400)).until(() -> true);
+            Assertions.assertEquals(1, runs.get());
+        }
+        finally {
+            trigger.stop();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.executor;
+
+import io.appform.ranger.core.signals.ScheduledSignal;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+
+class RefreshExecutorTest {
+
+    @Test
+    void testScheduledTasksShareExecutor() {
+        val executor = RefreshExecutor.builder()
+                .parallelism(2)
+                .build();
+        try {
+            val counters = new AtomicInteger[50];
+            for (int i = 0; i < counters.length; i++) {
+                val counter = new AtomicInteger();
+                counters[i] = counter;
+                executor.schedule("task-" + i, counter::incrementAndGet, 50);
+            }
+            await().atMost(Duration.ofSeconds(5))
+                    .until(() -> Arrays.stream(counters).allMatch(counter -> counter.get() >= 3));
+            val refreshThreads = Thread.getAllStackTraces()
+                    .keySet()
+                    .stream()
+                    .filter(thread -> thread.getName().startsWith("ranger-refresh"))
+                    .count();
+            Assertions.assertTrue(refreshThreads <= 3, "Expected at most 3 threads, found " + refreshThreads);
+        }
+        finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    void testCancel() {
+        val executor = RefreshExecutor.builder().build();
+        try {
+            val counter = new AtomicInteger();
+            val scheduledRefresh = executor.schedule("task", counter::incrementAndGet, 20);
+            await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() >= 2);
+            scheduledRefresh.cancel();
+            Assertions.assertTrue(scheduledRefresh.isCancelled());
+            val countAfterCancel = counter.get();
+            await().pollDelay(Duration.ofMillis(200)).until(() -> true);
+            Assertions.assertTrue(counter.get() <= countAfterCancel + 1);
+        }
+        finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    void testTaskFailureDoesNotStopSchedule() {
+        val executor = RefreshExecutor.builder().build();
+        try {
+            val counter = new AtomicInteger();
+            executor.schedule("failing-task", () -> {
+                counter.incrementAndGet();
+                throw new IllegalStateException("Test failure");
+            }, 20);
+            await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() >= 3);
+        }
+        finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    void testVirtualModeFallsBackWhenUnsupported() {
+        val executor = RefreshExecutor.builder()
+                .executionMode(RefreshExecutionMode.VIRTUAL)
+                .parallelism(1)
+                .build();
+        try {
+            val counter = new AtomicInteger();
+            executor.execute(counter::incrementAndGet);
+            executor.execute(counter::incrementAndGet);
+            await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() == 2);
+            if (Runtime.version().feature() < 21) {
+                Assertions.assertEquals(RefreshExecutionMode.PLATFORM, executor.getExecutionMode());
+            }
+        }
+        finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    void testScheduledSignalOnSharedExecutor() {
+        val executor = RefreshExecutor.builder().build();
+        val counter = new AtomicInteger();
+        val signal = new ScheduledSignal<Void>("test-signal",
+                                               () -> null,
+                                               Collections.singletonList(x -> counter.incrementAndGet()),
+                                               20,
+                                               executor);
+        try {
+            signal.start();
+            await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() >= 3);
+            signal.stop();
+            Assertions.assertFalse(executor.isStopped());
+        }
+        finally {
+            executor.stop();
+        }
+        Assertions.assertTrue(executor.isStopped());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.feedback;
+
+import io.appform.ranger.core.finder.SimpleUnshardedServiceFinder;
+import io.appform.ranger.core.finder.nodeselector.RoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.shardselector.ListShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RegistryTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class OutlierDetectorTest {
+
+    @Test
+    void testFailingNodeIsSkippedTillEjectionEnds() throws Exception {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val finder = new SimpleUnshardedServiceFinder<>(registry,
+                                                        new ListShardSelector<>(),
+                                                        new RoundRobinServiceNodeSelector<TestNodeData>());
+        val detector = finder.enableOutlierDetection(OutlierDetectionConfig.builder()
+                                                             .consecutiveFailures(3)
+                                                             .baseEjectionTimeMs(1_000)
+                                                             .maxEjectionPercent(50)
+                                                             .build());
+        val bad = registry.nodeList().get(0);
+        for (int i = 0; i < 2; i++) {
+            call(finder, bad, false);
+        }
+        call(finder, bad, true);
+        call(finder, bad, false);
+        Assertions.assertFalse(detector.hasEjections());
+
+        for (int i = 0; i < 2; i++) {
+            call(finder, bad, false);
+        }
+        Assertions.assertTrue(detector.isEjected(bad));
+        for (int i = 0; i < 30; i++) {
+            Assertions.assertNotSame(bad, finder.get(null).orElseThrow());
+            Assertions.assertNotSame(bad, finder.getForKey(null, "key-" + i).orElseThrow());
+        }
+        Assertions.assertEquals(3, finder.getAll(null).size());
+
+        Thread.sleep(1_100);
+        Assertions.assertFalse(detector.isEjected(bad));
+        var picked = false;
+        for (int i = 0; i < 3; i++) {
+            picked |= bad == finder.get(null).orElseThrow();
+        }
+        Assertions.assertTrue(picked);
+    }
+
+    @Test
+    void testEjectionsAreCappedAndBackOff() throws Exception {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val nodes = registry.nodeList();
+        val detector = new OutlierDetector<TestNodeData>(OutlierDetectionConfig.builder()
+                                                                 .consecutiveFailures(0)
+                                                                 .failureRatePercent(50)
+                                                                 .failureRateMinimumCalls(4)
+                                                                 .baseEjectionTimeMs(100)
+                                                                 .maxEjectionTimeMs(60_000)
+                                                                 .maxEjectionPercent(10)
+                                                                 .build(),
+                                                         () -> nodes.size());
+        for (int i = 0; i < 4; i++) {
+            call(detector, nodes.get(0), i % 2 == 0);
+            call(detector, nodes.get(1), false);
+        }
+        //Only one of three nodes can be ejected at 10%
+        Assertions.assertTrue(detector.isEjected(nodes.get(0)));
+        Assertions.assertFalse(detector.isEjected(nodes.get(1)));
+        Assertions.assertEquals(2, detector.available(nodes).size());
+
+        //The next ejection lasts twice as long
+        Thread.sleep(150);
+        Assertions.assertFalse(detector.isEjected(nodes.get(0)));
+        for (int i = 0; i < 4; i++) {
+            call(detector, nodes.get(0), false);
+        }
+        Thread.sleep(150);
+        Assertions.assertTrue(detector.isEjected(nodes.get(0)));
+        Assertions.assertFalse(detector.available(nodes).contains(nodes.get(0)));
+    }
+
+    @Test
+    void testEjectionFollowsNodeIdentity() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val nodes = registry.nodeList();
+        val detector = new OutlierDetector<TestNodeData>(OutlierDetectionConfig.builder()
+                                                                 .consecutiveFailures(2)
+                                                                 .baseEjectionTimeMs(60_000)
+                                                                 .maxEjectionPercent(50)
+                                                                 .build(),
+                                                         () -> nodes.size());
+        val bad = nodes.get(0);
+        call(detector, bad, false);
+        call(detector, bad, false);
+        Assertions.assertTrue(detector.isEjected(bad));
+
+        //A health or score update publishes a new instance of the same node
+        val updated = ServiceNode.<TestNodeData>builder()
+                .host(bad.getHost())
+                .port(bad.getPort())
+                .nodeData(bad.getNodeData())
+                .healthScore(0.5)
+                .build();
+        Assertions.assertTrue(detector.isEjected(updated));
+
+        detector.onNodesRemoved(List.of(updated));
+        Assertions.assertFalse(detector.isEjected(bad));
+    }
+
+    @Test
+    void testCompletionAfterRemovalIsIgnored() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val nodes = registry.nodeList();
+        val detector = new OutlierDetector<TestNodeData>(OutlierDetectionConfig.builder()
+                                                                 .consecutiveFailures(2)
+                                                                 .baseEjectionTimeMs(60_000)
+                                                                 .maxEjectionPercent(50)
+                                                                 .build(),
+                                                         () -> nodes.size());
+        val bad = nodes.get(0);
+        detector.onStart(bad);
+        detector.onNodesRemoved(List.of(bad));
+        detector.onComplete(bad, 1_000, false);
+
+        //The failure of the call made before removal does not count once the node is back
+        call(detector, bad, false);
+        Assertions.assertFalse(detector.isEjected(bad));
+        call(detector, bad, false);
+        Assertions.assertTrue(detector.isEjected(bad));
+    }
+
+    private static void call(NodeFeedbackListener<TestNodeData> listener, ServiceNode<TestNodeData> node, boolean success) {
+        listener.onStart(node);
+        listener.onComplete(node, 1_000, success);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Predicate;
+
+class ConsistentHashServiceNodeSelectorTest {
+    private static final int KEYS = 10_000;
+
+    @Test
+    void testKeysStickToNodes() {
+        val nodes = RangerTestUtils.nodes(10);
+        val selector = new ConsistentHashServiceNodeSelector<TestNodeData>();
+        val reversed = new ArrayList<>(nodes);
+        Collections.reverse(reversed);
+        val otherSelector = new ConsistentHashServiceNodeSelector<TestNodeData>();
+        val load = new HashMap<String, Integer>();
+        for (int i = 0; i < KEYS; i++) {
+            val key = "key-" + i;
+            val node = selector.select(nodes, key);
+            Assertions.assertSame(node, selector.select(nodes, key));
+            //Independent of the order in which nodes are seen
+            Assertions.assertSame(node, otherSelector.select(reversed, key));
+            load.merge(node.getHost(), 1, Integer::sum);
+        }
+        Assertions.assertEquals(10, load.size());
+        load.values().forEach(count -> Assertions.assertTrue(count > KEYS / 20, "Skewed load: " + load));
+        Assertions.assertNull(selector.select(List.of(), "key"));
+    }
+
+    @Test
+    void testOnlyKeysOfChangedNodeMove() {
+        val nodes = RangerTestUtils.nodes(10);
+        val selector = new ConsistentHashServiceNodeSelector<TestNodeData>();
+        val removed = nodes.get(3);
+        val remaining = new ArrayList<>(nodes);
+        remaining.remove(removed);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            val key = "key-" + i;
+            val before = selector.select(nodes, key);
+            val after = selector.select(remaining, key);
+            if (before != removed) {
+                Assertions.assertSame(before, after);
+            }
+            else {
+                moved++;
+            }
+        }
+        //Roughly 1/N of the keys belonged to the removed node
+        Assertions.assertTrue(moved > KEYS / 20 && moved < KEYS / 5, "Moved keys: " + moved);
+
+        val added = RangerTestUtils.node(10);
+        val grown = new ArrayList<>(nodes);
+        grown.add(added);
+        for (int i = 0; i < KEYS; i++) {
+            val key = "key-" + i;
+            val after = selector.select(grown, key);
+            Assertions.assertTrue(after == added || after == selector.select(nodes, key));
+        }
+    }
+
+    @Test
+    void testKeyedLookupsDoNotGoOverAllNodes() {
+        val registry = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        registry.updateNodes(RangerTestUtils.nodes(2_000));
+        val finder = new SimpleShardedServiceFinder<>(registry,
+                                                      new MatchingShardSelector<>(),
+                                                      new RandomServiceNodeSelector<TestNodeData>());
+        Predicate<TestNodeData> criteria = data -> data.getShardId() % 2 == 0;
+        val keys = new String[1_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key-" + i;
+        }
+        for (val lookupCriteria : Arrays.asList(null, criteria)) {
+            val node = finder.getForKey(lookupCriteria, keys[0]).orElseThrow();
+            //Going over 1000 or 2000 nodes per lookup would allocate several KB for the list alone
+            val allocated = allocatedBytesPerLookup(() -> finder.getForKey(lookupCriteria, keys[0]));
+            Assertions.assertTrue(allocated < 1_024, "Bytes allocated per lookup: " + allocated);
+            Assertions.assertSame(node, finder.getForKey(lookupCriteria, keys[0]).orElseThrow());
+        }
+    }
+
+    private static long allocatedBytesPerLookup(Runnable lookup) {
+        val threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        val iterations = 10_000;
+        for (int i = 0; i < iterations; i++) {
+            lookup.run();
+        }
+        val before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            lookup.run();
+        }
+        return (threadBean.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+}
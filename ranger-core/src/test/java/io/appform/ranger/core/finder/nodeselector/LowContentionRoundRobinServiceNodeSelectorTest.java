@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.Value;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.function.ThrowingConsumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Round-robin selectors that avoid a single shared cursor, each run with the fairness bound it promises
+ */
+class LowContentionRoundRobinServiceNodeSelectorTest {
+
+    private static final List<Variant> VARIANTS = List.of(
+            new Variant("striped", () -> new StripedRoundRobinServiceNodeSelector<>(4), 4),
+            new Variant("batched", () -> new BatchedRoundRobinServiceNodeSelector<>(10), 10));
+
+    @TestFactory
+    Stream<DynamicTest> testSingleThreadIsStrictRoundRobin() {
+        return forEachVariant(variant -> {
+            val selector = variant.getSelectorFactory().get();
+            val nodes = RangerTestUtils.nodes(5);
+            val first = selector.select(nodes);
+            val seen = new ArrayList<ServiceNode<TestNodeData>>(List.of(first));
+            for (int i = 1; i < 5; i++) {
+                seen.add(selector.select(nodes));
+            }
+            Assertions.assertEquals(5, seen.stream().distinct().count());
+            Assertions.assertSame(first, selector.select(nodes));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> testServicesKeepTheirOwnRotation() {
+        return forEachVariant(variant -> {
+            val selector = variant.getSelectorFactory().get();
+            val services = new ArrayList<List<ServiceNode<TestNodeData>>>();
+            val seen = new ArrayList<List<ServiceNode<TestNodeData>>>();
+            for (int i = 0; i < 16; i++) {
+                services.add(RangerTestUtils.nodes(3));
+                seen.add(new ArrayList<>());
+            }
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < services.size(); i++) {
+                    //Lists built afresh with the nodes of the same snapshot share the rotation
+                    seen.get(i).add(selector.select(List.copyOf(services.get(i))));
+                }
+            }
+            for (val picks : seen) {
+                Assertions.assertEquals(3, picks.stream().distinct().count());
+            }
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> testCriteriaLookupsRotateOverMatchingNodes() {
+        return forEachVariant(variant -> {
+            val selector = variant.getSelectorFactory().get();
+            val services = new ArrayList<List<ServiceNode<TestNodeData>>>();
+            val seen = new ArrayList<List<ServiceNode<TestNodeData>>>();
+            for (int i = 0; i < 16; i++) {
+                services.add(List.copyOf(RangerTestUtils.nodes(6)));
+                seen.add(new ArrayList<>());
+            }
+            Predicate<TestNodeData> evenShards = nodeData -> nodeData.getShardId() % 2 == 0;
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < services.size(); i++) {
+                    seen.get(i).add(selector.select(services.get(i), evenShards));
+                }
+            }
+            for (int i = 0; i < services.size(); i++) {
+                val picks = seen.get(i);
+                Assertions.assertEquals(3, picks.stream().distinct().count());
+                Assertions.assertTrue(picks.stream().allMatch(node -> evenShards.test(node.getNodeData())));
+                Assertions.assertSame(picks.get(0), selector.select(services.get(i), evenShards));
+            }
+            Assertions.assertNull(selector.select(services.get(0), nodeData -> nodeData.getShardId() > 10));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> testDistributionIsWithinFairnessBound() {
+        return forEachVariant(variant -> {
+            val selector = variant.getSelectorFactory().get();
+            val nodes = RangerTestUtils.nodes(7);
+            val counts = new ConcurrentHashMap<String, AtomicInteger>();
+            val executorService = Executors.newFixedThreadPool(8);
+            for (int thread = 0; thread < 8; thread++) {
+                executorService.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        counts.computeIfAbsent(selector.select(nodes).getHost(), host -> new AtomicInteger())
+                                .incrementAndGet();
+                    }
+                });
+            }
+            executorService.shutdown();
+            Assertions.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+            val min = counts.values().stream().mapToInt(AtomicInteger::get).min().orElse(0);
+            val max = counts.values().stream().mapToInt(AtomicInteger::get).max().orElse(0);
+            val bound = variant.getFairnessBound();
+            Assertions.assertEquals(7, counts.size());
+            //No node is more than the fairness bound above its fair share
+            Assertions.assertTrue(max - 8_000 / 7 <= bound, "Max: " + max);
+            Assertions.assertTrue(8_000 / 7 - min <= bound + 1, "Min: " + min);
+        });
+    }
+
+    private static Stream<DynamicTest> forEachVariant(ThrowingConsumer<Variant> test) {
+        return VARIANTS.stream()
+                .map(variant -> DynamicTest.dynamicTest(variant.getName(), () -> test.accept(variant)));
+    }
+
+    @Value
+    private static class Variant {
+        String name;
+        Supplier<ServiceNodeSelector<TestNodeData>> selectorFactory;
+        int fairnessBound;
+    }
+}
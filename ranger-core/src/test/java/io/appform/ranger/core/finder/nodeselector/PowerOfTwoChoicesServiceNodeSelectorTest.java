@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.appform.ranger.core.finder.SimpleUnshardedServiceFinder;
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.finder.shardselector.ListShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+
+class PowerOfTwoChoicesServiceNodeSelectorTest {
+
+    @Test
+    void testLeastInFlightAvoidsBusyNode() {
+        val nodes = RangerTestUtils.nodes(2);
+        val selector = new LeastInFlightServiceNodeSelector<TestNodeData>();
+        for (int i = 0; i < 5; i++) {
+            selector.onStart(nodes.get(0));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(nodes.get(1), selector.select(nodes));
+        }
+        for (int i = 0; i < 5; i++) {
+            selector.onComplete(nodes.get(0), 1_000, true);
+        }
+        Assertions.assertEquals(0, selector.stats(nodes.get(0)).getInFlight());
+    }
+
+    @Test
+    void testPeakEwmaAvoidsSlowNode() {
+        val nodes = RangerTestUtils.nodes(2);
+        val selector = new PeakEwmaServiceNodeSelector<TestNodeData>();
+        selector.onStart(nodes.get(0));
+        selector.onComplete(nodes.get(0), TimeUnit.MILLISECONDS.toNanos(500), true);
+        selector.onStart(nodes.get(1));
+        selector.onComplete(nodes.get(1), TimeUnit.MILLISECONDS.toNanos(5), true);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(nodes.get(1), selector.select(nodes));
+        }
+        //Peaks are picked up immediately
+        selector.onStart(nodes.get(1));
+        selector.onComplete(nodes.get(1), TimeUnit.SECONDS.toNanos(2), true);
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(2), selector.stats(nodes.get(1)).getLatencyEwma(), 1.0);
+        Assertions.assertSame(nodes.get(0), selector.select(nodes));
+    }
+
+    @Test
+    void testCompletionAfterRemovalDoesNotBringStatsBack() {
+        val nodes = RangerTestUtils.nodes(2);
+        val selector = new PeakEwmaServiceNodeSelector<TestNodeData>();
+        selector.onStart(nodes.get(0));
+        selector.onNodesRemoved(List.of(nodes.get(0)));
+        selector.onComplete(nodes.get(0), TimeUnit.MILLISECONDS.toNanos(500), true);
+        Assertions.assertEquals(0, selector.stats(nodes.get(0)).getLatencyEwma());
+
+        //Selection does not create stats either
+        selector.select(nodes);
+        selector.onComplete(nodes.get(1), TimeUnit.MILLISECONDS.toNanos(500), true);
+        Assertions.assertEquals(0, selector.stats(nodes.get(1)).getLatencyEwma());
+    }
+
+    @Test
+    void testFeedbackThroughFinderSurvivesRefresh() {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.getService("test", "feedback"));
+        registry.updateNodes(RangerTestUtils.nodes(2));
+        val selector = new LeastInFlightServiceNodeSelector<TestNodeData>();
+        val finder = new SimpleUnshardedServiceFinder<>(registry, new ListShardSelector<>(), selector);
+        val lease = finder.lease(null).orElseThrow();
+        val busy = lease.getNode();
+        Assertions.assertEquals(1, selector.stats(busy).getInFlight());
+
+        //Refresh with equivalent nodes and an additional one
+        val refreshed = new ArrayList<ServiceNode<TestNodeData>>();
+        RangerTestUtils.nodes(3).forEach(node -> refreshed.add(ServiceNode.<TestNodeData>builder()
+                                                                       .host(node.getHost())
+                                                                       .port(node.getPort())
+                                                                       .nodeData(node.getNodeData())
+                                                                       .build()));
+        registry.updateNodes(refreshed);
+        val current = registry.nodeList()
+                .stream()
+                .filter(node -> node.getHost().equals(busy.getHost()))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(1, selector.stats(current).getInFlight());
+        lease.success();
+        lease.close();
+        Assertions.assertEquals(0, selector.stats(current).getInFlight());
+        Assertions.assertTrue(selector.stats(current).getLatencyEwma() > 0);
+    }
+
+    @Test
+    void testStatsFollowNodeIdentity() {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.getService("test", "identity"));
+        registry.updateNodes(RangerTestUtils.nodes(2));
+        val selector = new LeastInFlightServiceNodeSelector<TestNodeData>();
+        val finder = new SimpleUnshardedServiceFinder<>(registry, new ListShardSelector<>(), selector);
+        val node = registry.nodeList().get(0);
+        finder.onStart(node);
+
+        //A score change publishes a new instance for the node
+        val degraded = RangerTestUtils.nodes(2);
+        degraded.get(0).setHealthScore(0.5);
+        registry.updateNodes(degraded);
+        val current = registry.nodeList()
+                .stream()
+                .filter(candidate -> candidate.getHost().equals(node.getHost()))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertNotSame(node, current);
+        Assertions.assertEquals(1, selector.stats(current).getInFlight());
+
+        //Stats are dropped once the node leaves the registry
+        registry.updateNodes(RangerTestUtils.nodes(2).subList(1, 2));
+        await().atMost(Duration.ofSeconds(5)).until(() -> selector.stats(current).getInFlight() == 0);
+        finder.stop();
+    }
+
+    @Test
+    void testStatsAreDroppedWhenRemovalIsConflated() throws Exception {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.getService("test", "conflated"));
+        registry.updateNodes(RangerTestUtils.nodes(2));
+        //Holds up delivery, so that the finder gets the initial state and the removal as a single event
+        val release = new CountDownLatch(1);
+        registry.nodeChanges().addListener(event -> Uninterruptibles.awaitUninterruptibly(release));
+        val selector = new LeastInFlightServiceNodeSelector<TestNodeData>();
+        val finder = new SimpleUnshardedServiceFinder<>(registry, new ListShardSelector<>(), selector);
+        val node = registry.nodeList().get(0);
+        finder.onStart(node);
+        registry.updateNodes(RangerTestUtils.nodes(2).subList(1, 2));
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> selector.stats(node).getInFlight() == 0);
+        finder.stop();
+    }
+}
@@ -22,6 +22,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 
 class RoundRobinServiceNodeSelectorTest {
     @Test
@@ -35,4 +37,18 @@ class RoundRobinServiceNodeSelectorTest {
         Assertions.assertEquals("localhost-3", roundRobinSelector.select(serviceNodes).getHost());
         Assertions.assertEquals("localhost-1", roundRobinSelector.select(serviceNodes).getHost());
     }
+
+    @Test
+    void testRoundRobinOverMatchingNodes() {
+        val roundRobinSelector = new RoundRobinServiceNodeSelector<TestNodeData>();
+        val serviceNodes = List.of(
+                ServiceNode.<TestNodeData>builder().host("localhost-1").port(9000).nodeData(TestNodeData.builder().shardId(1).build()).build(),
+                ServiceNode.<TestNodeData>builder().host("localhost-2").port(9001).nodeData(TestNodeData.builder().shardId(2).build()).build(),
+                ServiceNode.<TestNodeData>builder().host("localhost-3").port(9002).nodeData(TestNodeData.builder().shardId(1).build()).build());
+        Predicate<TestNodeData> criteria = nodeData -> nodeData.getShardId() == 1;
+        Assertions.assertEquals("localhost-3", roundRobinSelector.select(serviceNodes, criteria).getHost());
+        Assertions.assertEquals("localhost-1", roundRobinSelector.select(serviceNodes, criteria).getHost());
+        Assertions.assertEquals("localhost-3", roundRobinSelector.select(serviceNodes, criteria).getHost());
+        Assertions.assertNull(roundRobinSelector.select(serviceNodes, nodeData -> nodeData.getShardId() == 3));
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.nodeselector;
+
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.PortSchemes;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RegistryTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class WeightedServiceNodeSelectorTest {
+
+    @Test
+    void testTrafficFollowsHealthScore() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val selector = new WeightedServiceNodeSelector<TestNodeData>();
+        val counts = selectionCounts(selector, registry.nodeList());
+        Assertions.assertEquals(3, counts.size());
+
+        //A change in score alone publishes a new snapshot
+        val version = registry.getSnapshotVersion();
+        val nodes = registry.nodeList()
+                .stream()
+                .map(node -> ServiceNode.<TestNodeData>builder()
+                        .host(node.getHost())
+                        .port(node.getPort())
+                        .nodeData(node.getNodeData())
+                        .healthScore(node.getHost().equals("localhost-1")
+                                     ? 1.0
+                                     : (node.getHost().equals("localhost-2") ? 0.5 : 0.0))
+                        .build())
+                .collect(Collectors.toList());
+        registry.updateNodes(nodes);
+        Assertions.assertTrue(registry.getSnapshotVersion() > version);
+
+        val weighted = selectionCounts(selector, registry.nodeList());
+        Assertions.assertNull(weighted.get("localhost-3"));
+        val ratio = (double) weighted.get("localhost-1") / weighted.get("localhost-2");
+        Assertions.assertTrue(ratio > 1.8 && ratio < 2.2, "Ratio: " + ratio);
+    }
+
+    @Test
+    void testServiceNodesDefaultToFullScore() {
+        val node = new ServiceNode<>("localhost", 8080, TestNodeData.builder().shardId(1).build(),
+                                     HealthcheckStatus.healthy, System.currentTimeMillis(), PortSchemes.HTTP);
+        Assertions.assertEquals(1.0, node.getHealthScore());
+        Assertions.assertEquals(1.0, new ServiceNode<TestNodeData>().getHealthScore());
+    }
+
+    private static HashMap<String, Integer> selectionCounts(
+            WeightedServiceNodeSelector<TestNodeData> selector,
+            List<ServiceNode<TestNodeData>> nodes) {
+        val counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(selector.select(nodes).getHost(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -16,6 +16,7 @@
 package io.appform.ranger.core.finder.serviceregistry;
 
 import io.appform.ranger.core.finder.shardselector.MatchingShardSelector;
+import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.units.TestNodeData;
 import io.appform.ranger.core.utils.RangerTestUtils;
 import io.appform.ranger.core.utils.RegistryTestUtils;
@@ -23,6 +24,10 @@ import lombok.val;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 class MapBasedServiceRegistryTest {
 
     @Test
@@ -36,4 +41,61 @@ class MapBasedServiceRegistryTest {
         Assertions.assertEquals("localhost-1", nodes.get(0).getHost());
     }
 
+    @Test
+    void testUnchangedUpdateRetainsPublishedNodes() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val published = serviceRegistry.nodes();
+        val refreshedNodes = serviceRegistry.nodeList()
+                .stream()
+                .map(node -> ServiceNode.<TestNodeData>builder()
+                        .host(node.getHost())
+                        .port(node.getPort())
+                        .nodeData(node.getNodeData())
+                        .lastUpdatedTimeStamp(42L)
+                        .build())
+                .toList();
+        val delta = serviceRegistry.updateNodes(refreshedNodes);
+        Assertions.assertFalse(delta.isChanged());
+        Assertions.assertSame(published, serviceRegistry.nodes());
+        serviceRegistry.nodeList().forEach(node -> Assertions.assertEquals(42L, node.getLastUpdatedTimeStamp()));
+    }
+
+    @Test
+    void testChangedUpdateExposesDelta() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val unchangedShard = serviceRegistry.nodes().get(TestNodeData.builder().shardId(1).build());
+        val nodes = new ArrayList<>(serviceRegistry.nodeList());
+        nodes.removeIf(node -> node.getHost().equals("localhost-3"));
+        val added = ServiceNode.<TestNodeData>builder()
+                .host("localhost-4")
+                .port(9003)
+                .nodeData(TestNodeData.builder().shardId(2).build())
+                .build();
+        nodes.add(added);
+        val delta = serviceRegistry.updateNodes(nodes);
+        Assertions.assertTrue(delta.isChanged());
+        Assertions.assertEquals(List.of(added), delta.getAdded());
+        Assertions.assertEquals(1, delta.getRemoved().size());
+        Assertions.assertEquals("localhost-3", delta.getRemoved().get(0).getHost());
+        Assertions.assertEquals(3, serviceRegistry.nodeList().size());
+        Assertions.assertEquals(2, serviceRegistry.nodes().get(TestNodeData.builder().shardId(2).build()).size());
+        Assertions.assertTrue(serviceRegistry.nodes().get(TestNodeData.builder().shardId(3).build()).isEmpty());
+        Assertions.assertSame(unchangedShard.get(0),
+                              serviceRegistry.nodes().get(TestNodeData.builder().shardId(1).build()).get(0));
+    }
+
+    @Test
+    void testAwaitRefreshCompletesOnFirstUpdate() {
+        val serviceRegistry = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        val refreshed = serviceRegistry.awaitRefresh();
+        Assertions.assertFalse(refreshed.isDone());
+        serviceRegistry.updateNodes(Collections.<ServiceNode<TestNodeData>>emptyList());
+        Assertions.assertTrue(refreshed.isDone());
+        Assertions.assertTrue(serviceRegistry.awaitRefresh().isDone());
+        //Futures handed out are copies, completing one does not mark the registry as refreshed
+        val other = new MapBasedServiceRegistry<TestNodeData>(RangerTestUtils.service);
+        other.awaitRefresh().complete(null);
+        Assertions.assertFalse(other.awaitRefresh().isDone());
+    }
+
 }
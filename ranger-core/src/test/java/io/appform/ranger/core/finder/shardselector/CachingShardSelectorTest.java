@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RegistryTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+class CachingShardSelectorTest {
+
+    @Test
+    void testResultsAreCachedTillSnapshotChanges() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val shardSelector = new CachingShardSelector<TestNodeData, MapBasedServiceRegistry<TestNodeData>>(
+                new MatchingShardSelector<>());
+        val nodeSelector = new RandomServiceNodeSelector<TestNodeData>();
+        val evaluations = new AtomicInteger();
+        Predicate<TestNodeData> criteria = nodeData -> {
+            evaluations.incrementAndGet();
+            return nodeData.getShardId() == 2;
+        };
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("localhost-2",
+                                    shardSelector.select(criteria, serviceRegistry, nodeSelector).getHost());
+        }
+        Assertions.assertEquals(3, evaluations.get());
+
+        //Heartbeat only updates keep the snapshot
+        serviceRegistry.updateNodes(new ArrayList<>(serviceRegistry.nodeList()));
+        Assertions.assertEquals(1, shardSelector.nodes(criteria, serviceRegistry).size());
+        Assertions.assertEquals(3, evaluations.get());
+
+        val nodes = new ArrayList<>(serviceRegistry.nodeList());
+        nodes.add(ServiceNode.<TestNodeData>builder()
+                          .host("localhost-4")
+                          .port(9003)
+                          .nodeData(TestNodeData.builder().shardId(2).build())
+                          .build());
+        serviceRegistry.updateNodes(nodes);
+        Assertions.assertEquals(2, shardSelector.nodes(criteria, serviceRegistry).size());
+        Assertions.assertEquals(7, evaluations.get());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val shardSelector = new CachingShardSelector<TestNodeData, MapBasedServiceRegistry<TestNodeData>>(
+                new MatchingShardSelector<>(), 1);
+        val evaluations = new AtomicInteger();
+        Predicate<TestNodeData> first = nodeData -> evaluations.incrementAndGet() > 0;
+        Predicate<TestNodeData> second = nodeData -> evaluations.incrementAndGet() < 0;
+        Assertions.assertEquals(3, shardSelector.nodes(first, serviceRegistry).size());
+        Assertions.assertTrue(shardSelector.nodes(second, serviceRegistry).isEmpty());
+        Assertions.assertEquals(3, shardSelector.nodes(first, serviceRegistry).size());
+        Assertions.assertEquals(9, evaluations.get());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class LocalityAwareShardSelectorTest {
+    private static final int LOOKUPS = 10_000;
+
+    @Test
+    void testLocalNodesArePreferred() {
+        val registry = registry(10, 10);
+        val shardSelector = selector();
+        val nodeSelector = new RandomServiceNodeSelector<TestNodeData>();
+        for (int i = 0; i < LOOKUPS; i++) {
+            Assertions.assertEquals("r0", region(shardSelector.select(null, registry, nodeSelector)));
+        }
+        Assertions.assertEquals(10, shardSelector.nodes(null, registry).size());
+        //Criteria are applied before partitioning
+        Assertions.assertNull(shardSelector.select(nodeData -> nodeData.getShardId() < 0, registry, nodeSelector));
+    }
+
+    @Test
+    void testSpilloverIsProportional() {
+        //Expected local count is 0.5 * 12 / 2 = 3, so two local nodes should get about two thirds of the traffic
+        val registry = registry(2, 10);
+        val shardSelector = selector();
+        val nodeSelector = new RandomServiceNodeSelector<TestNodeData>();
+        int local = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if ("r0".equals(region(shardSelector.select(null, registry, nodeSelector)))) {
+                local++;
+            }
+        }
+        Assertions.assertTrue(local > LOOKUPS * 0.6 && local < LOOKUPS * 0.73, "Local lookups: " + local);
+        Assertions.assertEquals(12, shardSelector.nodes(null, registry).size());
+
+        //No local nodes, everything goes remote
+        val remoteOnly = registry(0, 3);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals("r1", region(shardSelector.select(null, remoteOnly, nodeSelector)));
+        }
+    }
+
+    @Test
+    void testPartitionsFollowRegistryUpdates() {
+        val registry = registry(2, 10);
+        val shardSelector = selector();
+        Assertions.assertEquals(12, shardSelector.nodes(null, registry).size());
+        val nodes = new ArrayList<>(registry.nodeList());
+        for (int i = 0; i < 8; i++) {
+            nodes.add(node(100 + i, 0));
+        }
+        registry.updateNodes(nodes);
+        Assertions.assertEquals(10, shardSelector.nodes(null, registry).size());
+    }
+
+    private static LocalityAwareShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>> selector() {
+        return new LocalityAwareShardSelector<>("r0", nodeData -> "r" + (nodeData.getShardId() % 2));
+    }
+
+    private static String region(ServiceNode<TestNodeData> node) {
+        return "r" + (node.getNodeData().getShardId() % 2);
+    }
+
+    private static ListBasedServiceRegistry<TestNodeData> registry(int localNodes, int remoteNodes) {
+        val registry = new ListBasedServiceRegistry<TestNodeData>(RangerTestUtils.getService("test", "locality"));
+        val nodes = new ArrayList<ServiceNode<TestNodeData>>();
+        for (int i = 0; i < localNodes; i++) {
+            nodes.add(node(i, 0));
+        }
+        for (int i = 0; i < remoteNodes; i++) {
+            nodes.add(node(localNodes + i, 1));
+        }
+        registry.updateNodes(nodes);
+        return registry;
+    }
+
+    private static ServiceNode<TestNodeData> node(int i, int region) {
+        return ServiceNode.<TestNodeData>builder()
+                .host("host-" + i)
+                .port(9000 + i)
+                .nodeData(TestNodeData.builder().shardId(2 * i + region).build())
+                .build();
+    }
+}
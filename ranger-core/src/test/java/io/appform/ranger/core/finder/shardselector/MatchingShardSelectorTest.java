@@ -15,13 +15,19 @@
  */
 package io.appform.ranger.core.finder.shardselector;
 
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.RoundRobinServiceNodeSelector;
 import io.appform.ranger.core.units.TestNodeData;
 import io.appform.ranger.core.utils.RangerTestUtils;
 import io.appform.ranger.core.utils.RegistryTestUtils;
 import lombok.val;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
 class MatchingShardSelectorTest {
 
     @Test
@@ -33,4 +39,46 @@ class MatchingShardSelectorTest {
         Assertions.assertFalse(nodes.isEmpty());
         Assertions.assertEquals("localhost-1", nodes.get(0).getHost());
     }
+
+    @Test
+    void testSelectPicksMatchingNode() {
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val shardSelector = new MatchingShardSelector<TestNodeData>();
+        val criteria = RangerTestUtils.getCriteria(2);
+        for (val nodeSelector : List.of(new RandomServiceNodeSelector<TestNodeData>(),
+                                                   new RoundRobinServiceNodeSelector<TestNodeData>())) {
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertEquals("localhost-2",
+                                        shardSelector.select(criteria, serviceRegistry, nodeSelector).getHost());
+            }
+            Assertions.assertNull(shardSelector.select(RangerTestUtils.getCriteria(4), serviceRegistry, nodeSelector));
+            Assertions.assertNotNull(shardSelector.select(null, serviceRegistry, nodeSelector));
+        }
+    }
+
+    @Test
+    void testSelectDoesNotAllocate() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        val threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported()
+                                       && threadMXBean.isThreadAllocatedMemoryEnabled());
+        val serviceRegistry = RegistryTestUtils.getServiceRegistry();
+        val shardSelector = new MatchingShardSelector<TestNodeData>();
+        val nodeSelector = new RandomServiceNodeSelector<TestNodeData>();
+        val criteria = RangerTestUtils.getCriteria(2);
+        val threadId = Thread.currentThread().getId();
+        long selected = 0;
+        for (int i = 0; i < 100_000; i++) {
+            selected += shardSelector.select(criteria, serviceRegistry, nodeSelector).getPort();
+        }
+        val before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            selected += shardSelector.select(criteria, serviceRegistry, nodeSelector).getPort();
+            selected += shardSelector.select(null, serviceRegistry, nodeSelector).getPort();
+        }
+        val allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        Assertions.assertTrue(selected > 0);
+        //Allow for a little noise from the measurement itself
+        Assertions.assertTrue(allocated < 4096, "Bytes allocated for selection: " + allocated);
+    }
 }
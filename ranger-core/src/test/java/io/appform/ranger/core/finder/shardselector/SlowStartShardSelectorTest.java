@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import io.appform.ranger.core.finder.nodeselector.RoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RegistryTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+class SlowStartShardSelectorTest {
+
+    @Test
+    void testNewNodesAreTrackedAcrossUpdates() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        Assertions.assertEquals(0, registry.getLatestFirstSeenTime());
+        val nodes = new ArrayList<>(registry.nodeList());
+        nodes.add(newNode(1));
+        registry.updateNodes(nodes);
+        val added = registry.getLatestFirstSeenTime();
+        Assertions.assertTrue(added > 0);
+        Assertions.assertEquals(0, registry.getFirstSeenTime(registry.nodeList().get(0)));
+        Assertions.assertEquals(added, registry.getFirstSeenTime(newNode(1)));
+
+        //Changed node data does not make the node new again
+        nodes.set(3, newNode(2));
+        registry.updateNodes(nodes);
+        Assertions.assertEquals(added, registry.getFirstSeenTime(newNode(2)));
+
+        nodes.remove(3);
+        registry.updateNodes(nodes);
+        Assertions.assertEquals(0, registry.getLatestFirstSeenTime());
+    }
+
+    @Test
+    void testNewNodeGetsReducedShare() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val shardSelector = new SlowStartShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>>(
+                new ListShardSelector<>(), TimeUnit.HOURS.toMillis(1));
+        val nodeSelector = new RoundRobinServiceNodeSelector<TestNodeData>();
+        val nodes = new ArrayList<>(registry.nodeList());
+        nodes.add(newNode(1));
+        registry.updateNodes(nodes);
+
+        int newNodeSelections = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (shardSelector.select(null, registry, nodeSelector).getHost().equals("localhost-4")) {
+                newNodeSelections++;
+            }
+        }
+        //Min weight is 0.1, so the new node gets about 0.1 / 3.1 of the calls
+        Assertions.assertTrue(newNodeSelections > 100 && newNodeSelections < 700,
+                              "New node selections: " + newNodeSelections);
+    }
+
+    @Test
+    void testNodeSelectorIsUsedOnceWarm() throws Exception {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        val shardSelector = new SlowStartShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>>(
+                new ListShardSelector<>(), 50, 1.0, 0.01, 10);
+        val nodeSelector = new RoundRobinServiceNodeSelector<TestNodeData>();
+        val nodes = new ArrayList<>(registry.nodeList());
+        nodes.add(newNode(1));
+        registry.updateNodes(nodes);
+        Thread.sleep(60);
+        val hosts = new ArrayList<String>();
+        for (int i = 0; i < 4; i++) {
+            hosts.add(shardSelector.select(null, registry, nodeSelector).getHost());
+        }
+        Assertions.assertEquals(4, hosts.stream().distinct().count());
+    }
+
+    private static ServiceNode<TestNodeData> newNode(int shardId) {
+        return ServiceNode.<TestNodeData>builder()
+                .host("localhost-4")
+                .port(9003)
+                .nodeData(TestNodeData.builder().shardId(shardId).build())
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.finder.shardselector;
+
+import io.appform.ranger.core.finder.nodeselector.RoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.core.utils.RangerTestUtils;
+import io.appform.ranger.core.utils.RegistryTestUtils;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SubsetShardSelectorTest {
+
+    @Test
+    void testSubsetIsStableAndMovesMinimally() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        registry.updateNodes(RangerTestUtils.nodes(20));
+        val shardSelector = subsetSelector("client-1");
+        val subset = hosts(shardSelector.nodes(null, registry));
+        Assertions.assertEquals(5, subset.size());
+        Assertions.assertEquals(subset, hosts(subsetSelector("client-1").nodes(null, registry)));
+
+        val nodeSelector = new RoundRobinServiceNodeSelector<TestNodeData>();
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(subset.contains(shardSelector.select(null, registry, nodeSelector).getHost()));
+        }
+
+        //Removing a node outside the subset changes nothing
+        val outside = RangerTestUtils.nodes(20).stream()
+                .filter(node -> !subset.contains(node.getHost()))
+                .findFirst()
+                .orElseThrow();
+        registry.updateNodes(without(RangerTestUtils.nodes(20), outside.getHost()));
+        Assertions.assertEquals(subset, hosts(shardSelector.nodes(null, registry)));
+
+        //Removing a node in the subset replaces only that node
+        val removed = subset.iterator().next();
+        registry.updateNodes(without(RangerTestUtils.nodes(20), removed));
+        val updated = hosts(shardSelector.nodes(null, registry));
+        Assertions.assertEquals(5, updated.size());
+        Assertions.assertFalse(updated.contains(removed));
+        updated.retainAll(subset);
+        Assertions.assertEquals(4, updated.size());
+    }
+
+    @Test
+    void testClientsSpreadAcrossNodes() {
+        val registry = RegistryTestUtils.getUnshardedRegistry();
+        registry.updateNodes(RangerTestUtils.nodes(20));
+        val covered = new HashSet<String>();
+        IntStream.range(0, 50)
+                .forEach(i -> covered.addAll(hosts(subsetSelector("client-" + i).nodes(null, registry))));
+        Assertions.assertEquals(20, covered.size());
+
+        //Fewer nodes than the subset size returns all of them
+        registry.updateNodes(RangerTestUtils.nodes(3));
+        Assertions.assertEquals(3, subsetSelector("client-1").nodes(null, registry).size());
+    }
+
+    private static SubsetShardSelector<TestNodeData, ListBasedServiceRegistry<TestNodeData>> subsetSelector(
+            String clientId) {
+        return new SubsetShardSelector<>(new ListShardSelector<>(), clientId, 5);
+    }
+
+    private static List<ServiceNode<TestNodeData>> without(List<ServiceNode<TestNodeData>> nodes, String host) {
+        return nodes.stream()
+                .filter(node -> !node.getHost().equals(host))
+                .collect(Collectors.toList());
+    }
+
+    private static Set<String> hosts(List<ServiceNode<TestNodeData>> nodes) {
+        return nodes.stream()
+                .map(ServiceNode::getHost)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -2,6 +2,7 @@ package io.appform.ranger.core.finderhub;
 
 
 import com.google.common.collect.Lists;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.BaseServiceFinderBuilder;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
@@ -17,9 +18,15 @@ import lombok.val;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
 
 class ServiceFinderHubTest {
 
@@ -74,6 +81,252 @@ class ServiceFinderHubTest {
     }
 
 
+    @Test
+    void testHubWithSharedRefreshExecutor() {
+        val refreshExecutor = RefreshExecutor.builder().parallelism(2).build();
+        val services = new HashSet<Service>();
+        for (int i = 0; i < 20; i++) {
+            services.add(new Service("NS", "SERVICE_" + i));
+        }
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                                         service -> new TestServiceFinderBuilder()
+                                                 .withNamespace(service.getNamespace())
+                                                 .withServiceName(service.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .withRefreshExecutor(refreshExecutor)
+                                                 .build(),
+                                         5_000, 10_000, refreshExecutor);
+        try {
+            hub.start();
+            services.forEach(service -> Assertions.assertTrue(
+                    hub.finder(service)
+                            .flatMap(finder -> finder.get(null))
+                            .isPresent()));
+        }
+        finally {
+            hub.stop();
+            refreshExecutor.stop();
+        }
+    }
+
+    @Test
+    void testFindersAreBootstrappedInParallel() {
+        val services = new HashSet<Service>();
+        for (int i = 0; i < 20; i++) {
+            services.add(new Service("NS", "SLOW_SERVICE_" + i));
+        }
+        //Sequential startup would take 20 seconds, well beyond the hub refresh duration
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                                         service -> new TestServiceFinderBuilder()
+                                                 .withNamespace(service.getNamespace())
+                                                 .withServiceName(service.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .withSleepDuration(1)
+                                                 .build(),
+                                         5_000, 10_000, null,
+                                         0, 0, 20);
+        try {
+            hub.start();
+            services.forEach(service -> Assertions.assertTrue(hub.finder(service).isPresent()));
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testLazyFinders() {
+        val services = new HashSet<Service>();
+        for (int i = 0; i < 20; i++) {
+            services.add(new Service("NS", "LAZY_SERVICE_" + i));
+        }
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                                         service -> new TestServiceFinderBuilder()
+                                                 .withNamespace(service.getNamespace())
+                                                 .withServiceName(service.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .build(),
+                                         5_000, 10_000, null,
+                                         0, 0, 4,
+                                         LazyFinderConfig.builder()
+                                                 .firstLookupWaitMs(5_000)
+                                                 .idleTimeoutMs(0)
+                                                 .build());
+        try {
+            hub.start();
+            Assertions.assertTrue(hub.getFinders().get().isEmpty());
+            //Lookups that do not route traffic never build a finder
+            Assertions.assertFalse(hub.existingFinder(new Service("NS", "LAZY_SERVICE_2")).isPresent());
+            val lookedUp = new Service("NS", "LAZY_SERVICE_1");
+            val finder = hub.finder(lookedUp);
+            Assertions.assertTrue(finder.isPresent());
+            Assertions.assertTrue(finder.get().get(null).isPresent());
+            Assertions.assertEquals(1, hub.getFinders().get().size());
+            Assertions.assertTrue(hub.existingFinder(lookedUp).isPresent());
+            Assertions.assertFalse(hub.finder(new Service("NS", "UNKNOWN_SERVICE")).isPresent());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testIdleLazyFindersAreEvicted() {
+        val service = new Service("NS", "LAZY_SERVICE");
+        val hub = new ServiceFinderHub<>(new StaticDataSource(Set.of(service)),
+                                         s -> new TestServiceFinderBuilder()
+                                                 .withNamespace(s.getNamespace())
+                                                 .withServiceName(s.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .build(),
+                                         5_000, 10_000, null,
+                                         0, 0, 4,
+                                         LazyFinderConfig.builder()
+                                                 .firstLookupWaitMs(5_000)
+                                                 .idleTimeoutMs(100)
+                                                 .build());
+        try {
+            hub.start();
+            Assertions.assertTrue(hub.finder(service).isPresent());
+            await().pollDelay(Duration.ofMillis(200)).until(() -> true);
+            hub.updateAvailable();
+            await().atMost(Duration.ofSeconds(5)).until(() -> hub.getFinders().get().isEmpty());
+            //Looking it up again brings it back
+            Assertions.assertTrue(hub.finder(service).isPresent());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testIdleLazyFindersAreEvictedWhenNoServicesAreFound() {
+        val service = new Service("NS", "LAZY_SERVICE");
+        val services = new HashSet<>(Set.of(service));
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                                         s -> new TestServiceFinderBuilder()
+                                                 .withNamespace(s.getNamespace())
+                                                 .withServiceName(s.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .build(),
+                                         5_000, 10_000, null,
+                                         0, 0, 4,
+                                         LazyFinderConfig.builder()
+                                                 .firstLookupWaitMs(5_000)
+                                                 .idleTimeoutMs(100)
+                                                 .build());
+        try {
+            hub.start();
+            Assertions.assertTrue(hub.finder(service).isPresent());
+            services.clear();
+            await().pollDelay(Duration.ofMillis(200)).until(() -> true);
+            hub.updateAvailable();
+            await().atMost(Duration.ofSeconds(5)).until(() -> hub.getFinders().get().isEmpty());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testFindersForRemovedServicesAreStopped() {
+        val services = new HashSet<Service>();
+        val staying = new Service("NS", "STAYING_SERVICE");
+        val leaving = new Service("NS", "LEAVING_SERVICE");
+        services.add(staying);
+        services.add(leaving);
+        val stopped = new HashSet<Service>();
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                                         service -> new TestServiceFinderBuilder()
+                                                 .withNamespace(service.getNamespace())
+                                                 .withServiceName(service.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .withStopSignalHandler(x -> stopped.add(service))
+                                                 .build());
+        hub.start();
+        Assertions.assertEquals(2, hub.getLiveFinderCount());
+        services.remove(leaving);
+        hub.updateAvailable();
+        await().atMost(Duration.ofSeconds(5)).until(() -> hub.getLiveFinderCount() == 1);
+        Assertions.assertEquals(Set.of(leaving), stopped);
+        Assertions.assertEquals(1, hub.getStoppedFinderCount());
+        hub.stop();
+        Assertions.assertEquals(Set.of(leaving, staying), stopped);
+        Assertions.assertEquals(0, hub.getLiveFinderCount());
+        Assertions.assertEquals(2, hub.getStoppedFinderCount());
+    }
+
+    @Test
+    void testFindersThatNeverRefreshAreStopped() {
+        val service = new Service("NS", "UNRESPONSIVE_SERVICE");
+        val built = new AtomicInteger();
+        val stopped = new AtomicInteger();
+        val hub = new ServiceFinderHub<>(new StaticDataSource(Set.of(service)),
+                                         s -> {
+                                             built.incrementAndGet();
+                                             return new TestServiceFinderBuilder()
+                                                     .withNamespace(s.getNamespace())
+                                                     .withServiceName(s.getServiceName())
+                                                     .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                     .withUnresponsiveDataSource()
+                                                     .withStopSignalHandler(x -> stopped.incrementAndGet())
+                                                     .build();
+                                         },
+                                         200, 500, null,
+                                         0, 0, 4);
+        try {
+            Assertions.assertThrows(IllegalStateException.class, hub::start);
+            for (int i = 2; i <= 4; i++) {
+                val expected = i;
+                await().atMost(Duration.ofSeconds(5)).until(() -> {
+                    hub.updateAvailable();
+                    return built.get() >= expected;
+                });
+            }
+            await().atMost(Duration.ofSeconds(5))
+                    .until(() -> stopped.get() == built.get() && refreshThreads(service) == 0);
+            Assertions.assertEquals(0, hub.getLiveFinderCount());
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void testHubNodeChangeListener() {
+        val services = new HashSet<Service>();
+        val staying = new Service("NS", "STAYING_SERVICE");
+        val leaving = new Service("NS", "LEAVING_SERVICE");
+        services.add(staying);
+        services.add(leaving);
+        val hub = new ServiceFinderHub<>(new StaticDataSource(services),
+                                         service -> new TestServiceFinderBuilder()
+                                                 .withNamespace(service.getNamespace())
+                                                 .withServiceName(service.getServiceName())
+                                                 .withDeserializer(new Deserializer<TestNodeData>() {})
+                                                 .build());
+        hub.start();
+        try {
+            val added = ConcurrentHashMap.<Service>newKeySet();
+            val removed = ConcurrentHashMap.<Service>newKeySet();
+            hub.addNodeChangeListener(event -> {
+                if (!event.getAdded().isEmpty()) {
+                    added.add(event.getService());
+                }
+                if (!event.getRemoved().isEmpty()) {
+                    removed.add(event.getService());
+                }
+            });
+            await().atMost(Duration.ofSeconds(5)).until(() -> added.equals(Set.of(staying, leaving)));
+            services.remove(leaving);
+            hub.updateAvailable();
+            await().atMost(Duration.ofSeconds(5)).until(() -> removed.equals(Set.of(leaving)));
+        }
+        finally {
+            hub.stop();
+        }
+    }
+
     @Test
     void testDynamicServiceAdditionWithNonDynamicDataSource() {
         val serviceFinderHub = new ServiceFinderHub<>(new StaticDataSource(new HashSet<>()), service -> new TestServiceFinderBuilder()
@@ -91,9 +344,18 @@ class ServiceFinderHubTest {
         }
     }
 
+    private static long refreshThreads(Service service) {
+        return Thread.getAllStackTraces()
+                .keySet()
+                .stream()
+                .filter(thread -> thread.getName().startsWith("registry-updater-" + service.name()))
+                .count();
+    }
+
     private static class TestServiceFinderBuilder extends BaseServiceFinderBuilder<TestNodeData, MapBasedServiceRegistry<TestNodeData>, ServiceFinder<TestNodeData, MapBasedServiceRegistry<TestNodeData>>, TestServiceFinderBuilder, Deserializer<TestNodeData>> {
 
         private int finderSleepDurationSeconds = 0;
+        private boolean unresponsiveDataSource = false;
 
         @Override
         public ServiceFinder<TestNodeData, MapBasedServiceRegistry<TestNodeData>> build() {
@@ -104,7 +366,7 @@ class ServiceFinderHubTest {
 
         @Override
         protected NodeDataSource<TestNodeData, Deserializer<TestNodeData>> dataSource(Service service) {
-            return new TestNodeDataSource();
+            return new TestNodeDataSource(unresponsiveDataSource);
         }
 
         @Override
@@ -121,9 +383,23 @@ class ServiceFinderHubTest {
             return this;
         }
 
+        public TestServiceFinderBuilder withUnresponsiveDataSource() {
+            this.unresponsiveDataSource = true;
+            return this;
+        }
+
         private static class TestNodeDataSource implements NodeDataSource<TestNodeData, Deserializer<TestNodeData>> {
+            private final boolean unresponsive;
+
+            private TestNodeDataSource(boolean unresponsive) {
+                this.unresponsive = unresponsive;
+            }
+
             @Override
             public Optional<List<ServiceNode<TestNodeData>>> refresh(Deserializer<TestNodeData> deserializer) {
+                if (unresponsive) {
+                    return Optional.empty();
+                }
                 val list = new ArrayList<ServiceNode<TestNodeData>>();
                 list.add(new ServiceNode<>("HOST", 0, TestNodeData.builder().shardId(1).build(), HealthcheckStatus.healthy, 10L, "HTTP"));
                 return Optional.of(list);
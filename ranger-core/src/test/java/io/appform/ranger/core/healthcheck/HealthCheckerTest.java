@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.healthcheck;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class HealthCheckerTest {
+
+    @Test
+    void testScoreIsPublishedOnSignificantChange() {
+        val status = new AtomicReference<>(HealthcheckStatus.healthy);
+        val queueDepth = new AtomicInteger(0);
+        val healthChecker = new HealthChecker(List.of(status::get),
+                                              List.of(HealthScorers.queueDepth(queueDepth::get, 10, 110)),
+                                              60_000);
+        Assertions.assertEquals(1.0, healthChecker.get().getScore());
+
+        //Small changes are not published
+        queueDepth.set(12);
+        Assertions.assertNull(healthChecker.get());
+
+        queueDepth.set(60);
+        Assertions.assertEquals(0.5, healthChecker.get().getScore(), 0.001);
+
+        status.set(HealthcheckStatus.unhealthy);
+        val result = healthChecker.get();
+        Assertions.assertEquals(HealthcheckStatus.unhealthy, result.getStatus());
+        Assertions.assertEquals(0.0, result.getScore());
+    }
+
+    @Test
+    void testLowestScoreIsPublished() {
+        val healthChecker = new HealthChecker(List.of(Healthchecks.defaultHealthyCheck()),
+                                              List.of(() -> 0.8, () -> 0.3, () -> Double.NaN),
+                                              60_000);
+        Assertions.assertEquals(0.3, healthChecker.get().getScore(), 0.001);
+    }
+}
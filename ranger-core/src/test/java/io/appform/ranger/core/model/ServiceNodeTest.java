@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.core.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.units.TestNodeData;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class ServiceNodeTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testDefaultHealthScoreIsNotSerialized() throws Exception {
+        val node = ServiceNode.<TestNodeData>builder()
+                .host("localhost")
+                .port(9000)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .build();
+        val json = mapper.writeValueAsString(node);
+        Assertions.assertFalse(fields(json).containsKey("healthScore"));
+        val read = mapper.readValue(json, new TypeReference<ServiceNode<TestNodeData>>() {});
+        Assertions.assertEquals(ServiceNode.DEFAULT_HEALTH_SCORE, read.getHealthScore());
+    }
+
+    @Test
+    void testDegradedHealthScoreIsSerialized() throws Exception {
+        val node = ServiceNode.<TestNodeData>builder()
+                .host("localhost")
+                .port(9000)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .healthScore(0.5)
+                .build();
+        val json = mapper.writeValueAsString(node);
+        Assertions.assertEquals(0.5, fields(json).get("healthScore"));
+        val read = mapper.readValue(json, new TypeReference<ServiceNode<TestNodeData>>() {});
+        Assertions.assertEquals(0.5, read.getHealthScore());
+    }
+
+    private Map<String, Object> fields(String json) throws Exception {
+        return mapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+    }
+}
@@ -17,11 +17,15 @@ package io.appform.ranger.core.utils;
 
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.core.units.TestNodeData;
 import lombok.experimental.UtilityClass;
+import lombok.val;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.function.Predicate;
 
@@ -42,6 +46,25 @@ public class RangerTestUtils {
         return nodeData -> nodeData.getShardId() == shardId;
     }
 
+    /*
+        Node i is host-i on port 9000 + i, with shard id i
+     */
+    public static ServiceNode<TestNodeData> node(int i) {
+        return ServiceNode.<TestNodeData>builder()
+                .host("host-" + i)
+                .port(9000 + i)
+                .nodeData(TestNodeData.builder().shardId(i).build())
+                .build();
+    }
+
+    public static List<ServiceNode<TestNodeData>> nodes(int count) {
+        val nodes = new ArrayList<ServiceNode<TestNodeData>>(count);
+        for (int i = 0; i < count; i++) {
+            nodes.add(node(i));
+        }
+        return nodes;
+    }
+
     public static Service getService(String namespace, String serviceName){
         return Service.builder()
                 .serviceName(serviceName)
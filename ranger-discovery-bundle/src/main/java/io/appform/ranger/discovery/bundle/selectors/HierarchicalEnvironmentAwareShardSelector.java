@@ -18,27 +18,43 @@
 package io.appform.ranger.discovery.bundle.selectors;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.appform.ranger.common.server.ShardInfo;
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.model.ServiceNodeSelector;
 import io.appform.ranger.core.model.ShardSelector;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
- *
+ * Selects nodes from the most specific environment in the hierarchy that has nodes. For environment "a.b.c",
+ * nodes in "a.b.c" are preferred, followed by nodes in "a.b" and then "a".
+ * Nodes are grouped by environment level once for every node list published by the registry, so that lookups
+ * without criteria resolve to a precomputed list and lookups with criteria only look at the nodes of the
+ * environments in the hierarchy.
  */
 @Slf4j
 public class HierarchicalEnvironmentAwareShardSelector implements ShardSelector<ShardInfo, MapBasedServiceRegistry<ShardInfo>> {
     private static final String DEFAULT_SEPARATOR = ".";
-    private static final Predicate<ShardInfo> DEFAULT_PREDICATE = shardInfo -> true;
+    private static final long MISS_WARNING_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
 
     private final String environment;
-    private final String separator;
+    private final List<String> environments;
+    private final Cache<MapBasedServiceRegistry<ShardInfo>, AtomicReference<EnvironmentIndex>> indices
+            = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+    private final ConcurrentMap<String, MissWarnings> missWarnings = new ConcurrentHashMap<>();
 
     public HierarchicalEnvironmentAwareShardSelector(String environment) {
         this(environment, DEFAULT_SEPARATOR);
@@ -46,75 +62,147 @@ public class HierarchicalEnvironmentAwareShardSelector implements ShardSelector<
 
     public HierarchicalEnvironmentAwareShardSelector(String environment, String separator) {
         this.environment = environment;
-        this.separator = separator;
+        this.environments = environmentHierarchy(environment, separator);
     }
 
     @Override
     public List<ServiceNode<ShardInfo>> nodes(
             Predicate<ShardInfo> criteria, MapBasedServiceRegistry<ShardInfo> serviceRegistry) {
-        val serviceNodes = serviceRegistry.nodes();
-        val serviceName = serviceRegistry.getService().getServiceName();
-        val evalPredicate = null != criteria
-                            ? criteria
-                            : DEFAULT_PREDICATE;
-        for (val env : new IterableEnvironment(environment, separator)) {
-            val eligibleNodes = serviceNodes.entries()
-                    .stream()
-                    .filter(e -> e.getKey().getEnvironment().equals(env.environment) && evalPredicate.test(e.getKey()))
-                    .map(Map.Entry::getValue)
-                    .toList();
-            if (!eligibleNodes.isEmpty()) {
-                log.debug("Effective environment for discovery of {} is {}", serviceName, env.environment);
-                return eligibleNodes;
+        val index = index(serviceRegistry);
+        if (null == criteria) {
+            if (!index.resolvedNodes.isEmpty()) {
+                return index.resolvedNodes;
+            }
+        }
+        else {
+            for (int level = 0; level < environments.size(); level++) {
+                val eligibleNodes = index.levels.get(level)
+                        .stream()
+                        .filter(node -> criteria.test(node.getNodeData()))
+                        .toList();
+                if (!eligibleNodes.isEmpty()) {
+                    return eligibleNodes;
+                }
             }
-            log.trace("No nodes found for environment: {}", env.environment);
         }
-        log.warn("No valid nodes could be found for environment: {}", environment);
+        warnMiss(serviceRegistry);
         return Collections.emptyList();
     }
 
-    private static final class IterableEnvironment implements Iterable<IterableEnvironment> {
-        private final String environment;
-        private final String separator;
-
-        private IterableEnvironment(String environment, String separator) {
-            this.environment = environment;
-            this.separator = separator;
+    @Override
+    public ServiceNode<ShardInfo> select(
+            Predicate<ShardInfo> criteria,
+            MapBasedServiceRegistry<ShardInfo> serviceRegistry,
+            ServiceNodeSelector<ShardInfo> nodeSelector) {
+        val index = index(serviceRegistry);
+        if (null == criteria) {
+            if (!index.resolvedNodes.isEmpty()) {
+                return nodeSelector.select(index.resolvedNodes);
+            }
         }
+        else {
+            for (int level = 0; level < environments.size(); level++) {
+                val node = nodeSelector.select(index.levels.get(level), criteria);
+                if (null != node) {
+                    return node;
+                }
+            }
+        }
+        warnMiss(serviceRegistry);
+        return null;
+    }
 
-        @Override
-        public Iterator<IterableEnvironment> iterator() {
-            return new EnvironmentIterator(environment, separator);
+    private EnvironmentIndex index(MapBasedServiceRegistry<ShardInfo> serviceRegistry) {
+        val holder = indices.asMap().computeIfAbsent(serviceRegistry, registry -> new AtomicReference<>());
+        val version = serviceRegistry.getSnapshotVersion();
+        val current = holder.get();
+        if (null != current && current.version == version) {
+            return current;
         }
+        val index = buildIndex(version, serviceRegistry);
+        holder.set(index);
+        return index;
+    }
 
-        public static final class EnvironmentIterator implements Iterator<IterableEnvironment> {
+    private EnvironmentIndex buildIndex(long version, MapBasedServiceRegistry<ShardInfo> serviceRegistry) {
+        val levelOfEnvironment = new HashMap<String, Integer>();
+        val levels = new ArrayList<List<ServiceNode<ShardInfo>>>(environments.size());
+        for (int level = 0; level < environments.size(); level++) {
+            levelOfEnvironment.put(environments.get(level), level);
+            levels.add(new ArrayList<>());
+        }
+        serviceRegistry.nodes()
+                .entries()
+                .forEach(entry -> {
+                    val level = levelOfEnvironment.get(entry.getKey().getEnvironment());
+                    if (null != level) {
+                        levels.get(level).add(entry.getValue());
+                    }
+                });
+        val serviceName = serviceRegistry.getService().getServiceName();
+        List<ServiceNode<ShardInfo>> resolvedNodes = Collections.emptyList();
+        for (int level = 0; level < levels.size(); level++) {
+            levels.set(level, List.copyOf(levels.get(level)));
+            if (resolvedNodes.isEmpty() && !levels.get(level).isEmpty()) {
+                resolvedNodes = levels.get(level);
+                log.debug("Effective environment for discovery of {} is {}", serviceName, environments.get(level));
+            }
+        }
+        return new EnvironmentIndex(version, List.copyOf(levels), resolvedNodes);
+    }
 
-            private String remainingEnvironment;
-            private final String separator;
+    /*
+        Misses are usually persistent (a service not deployed in the environment), so warn once in a while
+        instead of on every lookup. Warnings are limited per service, so that misses for one service don't hide
+        misses for others sharing the selector.
+     */
+    private void warnMiss(MapBasedServiceRegistry<ShardInfo> serviceRegistry) {
+        val serviceName = serviceRegistry.getService().getServiceName();
+        var warnings = missWarnings.get(serviceName);
+        if (null == warnings) {
+            warnings = missWarnings.computeIfAbsent(serviceName, name -> new MissWarnings());
+        }
+        val now = System.currentTimeMillis();
+        val lastWarningTime = warnings.lastWarningTime.get();
+        if (now - lastWarningTime < MISS_WARNING_INTERVAL_MS
+                || !warnings.lastWarningTime.compareAndSet(lastWarningTime, now)) {
+            warnings.suppressed.incrementAndGet();
+            return;
+        }
+        log.warn("No valid nodes could be found for environment: {} for service: {}. Similar warnings suppressed: {}",
+                 environment, serviceName, warnings.suppressed.getAndSet(0));
+    }
 
-            public EnvironmentIterator(String remainingEnvironment, String separator) {
-                this.remainingEnvironment = remainingEnvironment;
-                this.separator = separator;
-            }
+    private static List<String> environmentHierarchy(String environment, String separator) {
+        val environments = new ArrayList<String>();
+        var remainingEnvironment = environment;
+        while (!Strings.isNullOrEmpty(remainingEnvironment)) {
+            environments.add(remainingEnvironment);
+            val sepIndex = remainingEnvironment.lastIndexOf(separator);
+            remainingEnvironment = sepIndex < 0
+                                   ? ""
+                                   : remainingEnvironment.substring(0, sepIndex);
+        }
+        return List.copyOf(environments);
+    }
 
-            @Override
-            public boolean hasNext() {
-                return !Strings.isNullOrEmpty(remainingEnvironment);
-            }
+    private static final class MissWarnings {
+        private final AtomicLong lastWarningTime = new AtomicLong(0);
+        private final AtomicLong suppressed = new AtomicLong(0);
+    }
 
-            @Override
-            public IterableEnvironment next() {
-                if (!hasNext()) {
-                    throw new NoSuchElementException();
-                }
-                log.debug("Effective environment for discovery is {}", remainingEnvironment);
-                val shardInfo = new IterableEnvironment(remainingEnvironment, separator);
-                val sepIndex = remainingEnvironment.lastIndexOf(this.separator);
-                remainingEnvironment = sepIndex < 0
-                                       ? ""
-                                       : remainingEnvironment.substring(0, sepIndex);
-                return shardInfo;
-            }
+    private static final class EnvironmentIndex {
+        private final long version;
+        private final List<List<ServiceNode<ShardInfo>>> levels;
+        private final List<ServiceNode<ShardInfo>> resolvedNodes;
+
+        private EnvironmentIndex(
+                long version,
+                List<List<ServiceNode<ShardInfo>>> levels,
+                List<ServiceNode<ShardInfo>> resolvedNodes) {
+            this.version = version;
+            this.levels = levels;
+            this.resolvedNodes = resolvedNodes;
         }
     }
 }
@@ -29,6 +29,7 @@ import org.openjdk.jmh.runner.options.TimeValue;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -38,6 +39,25 @@ public abstract class BenchmarkTest {
 
     @Test
     void testBenchmark() throws RunnerException {
+        val processors = Runtime.getRuntime().availableProcessors();
+        for (val threads : threadCounts()) {
+            //Threads can't contend on a single core, so numbers for concurrent callers would be misleading
+            if (threads > 1 && processors < 2) {
+                continue;
+            }
+            runBenchmarks(threads);
+        }
+    }
+
+    /**
+     * Override to measure throughput with concurrent callers. Results for more than one thread are written with
+     * the thread count as a suffix. Runs with more than one thread are skipped on single core machines
+     */
+    protected List<Integer> threadCounts() {
+        return List.of(1);
+    }
+
+    private void runBenchmarks(int threads) throws RunnerException {
         val opt = new OptionsBuilder()
                 .include(String.format("%s.*", this.getClass().getName()))
                 .mode(Mode.Throughput)
@@ -46,7 +66,7 @@ public abstract class BenchmarkTest {
                 .warmupIterations(1)
                 .measurementTime(TimeValue.seconds(5))
                 .measurementIterations(4)
-                .threads(1)
+                .threads(threads)
                 .forks(3)
                 .shouldFailOnError(true)
                 .shouldDoGC(true)
@@ -58,7 +78,10 @@ public abstract class BenchmarkTest {
                     @Override
                     public void accept(RunResult runResult) {
                         val benchmarkName = runResult.getParams().getBenchmark();
-                        val outputFilePath = Paths.get(String.format("perf/results/%s.json", benchmarkName));
+                        val outputFilePath = threads == 1
+                                             ? Paths.get(String.format("perf/results/%s.json", benchmarkName))
+                                             : Paths.get(String.format("perf/results/%s.threads-%d.json",
+                                                                       benchmarkName, threads));
                         val outputNode = mapper.createObjectNode();
                         outputNode.put("name", benchmarkName);
                         outputNode.put("mode", runResult.getParams().getMode().name());
@@ -20,6 +20,7 @@ package io.appform.ranger.discovery.bundle.selectors;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
 import io.appform.ranger.core.model.Service;
@@ -32,10 +33,14 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  *
@@ -210,4 +215,40 @@ class HierarchicalEnvironmentAwareShardSelectorTest {
         assertEquals(9999, nodes.get(0).getPort());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHierarchyIsResolvedOncePerSnapshot() {
+        val serviceName = UUID.randomUUID().toString();
+        val service = Mockito.mock(Service.class);
+        doReturn(serviceName).when(service).getServiceName();
+        doReturn(service).when(serviceRegistry).getService();
+
+        ListMultimap<ShardInfo, ServiceNode<ShardInfo>> serviceNodes = ArrayListMultimap.create();
+        val childShard = ShardInfo.builder().environment("x.y").build();
+        val parentShard = ShardInfo.builder().environment("x").tags(Set.of("canary")).build();
+        serviceNodes.put(childShard, new ServiceNode<>("host1", 8888, childShard, HealthcheckStatus.healthy,
+                                                       System.currentTimeMillis(), "http"));
+        serviceNodes.put(parentShard, new ServiceNode<>("host2", 9999, parentShard, HealthcheckStatus.healthy,
+                                                        System.currentTimeMillis(), "http"));
+        doReturn(serviceNodes).when(serviceRegistry).nodes();
+        doReturn(1L).when(serviceRegistry).getSnapshotVersion();
+
+        val selector = selector("x.y.z");
+        val nodeSelector = new RandomServiceNodeSelector<ShardInfo>();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("host1", selector.nodes(null, serviceRegistry).get(0).getHost());
+            assertEquals("host1", selector.select(null, serviceRegistry, nodeSelector).getHost());
+            //Criteria that don't match the child environment fall back to the parent
+            assertEquals("host2", selector.nodes(ShardInfo.withTag("canary"), serviceRegistry).get(0).getHost());
+            assertEquals("host2", selector.select(ShardInfo.withTag("canary"), serviceRegistry, nodeSelector)
+                    .getHost());
+            assertNull(selector.select(ShardInfo.withTag("none"), serviceRegistry, nodeSelector));
+        }
+        verify(serviceRegistry, times(1)).nodes();
+
+        //A new snapshot is indexed again
+        doReturn(2L).when(serviceRegistry).getSnapshotVersion();
+        assertEquals("host1", selector.nodes(null, serviceRegistry).get(0).getHost());
+        verify(serviceRegistry, times(2)).nodes();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appform.ranger.discovery.bundle.selectors;
+
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.nodeselector.LeastInFlightServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.PeakEwmaServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.RandomServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.discovery.bundle.id.BenchmarkTest;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost of feedback based node selection (select + start/complete feedback) compared to random selection.
+ * Most of the difference is the feedback itself: completions read the clock and fold the latency into the moving
+ * average, which random selection never does
+ */
+public class NodeSelectorPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        List<ServiceNode<ShardInfo>> nodes;
+        RandomServiceNodeSelector<ShardInfo> random;
+        LeastInFlightServiceNodeSelector<ShardInfo> leastInFlight;
+        PeakEwmaServiceNodeSelector<ShardInfo> peakEwma;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            nodes = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                nodes.add(ServiceNode.<ShardInfo>builder()
+                                  .host("host-" + i)
+                                  .port(8080)
+                                  .nodeData(ShardInfo.builder().environment("prod").build())
+                                  .build());
+            }
+            random = new RandomServiceNodeSelector<>();
+            leastInFlight = new LeastInFlightServiceNodeSelector<>();
+            peakEwma = new PeakEwmaServiceNodeSelector<>();
+        }
+    }
+
+    @Benchmark
+    public void testRandomSelect(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.random.select(state.nodes));
+    }
+
+    @Benchmark
+    public void testLeastInFlightSelectWithFeedback(Blackhole blackhole, BenchmarkState state) {
+        val node = state.leastInFlight.select(state.nodes);
+        state.leastInFlight.onStart(node);
+        state.leastInFlight.onComplete(node, 1_000_000, true);
+        blackhole.consume(node);
+    }
+
+    @Benchmark
+    public void testPeakEwmaSelectWithFeedback(Blackhole blackhole, BenchmarkState state) {
+        val node = state.peakEwma.select(state.nodes);
+        state.peakEwma.onStart(node);
+        state.peakEwma.onComplete(node, 1_000_000, true);
+        blackhole.consume(node);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.discovery.bundle.selectors;
+
+import io.appform.ranger.common.server.ShardInfo;
+import io.appform.ranger.core.finder.nodeselector.BatchedRoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.RoundRobinServiceNodeSelector;
+import io.appform.ranger.core.finder.nodeselector.StripedRoundRobinServiceNodeSelector;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.discovery.bundle.id.BenchmarkTest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput of the round-robin selectors with 1, 8 and 64 threads sharing a selector
+ */
+public class RoundRobinSelectorPerfTest extends BenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        List<ServiceNode<ShardInfo>> nodes;
+        RoundRobinServiceNodeSelector<ShardInfo> roundRobin;
+        StripedRoundRobinServiceNodeSelector<ShardInfo> striped;
+        BatchedRoundRobinServiceNodeSelector<ShardInfo> batched;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            nodes = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                nodes.add(ServiceNode.<ShardInfo>builder()
+                                  .host("host-" + i)
+                                  .port(8080)
+                                  .nodeData(ShardInfo.builder().environment("prod").build())
+                                  .build());
+            }
+            roundRobin = new RoundRobinServiceNodeSelector<>();
+            striped = new StripedRoundRobinServiceNodeSelector<>();
+            batched = new BatchedRoundRobinServiceNodeSelector<>();
+        }
+    }
+
+    @Override
+    protected List<Integer> threadCounts() {
+        return List.of(1, 8, 64);
+    }
+
+    @Benchmark
+    public void testRoundRobinSelect(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.roundRobin.select(state.nodes));
+    }
+
+    @Benchmark
+    public void testStripedRoundRobinSelect(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.striped.select(state.nodes));
+    }
+
+    @Benchmark
+    public void testBatchedRoundRobinSelect(Blackhole blackhole, BenchmarkState state) {
+        blackhole.consume(state.batched.select(state.nodes));
+    }
+}
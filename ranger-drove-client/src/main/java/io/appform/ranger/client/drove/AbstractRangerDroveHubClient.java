@@ -56,6 +56,9 @@ public abstract class AbstractRangerDroveHubClient<T, R extends ServiceRegistry<
         .withRefreshFrequencyMs(getNodeRefreshTimeMs())
         .withHubRefreshDuration(getHubRefreshDurationMs())
         .withServiceRefreshDuration(getServiceRefreshDurationMs())
+        .withRefreshExecutor(getRefreshExecutor())
+        .withFinderBootstrapParallelism(getFinderBootstrapParallelism())
+        .withLazyFinderConfig(getLazyFinderConfig())
         .build();
   }
 }
@@ -43,6 +43,7 @@ public class UnshardedRangerDroveHubClient<T>
                 .shardSelector(shardSelector)
                 .nodeSelector(this.getNodeSelector())
                 .mapper(getMapper())
+                .refreshExecutor(getRefreshExecutor())
                 .build();
     }
 
@@ -16,6 +16,7 @@
 package io.appform.ranger.drove.servicefinderhub;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
@@ -38,6 +39,7 @@ public class DroveShardedServiceFinderFactory<T> implements ServiceFinderFactory
     private final ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
     private final int nodeRefreshIntervalMs;
+    private final RefreshExecutor refreshExecutor;
 
     @Builder
     public DroveShardedServiceFinderFactory(
@@ -47,7 +49,8 @@ public class DroveShardedServiceFinderFactory<T> implements ServiceFinderFactory
             DroveResponseDataDeserializer<T> deserializer,
             ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector,
             ServiceNodeSelector<T> nodeSelector,
-            int nodeRefreshIntervalMs)
+            int nodeRefreshIntervalMs,
+            RefreshExecutor refreshExecutor)
     {
         this.clientConfig = droveConfig;
         this.droveClient = droveClient;
@@ -56,6 +59,7 @@ public class DroveShardedServiceFinderFactory<T> implements ServiceFinderFactory
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
+        this.refreshExecutor = refreshExecutor;
     }
 
     @Override
@@ -70,6 +74,7 @@ public class DroveShardedServiceFinderFactory<T> implements ServiceFinderFactory
                 .withNodeRefreshIntervalMs(nodeRefreshIntervalMs)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshExecutor(refreshExecutor)
                 .build();
         serviceFinder.start();
         return serviceFinder;
@@ -16,6 +16,7 @@
 package io.appform.ranger.drove.servicefinderhub;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
@@ -38,6 +39,7 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
     private final ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
     private final int nodeRefreshIntervalMs;
+    private final RefreshExecutor refreshExecutor;
 
     @Builder
     public DroveUnshardedServiceFinderFactory(
@@ -47,7 +49,8 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
             DroveResponseDataDeserializer<T> deserializer,
             ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector,
             ServiceNodeSelector<T> nodeSelector,
-            int nodeRefreshIntervalMs)
+            int nodeRefreshIntervalMs,
+            RefreshExecutor refreshExecutor)
     {
         this.clientConfig = droveConfig;
         this.droveCommunicator = droveCommunicator;
@@ -56,6 +59,7 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
+        this.refreshExecutor = refreshExecutor;
     }
 
     @Override
@@ -70,6 +74,7 @@ public class DroveUnshardedServiceFinderFactory<T> implements ServiceFinderFacto
                 .withNodeRefreshIntervalMs(nodeRefreshIntervalMs)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshExecutor(refreshExecutor)
                 .build();
         serviceFinder.start();
         return serviceFinder;
@@ -61,6 +61,9 @@ public abstract class AbstractRangerHttpHubClient<T, R extends ServiceRegistry<T
         .withRefreshFrequencyMs(getNodeRefreshTimeMs())
         .withHubRefreshDuration(getHubRefreshDurationMs())
         .withServiceRefreshDuration(getServiceRefreshDurationMs())
+        .withRefreshExecutor(getRefreshExecutor())
+        .withFinderBootstrapParallelism(getFinderBootstrapParallelism())
+        .withLazyFinderConfig(getLazyFinderConfig())
         .build();
   }
 }
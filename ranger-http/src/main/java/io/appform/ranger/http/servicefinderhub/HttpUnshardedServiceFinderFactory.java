@@ -16,6 +16,7 @@
 package io.appform.ranger.http.servicefinderhub;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.ServiceFinder;
 import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
@@ -38,6 +39,7 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
     private final ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
     private final int nodeRefreshIntervalMs;
+    private final RefreshExecutor refreshExecutor;
 
     @Builder
     public HttpUnshardedServiceFinderFactory(
@@ -46,7 +48,8 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
             HTTPResponseDataDeserializer<T> deserializer,
             ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector,
             ServiceNodeSelector<T> nodeSelector,
-            int nodeRefreshIntervalMs)
+            int nodeRefreshIntervalMs,
+            RefreshExecutor refreshExecutor)
     {
         this.clientConfig = httpClientConfig;
         this.mapper = mapper;
@@ -55,6 +58,7 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
+        this.refreshExecutor = refreshExecutor;
     }
 
     @Override
@@ -69,6 +73,7 @@ public class HttpUnshardedServiceFinderFactory<T> implements ServiceFinderFactor
                 .withNodeRefreshIntervalMs(nodeRefreshIntervalMs)
                 .withShardSelector(shardSelector)
                 .withNodeSelector(nodeSelector)
+                .withRefreshExecutor(refreshExecutor)
                 .build();
         serviceFinder.start();
         return serviceFinder;
@@ -15,9 +15,13 @@
  */
 package io.appform.ranger.server.bundle;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.health.HealthCheck;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.client.AbstractRangerHubClient;
 import io.appform.ranger.client.RangerHubClient;
+import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.model.ServiceRegistry;
 import io.appform.ranger.core.signals.Signal;
 import io.appform.ranger.server.bundle.resources.RangerResource;
@@ -35,6 +39,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.util.List;
+import java.util.function.ToLongFunction;
 
 @Getter
 @Slf4j
@@ -130,5 +135,32 @@ public abstract class RangerServerBundle<
         environment.healthChecks().register("rotation-check", new RotationCheck(rotationStatus));
         healthChecks.forEach(healthCheck -> environment.healthChecks().register(healthCheck.getClass().getName(), healthCheck));
         environment.jersey().register(new RangerResource<>(hubs));
+        registerFinderGauges(environment);
+    }
+
+    /*
+        Live and stopped finder counts per hub. Live count should track the number of services, and the stopped
+        count should only grow with service churn.
+     */
+    private void registerFinderGauges(Environment environment) {
+        for (int i = 0; i < hubs.size(); i++) {
+            if (!(hubs.get(i) instanceof AbstractRangerHubClient<T, R, ?> hubClient)) {
+                continue;
+            }
+            val prefix = MetricRegistry.name("ranger", "hub", String.valueOf(i), "finders");
+            environment.metrics().register(MetricRegistry.name(prefix, "live"),
+                                           (Gauge<Long>) () -> finderCount(hubClient,
+                                                                           ServiceFinderHub::getLiveFinderCount));
+            environment.metrics().register(MetricRegistry.name(prefix, "stopped"),
+                                           (Gauge<Long>) () -> finderCount(hubClient,
+                                                                           ServiceFinderHub::getStoppedFinderCount));
+        }
+    }
+
+    private static <T, R extends ServiceRegistry<T>> long finderCount(
+            AbstractRangerHubClient<T, R, ?> hubClient,
+            ToLongFunction<ServiceFinderHub<T, R>> counter) {
+        val hub = hubClient.getHub();
+        return null == hub ? 0 : counter.applyAsLong(hub);
     }
 }
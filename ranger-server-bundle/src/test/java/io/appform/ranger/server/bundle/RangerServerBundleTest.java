@@ -79,6 +79,7 @@ public class RangerServerBundleTest {
         val healthCheckRegistry = mock(HealthCheckRegistry.class);
         doNothing().when(healthCheckRegistry).register(anyString(), any());
         when(ENVIRONMENT.healthChecks()).thenReturn(healthCheckRegistry);
+        when(ENVIRONMENT.metrics()).thenReturn(METRIC_REGISTRY);
 
         RANGER_SERVER_BUNDLE.initialize(BOOTSTRAP);
         RANGER_SERVER_BUNDLE.run(CONFIGURATION, ENVIRONMENT);
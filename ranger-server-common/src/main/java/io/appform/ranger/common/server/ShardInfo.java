@@ -16,28 +16,72 @@
 package io.appform.ranger.common.server;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.appform.ranger.core.criteria.AttributedNodeData;
+import io.appform.ranger.core.criteria.Criteria;
 import lombok.Builder;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
 
 import java.util.Collections;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /*
     An example nodeData with which we have written our ranger-servers. When you write your own servers you could define your own node data!
     The idea of this nodeData is to include an environment (prod/stage etc.) along with the region to indicate the DC you may be running your
-    service on. It also additionally contains a livelinessScore, ranging from 0 -> 100 (that you can compute basis your own monitor running) and
-    a bunch of tags, so help run an AB or the like should it be desired.
+    service on. It also additionally contains a bunch of tags, so help run an AB or the like should it be desired.
+    A graded liveliness score (that you can compute basis your own monitor running) is published on the ServiceNode itself, as healthScore.
     The iterable interface can be used to implement selectors that use a parseable environment string.
      For example for hierarchical lookups.
+    Environment, region and tags are exposed as attributes, so that nodes can be looked up using indexed Criteria.
  */
 @Value
 @Builder
 @Jacksonized
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class ShardInfo {
+public class ShardInfo implements AttributedNodeData {
+    public static final String ENVIRONMENT_ATTRIBUTE = "environment";
+    public static final String REGION_ATTRIBUTE = "region";
+    public static final String TAG_ATTRIBUTE = "tag";
+
     String environment;
     String region;
     @Builder.Default
     Set<String> tags = Collections.emptySet();
+
+    public static Criteria<ShardInfo> inEnvironment(String environment) {
+        return Criteria.attribute(ENVIRONMENT_ATTRIBUTE, environment);
+    }
+
+    public static Criteria<ShardInfo> inRegion(String region) {
+        return Criteria.attribute(REGION_ATTRIBUTE, region);
+    }
+
+    public static Criteria<ShardInfo> withTag(String tag) {
+        return Criteria.attribute(TAG_ATTRIBUTE, tag);
+    }
+
+    @Override
+    public boolean hasAttribute(String name, String value) {
+        return switch (name) {
+            case ENVIRONMENT_ATTRIBUTE -> Objects.equals(environment, value);
+            case REGION_ATTRIBUTE -> Objects.equals(region, value);
+            case TAG_ATTRIBUTE -> null != tags && tags.contains(value);
+            default -> false;
+        };
+    }
+
+    @Override
+    public void forEachAttribute(BiConsumer<String, String> consumer) {
+        if (null != environment) {
+            consumer.accept(ENVIRONMENT_ATTRIBUTE, environment);
+        }
+        if (null != region) {
+            consumer.accept(REGION_ATTRIBUTE, region);
+        }
+        if (null != tags) {
+            tags.forEach(tag -> consumer.accept(TAG_ATTRIBUTE, tag));
+        }
+    }
 }
@@ -46,4 +46,18 @@ public class ShardInfoTest {
         Assertions.assertNotNull(shardInfo2.getTags());
         Assertions.assertTrue(shardInfo2.getTags().contains("tag1"));
     }
+
+    @Test
+    @SneakyThrows
+    public void testShardInfoAttributes() {
+        val shardInfo = getResource("fixtures/env2.json", ShardInfo.class);
+        Assertions.assertNotNull(shardInfo);
+        Assertions.assertTrue(ShardInfo.inEnvironment("e").test(shardInfo));
+        Assertions.assertTrue(ShardInfo.withTag("tag1").test(shardInfo));
+        Assertions.assertFalse(ShardInfo.inRegion("r").test(shardInfo));
+        Assertions.assertFalse(ShardInfo.inEnvironment("e").and(ShardInfo.withTag("x")).test(shardInfo));
+        //Attributes are not serialized
+        Assertions.assertEquals(shardInfo, mapper.readValue(mapper.writeValueAsString(shardInfo), ShardInfo.class));
+        Assertions.assertFalse(mapper.writeValueAsString(shardInfo).contains("attribute"));
+    }
 }
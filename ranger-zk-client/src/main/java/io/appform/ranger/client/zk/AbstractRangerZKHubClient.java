@@ -48,6 +48,9 @@ public abstract class AbstractRangerZKHubClient<T, R extends ServiceRegistry<T>,
                 .withServiceFinderFactory(getFinderFactory())
                 .withHubRefreshDuration(getHubRefreshDurationMs())
                 .withServiceRefreshDuration(getServiceRefreshDurationMs())
+                .withRefreshExecutor(getRefreshExecutor())
+                .withFinderBootstrapParallelism(getFinderBootstrapParallelism())
+                .withLazyFinderConfig(getLazyFinderConfig())
                 .build();
     }
 
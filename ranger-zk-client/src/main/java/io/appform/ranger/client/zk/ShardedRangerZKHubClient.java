@@ -48,6 +48,7 @@ public class ShardedRangerZKHubClient<T>
                 .deserializer(getDeserializer())
                 .shardSelector(shardSelector)
                 .nodeSelector(nodeSelector)
+                .refreshExecutor(getRefreshExecutor())
                 .build();
     }
 }
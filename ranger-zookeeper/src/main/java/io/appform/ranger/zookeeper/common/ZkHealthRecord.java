@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.common;
+
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.ServiceNode;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frequently changing part of the state of a node, stored separately from the registration data of the node in
+ * the {@link ZkNodeLayout#SPLIT} layout. Encoded as {@code status|lastUpdatedTimeStamp|healthScore|registrationMzxid},
+ * which is a few tens of bytes irrespective of the size of the node data.
+ * The registration mzxid is the mzxid of the registration data in effect when the record was written. Finders
+ * use it to tell if their copy of the registration data is current without checking the instance path. It is 0 if
+ * not known, for records without it as well.
+ */
+@Slf4j
+@Value
+public class ZkHealthRecord {
+    private static final String SEPARATOR = "|";
+
+    HealthcheckStatus healthcheckStatus;
+    long lastUpdatedTimeStamp;
+    double healthScore;
+    long registrationMzxid;
+
+    public static ZkHealthRecord of(ServiceNode<?> serviceNode, long registrationMzxid) {
+        return new ZkHealthRecord(serviceNode.getHealthcheckStatus(),
+                                  serviceNode.getLastUpdatedTimeStamp(),
+                                  serviceNode.getHealthScore(),
+                                  registrationMzxid);
+    }
+
+    /**
+     * @param data encoded record
+     * @return the record, null if the data is not a valid record
+     */
+    public static ZkHealthRecord parse(byte[] data) {
+        if (null == data || data.length == 0) {
+            return null;
+        }
+        val parts = new String(data, StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 3 && parts.length != 4) {
+            log.warn("Ignoring invalid health record: {}", new String(data, StandardCharsets.UTF_8));
+            return null;
+        }
+        try {
+            return new ZkHealthRecord(HealthcheckStatus.valueOf(parts[0]),
+                                      Long.parseLong(parts[1]),
+                                      Double.parseDouble(parts[2]),
+                                      parts.length == 4 ? Long.parseLong(parts[3]) : 0L);
+        }
+        catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid health record: {}", new String(data, StandardCharsets.UTF_8));
+            return null;
+        }
+    }
+
+    public byte[] serialize() {
+        return (healthcheckStatus.name() + SEPARATOR + lastUpdatedTimeStamp + SEPARATOR + healthScore
+                + SEPARATOR + registrationMzxid)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param serviceNode registration data of the node. Not modified
+     * @return copy of the node with the health status, update time and score of this record
+     */
+    public <T> ServiceNode<T> applyTo(ServiceNode<T> serviceNode) {
+        return new ServiceNode<>(serviceNode.getHost(),
+                                 serviceNode.getPort(),
+                                 serviceNode.getNodeData(),
+                                 healthcheckStatus,
+                                 lastUpdatedTimeStamp,
+                                 serviceNode.getPortScheme(),
+                                 healthScore);
+    }
+}
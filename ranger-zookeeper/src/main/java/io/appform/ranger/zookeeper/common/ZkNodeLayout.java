@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.common;
+
+/**
+ * How a provider stores the state of its node in ZK
+ */
+public enum ZkNodeLayout {
+    /**
+     * The whole node, including health status and update time, is written to the instance path on every update
+     */
+    COMBINED,
+    /**
+     * The node is written to the instance path only when its registration data changes. Health status, update
+     * time and score are written as a {@link ZkHealthRecord} to the health path of the instance.
+     */
+    SPLIT
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.appform.ranger.core.model.NodeDataSource;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.util.FinderUtils;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinderhub.ZkNamespaceMirror;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.utils.ZKPaths;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Node data source that reads the nodes of a service from a {@link ZkNamespaceMirror} instead of from ZK.
+ * A refresh does not make any ZK calls. Instances are deserialized again only when their data has changed.
+ * Health records of nodes in the {@link io.appform.ranger.zookeeper.common.ZkNodeLayout#SPLIT} layout are applied
+ * to the nodes returned.
+ * No update is returned while the mirror is not in sync with ZK, for example while disconnected, so that
+ * registries keep their nodes instead of dropping them as zombies.
+ */
+@Slf4j
+public class ZkMirrorNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> implements NodeDataSource<T, D> {
+    private final Service service;
+    private final ZkNamespaceMirror namespaceMirror;
+
+    private volatile Map<String, CachedNode<T>> nodeCache = Collections.emptyMap();
+    private volatile D cacheDeserializer;
+
+    public ZkMirrorNodeDataSource(Service service, ZkNamespaceMirror namespaceMirror) {
+        this.service = service;
+        this.namespaceMirror = namespaceMirror;
+    }
+
+    @Override
+    public Optional<List<ServiceNode<T>>> refresh(D deserializer) {
+        Preconditions.checkNotNull(deserializer, "Deserializer has not been set for node data");
+        if (!isActive()) {
+            log.warn("Namespace mirror is not active. Ignoring refresh request for service: {}",
+                     service.getServiceName());
+            return Optional.empty();
+        }
+        try {
+            val healthcheckZombieCheckThresholdTime = healthcheckZombieCheckThresholdTime(service);
+            val previous = deserializer == cacheDeserializer
+                           ? nodeCache
+                           : Collections.<String, CachedNode<T>>emptyMap();
+            val instances = namespaceMirror.instances(service.getServiceName());
+            val healthRecords = namespaceMirror.healthRecords(service.getServiceName());
+            val updated = Maps.<String, CachedNode<T>>newHashMapWithExpectedSize(instances.size());
+            List<ServiceNode<T>> nodes = Lists.newArrayListWithCapacity(instances.size());
+            for (val instance : instances) {
+                val child = ZKPaths.getNodeFromPath(instance.getPath());
+                var cached = previous.get(child);
+                if (null == cached || cached.getMzxid() != instance.getStat().getMzxid()) {
+                    val data = instance.getData();
+                    cached = new CachedNode<>(instance.getStat().getMzxid(),
+                                              null == data || data.length <= 0
+                                              ? null
+                                              : deserializer.deserialize(data));
+                }
+                updated.put(child, cached);
+                if (null == cached.getNode()) {
+                    continue;
+                }
+                val healthRecord = healthRecords.get(child);
+                val node = null == healthRecord ? cached.getNode() : healthRecord.applyTo(cached.getNode());
+                if (FinderUtils.isValidNode(service, healthcheckZombieCheckThresholdTime, node)) {
+                    nodes.add(node);
+                }
+            }
+            nodeCache = updated;
+            cacheDeserializer = deserializer;
+            return Optional.of(nodes);
+        }
+        catch (Exception e) {
+            log.error("Error getting service data from namespace mirror: ", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void start() {
+        log.info("Node data source for {} reads from the namespace mirror. Nothing to start",
+                 service.getServiceName());
+    }
+
+    @Override
+    public void ensureConnected() {
+        //Connection is managed by the namespace mirror
+    }
+
+    @Override
+    public void stop() {
+        log.info("Node data source for {} stopped", service.getServiceName());
+    }
+
+    @Override
+    public boolean isActive() {
+        return namespaceMirror.isActive();
+    }
+
+    @Value
+    private static class CachedNode<T> {
+        long mzxid;
+        ServiceNode<T> node;
+    }
+}
@@ -17,22 +17,33 @@ package io.appform.ranger.zookeeper.servicefinder;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.util.FinderUtils;
+import io.appform.ranger.zookeeper.common.ZkHealthRecord;
 import io.appform.ranger.zookeeper.common.ZkNodeDataStoreConnector;
 import io.appform.ranger.zookeeper.common.ZkStoreType;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
 import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.zookeeper.KeeperException;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.apache.zookeeper.KeeperException.NoNodeException;
 
 /**
@@ -40,6 +51,11 @@ import org.apache.zookeeper.KeeperException.NoNodeException;
  */
 @Slf4j
 public class ZkNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends ZkNodeDataStoreConnector<T> implements NodeDataSource<T, D> {
+    private static final int MAX_OUTSTANDING_READS = 64;
+
+    private volatile Map<String, CachedNode<T>> nodeCache = Collections.emptyMap();
+    private volatile D cacheDeserializer;
+    private volatile boolean mostlyModified;
 
     public ZkNodeDataSource(
             Service service,
@@ -74,16 +90,24 @@ public class ZkNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends Zk
             }
             val parentPath = PathBuilder.servicePath(service);
             log.debug("Looking for node list of [{}]", serviceName);
-            val children = curatorFramework.getChildren().forPath(parentPath);
-            List<ServiceNode<T>> nodes = Lists.newArrayListWithCapacity(children.size());
+            val allChildren = curatorFramework.getChildren().forPath(parentPath);
+            val children = allChildren.stream()
+                    .filter(child -> !PathBuilder.HEALTH_NODE_NAME.equals(child))
+                    .toList();
             log.debug("Found {} nodes for [{}]", children.size(), serviceName);
+            val healthRecords = children.size() < allChildren.size()
+                                ? readHealthRecords()
+                                : Collections.<String, ZkHealthRecord>emptyMap();
+            val cache = readNodes(parentPath, children, healthRecords, deserializer);
+            List<ServiceNode<T>> nodes = Lists.newArrayListWithCapacity(cache.size());
             for (val child : children) {
-                byte[] data = readChild(parentPath, child).orElse(null);
-                if (data == null || data.length <= 0) {
+                val cached = cache.get(child);
+                if (null == cached || null == cached.getNode()) {
                     continue;
                 }
-                val node = deserializer.deserialize(data);
-                if(FinderUtils.isValidNode(service, healthcheckZombieCheckThresholdTime, node)) {
+                val healthRecord = healthRecords.get(child);
+                val node = null == healthRecord ? cached.getNode() : healthRecord.applyTo(cached.getNode());
+                if (FinderUtils.isValidNode(service, healthcheckZombieCheckThresholdTime, node)) {
                     nodes.add(node);
                 }
             }
@@ -93,6 +117,7 @@ public class ZkNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends Zk
             log.error(
                     "No ZK container node found for service: {}. Will return empty list for now. Please doublecheck service name",
                     service.getServiceName());
+            nodeCache = Collections.emptyMap();
             return Optional.of(Collections.emptyList());
         }
         catch (Exception e) {
@@ -101,19 +126,190 @@ public class ZkNodeDataSource<T, D extends ZkNodeDataDeserializer<T>> extends Zk
         return Optional.empty();
     }
 
-    private Optional<byte[]> readChild(String parentPath, String child) throws Exception {
-        final String path = String.format("%s/%s", parentPath, child);
+    /**
+     * Brings the cached nodes up to date with the given children. Children that are already cached are checked
+     * with an exists call and are read and deserialized again only if their data has been modified since
+     * (their mzxid changed). New children are read directly. Children with a health record that names the mzxid
+     * of the cached data need no check, so a refresh in the split layout reads only the health records as long as
+     * registrations do not change.
+     * Nodes in the combined layout rewrite their data on every heartbeat, in which case most of the checks find
+     * the node modified and only add a round of calls. The checks are therefore skipped while most of the known
+     * children changed in the previous refresh: all children are read, and only modified ones are deserialized.
+     */
+    private Map<String, CachedNode<T>> readNodes(
+            String parentPath,
+            List<String> children,
+            Map<String, ZkHealthRecord> healthRecords,
+            D deserializer) throws Exception {
+        var previous = nodeCache;
+        if (deserializer != cacheDeserializer) {
+            previous = Collections.emptyMap();
+        }
+        val updated = Maps.<String, CachedNode<T>>newHashMapWithExpectedSize(children.size());
+        val known = Lists.<String>newArrayList();
+        for (val child : children) {
+            val cached = previous.get(child);
+            if (null == cached) {
+                continue;
+            }
+            val healthRecord = healthRecords.get(child);
+            if (null != healthRecord && healthRecord.getRegistrationMzxid() == cached.getMzxid()) {
+                updated.put(child, cached);
+            }
+            else {
+                known.add(child);
+            }
+        }
+        if (!mostlyModified) {
+            val stats = pipelined(parentPath, known,
+                                  (path, callback) -> curatorFramework.checkExists()
+                                          .inBackground(callback)
+                                          .forPath(path));
+            for (int i = 0; i < known.size(); i++) {
+                val stat = null == stats.get(i) ? null : stats.get(i).getStat();
+                val cached = previous.get(known.get(i));
+                if (null != stat && stat.getMzxid() == cached.getMzxid()) {
+                    updated.put(known.get(i), cached);
+                }
+            }
+        }
+        val changed = children.stream()
+                .filter(child -> !updated.containsKey(child))
+                .toList();
+        val reads = pipelined(parentPath, changed,
+                              (path, callback) -> curatorFramework.getData()
+                                      .inBackground(callback)
+                                      .forPath(path));
+        int modified = 0;
+        for (int i = 0; i < changed.size(); i++) {
+            val event = reads.get(i);
+            if (null == event) {
+                continue;
+            }
+            val mzxid = event.getStat().getMzxid();
+            val cached = previous.get(changed.get(i));
+            if (null != cached && cached.getMzxid() == mzxid) {
+                updated.put(changed.get(i), cached);
+                continue;
+            }
+            if (null != cached) {
+                modified++;
+            }
+            val data = event.getData();
+            val node = null == data || data.length <= 0 ? null : deserializer.deserialize(data);
+            updated.put(changed.get(i), new CachedNode<>(mzxid, node));
+        }
+        log.debug("Read {} of {} nodes for [{}], {} modified", changed.size(), children.size(),
+                  service.getServiceName(), modified);
+        nodeCache = updated;
+        cacheDeserializer = deserializer;
+        mostlyModified = !known.isEmpty() && modified * 2 > known.size();
+        return updated;
+    }
+
+    /**
+     * Reads the health records of nodes written in the {@link io.appform.ranger.zookeeper.common.ZkNodeLayout#SPLIT}
+     * layout. Records are a few bytes each, so all of them are read on every refresh, and are read before the
+     * nodes, as they tell which nodes need to be checked.
+     */
+    private Map<String, ZkHealthRecord> readHealthRecords() throws Exception {
+        val healthRootPath = PathBuilder.healthRootPath(service);
+        final List<String> children;
         try {
-            return Optional.ofNullable(curatorFramework.getData().forPath(path));
+            children = curatorFramework.getChildren().forPath(healthRootPath);
+        }
+        catch (NoNodeException e) {
+            return Collections.emptyMap();
+        }
+        val reads = pipelined(healthRootPath, children,
+                              (path, callback) -> curatorFramework.getData()
+                                      .inBackground(callback)
+                                      .forPath(path));
+        val records = Maps.<String, ZkHealthRecord>newHashMapWithExpectedSize(children.size());
+        for (int i = 0; i < children.size(); i++) {
+            val record = null == reads.get(i) ? null : ZkHealthRecord.parse(reads.get(i).getData());
+            if (null != record) {
+                records.put(children.get(i), record);
+            }
         }
-        catch (KeeperException.NoNodeException e) {
+        return records;
+    }
+
+    /**
+     * Runs an operation on every child using background calls, so that the calls are pipelined on the ZK session
+     * instead of costing a round trip each. At most {@link #MAX_OUTSTANDING_READS} calls are in flight at a time.
+     * Children for which the call failed have a null entry in the returned list. All calls have to complete within
+     * the connection timeout, including the waits for a free slot, else the whole read fails.
+     */
+    private List<CuratorEvent> pipelined(String parentPath, List<String> children, BackgroundOperation operation)
+            throws Exception {
+        val results = new AtomicReferenceArray<CuratorEvent>(children.size());
+        val permits = new Semaphore(MAX_OUTSTANDING_READS);
+        val pending = new CountDownLatch(children.size());
+        val timeoutMs = curatorFramework.getZookeeperClient().getConnectionTimeoutMs();
+        val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (int i = 0; i < children.size(); i++) {
+            val index = i;
+            val path = String.format("%s/%s", parentPath, children.get(i));
+            if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw readTimeout();
+            }
+            try {
+                operation.run(path, (client, event) -> {
+                    try {
+                        if (isSuccessful(path, event)) {
+                            results.set(index, event);
+                        }
+                    }
+                    finally {
+                        permits.release();
+                        pending.countDown();
+                    }
+                });
+            }
+            catch (Exception e) {
+                permits.release();
+                pending.countDown();
+                throw e;
+            }
+        }
+        if (!pending.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            throw readTimeout();
+        }
+        val events = Lists.<CuratorEvent>newArrayListWithCapacity(children.size());
+        for (int i = 0; i < children.size(); i++) {
+            events.add(results.get(i));
+        }
+        return events;
+    }
+
+    private TimeoutException readTimeout() {
+        return new TimeoutException("Timed out reading nodes for service: " + service.getServiceName());
+    }
+
+    private static boolean isSuccessful(String path, CuratorEvent event) {
+        val code = KeeperException.Code.get(event.getResultCode());
+        if (code == KeeperException.Code.OK) {
+            return true;
+        }
+        if (code == KeeperException.Code.NONODE) {
             log.warn("Node not found for path {}", path);
-            return Optional.empty();
         }
-        catch (KeeperException e) {
-            log.error("Could not get data for node: " + path, e);
-            return Optional.empty();
+        else {
+            log.error("Could not get data for node: " + path, KeeperException.create(code, path));
         }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface BackgroundOperation {
+        void run(String path, BackgroundCallback callback) throws Exception;
+    }
+
+    @Value
+    private static class CachedNode<T> {
+        long mzxid;
+        ServiceNode<T> node;
     }
 
 }
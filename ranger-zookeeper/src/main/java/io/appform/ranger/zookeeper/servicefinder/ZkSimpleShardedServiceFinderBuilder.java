@@ -22,7 +22,9 @@ import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.signals.Signal;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinder.signals.ZkMirrorRegistryUpdateSignal;
 import io.appform.ranger.zookeeper.servicefinder.signals.ZkWatcherRegistryUpdateSignal;
+import io.appform.ranger.zookeeper.servicefinderhub.ZkNamespaceMirror;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
@@ -39,6 +41,7 @@ import java.util.List;
 public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedServiceFinderBuilder<T, ZkSimpleShardedServiceFinderBuilder<T>, ZkNodeDataDeserializer<T>> {
     protected CuratorFramework curatorFramework;
     protected String connectionString;
+    protected ZkNamespaceMirror namespaceMirror;
 
     public ZkSimpleShardedServiceFinderBuilder<T> withCuratorFramework(CuratorFramework curatorFramework) {
         this.curatorFramework = curatorFramework;
@@ -50,6 +53,17 @@ public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedService
         return this;
     }
 
+    /**
+     * Read nodes from a namespace mirror shared by all finders of a hub, instead of from ZK
+     *
+     * @param namespaceMirror started mirror of the namespace of the service
+     * @return builder for next call
+     */
+    public ZkSimpleShardedServiceFinderBuilder<T> withNamespaceMirror(final ZkNamespaceMirror namespaceMirror) {
+        this.namespaceMirror = namespaceMirror;
+        return this;
+    }
+
     @Override
     public SimpleShardedServiceFinder<T> build() {
         val curatorProvided = curatorFramework != null;
@@ -67,6 +81,9 @@ public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedService
 
     @Override
     protected NodeDataSource<T, ZkNodeDataDeserializer<T>> dataSource(Service service) {
+        if (null != namespaceMirror) {
+            return new ZkMirrorNodeDataSource<>(service, namespaceMirror);
+        }
         return new ZkNodeDataSource<>(service, curatorFramework);
     }
 
@@ -74,7 +91,10 @@ public class ZkSimpleShardedServiceFinderBuilder<T> extends SimpleShardedService
     protected List<Signal<T>> implementationSpecificRefreshSignals(final Service service, final NodeDataSource<T, ZkNodeDataDeserializer<T>> nodeDataSource) {
         if (!disablePushUpdaters) {
             return Collections.singletonList(
-                    new ZkWatcherRegistryUpdateSignal<>(service, nodeDataSource, curatorFramework));
+                    null != namespaceMirror
+                    ? new ZkMirrorRegistryUpdateSignal<>(service, namespaceMirror, nodeRefreshIntervalMs)
+                    : new ZkWatcherRegistryUpdateSignal<>(service, nodeDataSource, curatorFramework,
+                                                         nodeRefreshIntervalMs));
         }
         else {
             log.info("Push based signal updater not registered for service: {}", service.getServiceName());
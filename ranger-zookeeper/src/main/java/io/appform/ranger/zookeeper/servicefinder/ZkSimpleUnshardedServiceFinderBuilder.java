@@ -22,7 +22,9 @@ import io.appform.ranger.core.model.NodeDataSource;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.signals.Signal;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinder.signals.ZkMirrorRegistryUpdateSignal;
 import io.appform.ranger.zookeeper.servicefinder.signals.ZkWatcherRegistryUpdateSignal;
+import io.appform.ranger.zookeeper.servicefinderhub.ZkNamespaceMirror;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
@@ -40,6 +42,7 @@ public class ZkSimpleUnshardedServiceFinderBuilder<T>
         extends SimpleUnshardedServiceFinderBuilder<T, ZkSimpleUnshardedServiceFinderBuilder<T>, ZkNodeDataDeserializer<T>> {
     private CuratorFramework curatorFramework;
     private String connectionString;
+    private ZkNamespaceMirror namespaceMirror;
 
     public ZkSimpleUnshardedServiceFinderBuilder<T> withCuratorFramework(CuratorFramework curatorFramework) {
         this.curatorFramework = curatorFramework;
@@ -51,6 +54,17 @@ public class ZkSimpleUnshardedServiceFinderBuilder<T>
         return this;
     }
 
+    /**
+     * Read nodes from a namespace mirror shared by all finders of a hub, instead of from ZK
+     *
+     * @param namespaceMirror started mirror of the namespace of the service
+     * @return builder for next call
+     */
+    public ZkSimpleUnshardedServiceFinderBuilder<T> withNamespaceMirror(final ZkNamespaceMirror namespaceMirror) {
+        this.namespaceMirror = namespaceMirror;
+        return this;
+    }
+
     @Override
     public SimpleUnshardedServiceFinder<T> build() {
         val curatorProvided = curatorFramework != null;
@@ -69,6 +83,9 @@ public class ZkSimpleUnshardedServiceFinderBuilder<T>
     @Override
     protected NodeDataSource<T, ZkNodeDataDeserializer<T>> dataSource(
             Service service) {
+        if (null != namespaceMirror) {
+            return new ZkMirrorNodeDataSource<>(service, namespaceMirror);
+        }
         return new ZkNodeDataSource<>(service, curatorFramework);
     }
 
@@ -78,7 +95,10 @@ public class ZkSimpleUnshardedServiceFinderBuilder<T>
             final Service service, final NodeDataSource<T, ZkNodeDataDeserializer<T>> nodeDataSource) {
         if (!disablePushUpdaters) {
             return Collections.singletonList(
-                    new ZkWatcherRegistryUpdateSignal<>(service, nodeDataSource, curatorFramework));
+                    null != namespaceMirror
+                    ? new ZkMirrorRegistryUpdateSignal<>(service, namespaceMirror, nodeRefreshIntervalMs)
+                    : new ZkWatcherRegistryUpdateSignal<>(service, nodeDataSource, curatorFramework,
+                                                         nodeRefreshIntervalMs));
         }
         else {
             log.info("Push based signal updater not registered for service: {}", service.getServiceName());
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder.signals;
+
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.signals.Signal;
+import io.appform.ranger.zookeeper.servicefinderhub.ZkNamespaceMirror;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Signals a refresh whenever the {@link ZkNamespaceMirror} sees a change to the instances of the service. Like
+ * {@link ZkWatcherRegistryUpdateSignal}, instances being added or removed and health transitions are signalled
+ * right away, while data rewritten by instances (on every heartbeat in the combined layout) signals a refresh at
+ * most once per {@code minDataChangeIntervalMs}. Changes in between are picked up by the scheduled refresh.
+ */
+@Slf4j
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ZkMirrorRegistryUpdateSignal<T> extends Signal<T> {
+    private final Service service;
+    private final long minDataChangeIntervalNanos;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicLong lastSignalled = new AtomicLong(System.nanoTime());
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final ZkNamespaceMirror namespaceMirror;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Consumer<ZkNamespaceMirror.ServiceChange> listener;
+
+    public ZkMirrorRegistryUpdateSignal(Service service, ZkNamespaceMirror namespaceMirror) {
+        this(service, namespaceMirror, ZkWatcherRegistryUpdateSignal.DEFAULT_MIN_DATA_CHANGE_INTERVAL_MS);
+    }
+
+    /**
+     * @param minDataChangeIntervalMs min time between refreshes signalled by data changes of instances. Should be
+     *                                the node refresh interval of the finder
+     */
+    public ZkMirrorRegistryUpdateSignal(
+            Service service,
+            ZkNamespaceMirror namespaceMirror,
+            long minDataChangeIntervalMs) {
+        super(() -> null, Collections.emptyList());
+        this.service = service;
+        this.namespaceMirror = namespaceMirror;
+        this.minDataChangeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minDataChangeIntervalMs);
+        this.listener = change -> {
+            if (stopped.get()) {
+                return;
+            }
+            if (change == ZkNamespaceMirror.ServiceChange.NODE_DATA && !isDataChangeSignalDue()) {
+                log.trace("Skipping refresh for data change of service {}", service.getServiceName());
+                return;
+            }
+            lastSignalled.set(System.nanoTime());
+            onSignalReceived();
+        };
+    }
+
+    @Override
+    public void start() {
+        namespaceMirror.addServiceListener(service.getServiceName(), listener);
+        log.info("Listening to namespace mirror for changes to service: {}", service.getServiceName());
+    }
+
+    @Override
+    public void stop() {
+        if (stopped.getAndSet(true)) {
+            return;
+        }
+        namespaceMirror.removeServiceListener(service.getServiceName(), listener);
+    }
+
+    private boolean isDataChangeSignalDue() {
+        return System.nanoTime() - lastSignalled.get() >= minDataChangeIntervalNanos;
+    }
+}
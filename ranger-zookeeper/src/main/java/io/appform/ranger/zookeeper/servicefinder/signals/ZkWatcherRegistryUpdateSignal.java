@@ -22,31 +22,105 @@ import io.appform.ranger.zookeeper.util.PathBuilder;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.zookeeper.AddWatchMode;
+import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.Watcher;
 
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- *
+ * Signals a refresh whenever instances of the service are added or removed, or when an instance updates its data
+ * (for example its health status). A persistent recursive watch is set on the service node, so the watch does
+ * not have to be re-armed after every event. Watches are set up again and a refresh is signalled after the
+ * connection to ZK is re-established, as events may have been missed and watches are lost with an expired session.
+ * Instances written in the combined layout rewrite their data on every heartbeat, so data changes of instances
+ * signal a refresh at most once per {@code minDataChangeIntervalMs}. Changes in between are picked up by the
+ * scheduled refresh. Instances added or removed, and health records of the split layout (which are written only
+ * when the health of a node changes or a heartbeat is due, see {@code ZkNodeDataSink}), always signal a refresh
+ * right away.
+ * On ZK servers that do not support persistent watches (before 3.6), a one-shot watch on the children of the
+ * service node is used and re-armed after every event. Only instances being added or removed are signalled then;
+ * data changes are left to the scheduled refresh, as a data watch per instance would have to be re-armed after
+ * every heartbeat.
  */
 @Slf4j
 @EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
 public class ZkWatcherRegistryUpdateSignal<T> extends Signal<T> {
+    public static final int DEFAULT_MIN_DATA_CHANGE_INTERVAL_MS = 1_000;
+
     private final Service service;
     private final NodeDataStoreConnector<T> dataSource;
     private final CuratorFramework curatorFramework;
+    private final long minDataChangeIntervalNanos;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicLong lastSignalled = new AtomicLong(System.nanoTime());
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicBoolean persistentWatchSupported = new AtomicBoolean(true);
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final CuratorWatcher watcher;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final ConnectionStateListener connectionStateListener;
 
     public ZkWatcherRegistryUpdateSignal(
             Service service,
             NodeDataStoreConnector<T> dataSource,
             CuratorFramework curatorFramework) {
+        this(service, dataSource, curatorFramework, DEFAULT_MIN_DATA_CHANGE_INTERVAL_MS);
+    }
+
+    /**
+     * @param minDataChangeIntervalMs min time between refreshes signalled by data changes of instances. Should be
+     *                                the node refresh interval of the finder
+     */
+    public ZkWatcherRegistryUpdateSignal(
+            Service service,
+            NodeDataStoreConnector<T> dataSource,
+            CuratorFramework curatorFramework,
+            long minDataChangeIntervalMs) {
         super(() -> null, Collections.emptyList());
         this.service = service;
         this.dataSource = dataSource;
         this.curatorFramework = curatorFramework;
+        this.minDataChangeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minDataChangeIntervalMs);
+        val healthRootPath = PathBuilder.healthRootPath(service);
+        this.watcher = event -> {
+            if (stopped.get() || event.getType() == Watcher.Event.EventType.None) {
+                return;
+            }
+            if (!persistentWatchSupported.get()) {
+                setupWatch();
+            }
+            if (event.getType() == Watcher.Event.EventType.NodeDataChanged
+                    && !event.getPath().startsWith(healthRootPath)
+                    && !isDataChangeSignalDue()) {
+                log.trace("Skipping refresh for data change of {}", event.getPath());
+                return;
+            }
+            signal();
+        };
+        this.connectionStateListener = (client, newState) -> {
+            if (!stopped.get() && newState == ConnectionState.RECONNECTED) {
+                log.info("Reconnected to ZK, setting up watchers again for service: {}", service.getServiceName());
+                setupWatch();
+                signal();
+            }
+        };
     }
 
     @Override
@@ -54,22 +128,62 @@ public class ZkWatcherRegistryUpdateSignal<T> extends Signal<T> {
         dataSource.ensureConnected();
         log.info("Node data source is connected, Initializing watchers for service: {}",
                  service.getServiceName());
-        try {
-            curatorFramework.getChildren()
-                    .usingWatcher((CuratorWatcher) event -> {
-                        if (event.getType() == Watcher.Event.EventType.NodeChildrenChanged) {
-                            onSignalReceived();
-                        }
-                    })
-                    .forPath(PathBuilder.servicePath(service)); //Start watcher on service node
-        } catch (Exception e) {
-            log.error("Could not setup ZK watchers for service: " + service.getServiceName(), e);
-        }
+        curatorFramework.getConnectionStateListenable().addListener(connectionStateListener);
+        setupWatch();
         log.info("Started polling zookeeper for changes for service: {}", service.getServiceName());
     }
 
     @Override
     public void stop() {
-        //Nothing to stop here
+        if (stopped.getAndSet(true)) {
+            return;
+        }
+        curatorFramework.getConnectionStateListenable().removeListener(connectionStateListener);
+        try {
+            curatorFramework.watchers()
+                    .remove(watcher)
+                    .ofType(Watcher.WatcherType.Any)
+                    .quietly()
+                    .forPath(PathBuilder.servicePath(service));
+        }
+        catch (Exception e) {
+            log.debug("Could not remove ZK watcher for service {}: {}", service.getServiceName(), e.getMessage());
+        }
+    }
+
+    private boolean isDataChangeSignalDue() {
+        return System.nanoTime() - lastSignalled.get() >= minDataChangeIntervalNanos;
+    }
+
+    private void signal() {
+        lastSignalled.set(System.nanoTime());
+        onSignalReceived();
+    }
+
+    private void setupWatch() {
+        val path = PathBuilder.servicePath(service);
+        try {
+            if (persistentWatchSupported.get()) {
+                try {
+                    curatorFramework.watchers()
+                            .add()
+                            .withMode(AddWatchMode.PERSISTENT_RECURSIVE)
+                            .usingWatcher(watcher)
+                            .forPath(path);
+                    return;
+                }
+                catch (KeeperException.UnimplementedException e) {
+                    log.info("ZK server does not support persistent watches, watching children of service: {}",
+                             service.getServiceName());
+                    persistentWatchSupported.set(false);
+                }
+            }
+            curatorFramework.getChildren()
+                    .usingWatcher(watcher)
+                    .forPath(path);
+        }
+        catch (Exception e) {
+            log.error("Could not setup ZK watchers for service: " + service.getServiceName(), e);
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.zookeeper.servicefinderhub;
 
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.SimpleUnshardedServiceFinder;
 import io.appform.ranger.core.finder.serviceregistry.ListBasedServiceRegistry;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
@@ -37,6 +38,8 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
     private final ZkNodeDataDeserializer<T> deserializer;
     private final ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshExecutor refreshExecutor;
+    private final ZkNamespaceMirror namespaceMirror;
 
     @Builder
     public ZKUnshardedServiceFinderFactory(
@@ -46,7 +49,9 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
             boolean disablePushUpdaters,
             ZkNodeDataDeserializer<T> deserializer,
             ShardSelector<T, ListBasedServiceRegistry<T>> shardSelector,
-            ServiceNodeSelector<T> nodeSelector) {
+            ServiceNodeSelector<T> nodeSelector,
+            RefreshExecutor refreshExecutor,
+            ZkNamespaceMirror namespaceMirror) {
         this.curatorFramework = curatorFramework;
         this.connectionString = connectionString;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
@@ -54,6 +59,8 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshExecutor = refreshExecutor;
+        this.namespaceMirror = namespaceMirror;
     }
 
     @Override
@@ -68,6 +75,8 @@ public class ZKUnshardedServiceFinderFactory<T> implements ServiceFinderFactory<
                 .withNodeSelector(nodeSelector)
                 .withConnectionString(connectionString)
                 .withCuratorFramework(curatorFramework)
+                .withRefreshExecutor(refreshExecutor)
+                .withNamespaceMirror(namespaceMirror)
                 .build();
         finder.start();
         return finder;
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinderhub;
+
+import com.google.common.base.Preconditions;
+import io.appform.ranger.zookeeper.common.ZkHealthRecord;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.imps.CuratorFrameworkState;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.CuratorCache;
+import org.apache.curator.framework.recipes.cache.CuratorCacheListener;
+import org.apache.curator.framework.recipes.cache.CuratorCacheStorage;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.curator.utils.ZKPaths;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of all services and instances registered in a ZK namespace, kept up to date through a single
+ * {@link CuratorCache} (one persistent recursive watch) on the namespace. Hubs can use it in place of listing
+ * the namespace and polling every service: see {@link ZkServiceDataSource} for the service catalog and
+ * {@link io.appform.ranger.zookeeper.servicefinder.ZkMirrorNodeDataSource} for the nodes of a service.
+ * Listeners are notified of every change to the services or to the instances of a service, so that only the
+ * affected registries are refreshed. Service listeners are told the kind of change, see {@link ServiceChange}, as
+ * instances in the combined layout rewrite their data on every heartbeat.
+ * The mirror is only active while it is known to be in sync with ZK. It turns inactive as soon as the connection
+ * is suspended or lost, as instances stop getting updates and would soon look like zombies. After a reconnect the
+ * whole namespace is loaded again into a new cache, and only once that load is done is the mirror switched over
+ * to it, marked active and all listeners notified.
+ * Health records of nodes written in the {@link io.appform.ranger.zookeeper.common.ZkNodeLayout#SPLIT} layout
+ * are mirrored as well, see {@link #healthRecords(String)}.
+ * Needs ZK 3.6 or above. The curator framework must be started before the mirror is started.
+ */
+@Slf4j
+public class ZkNamespaceMirror implements Closeable {
+    public static final long DEFAULT_INITIAL_LOAD_TIMEOUT_MS = 30_000;
+
+    private final CuratorFramework curatorFramework;
+    private final long initialLoadTimeoutMs;
+    private final Map<String, Set<Consumer<ServiceChange>>> serviceListeners = new ConcurrentHashMap<>();
+    private final List<Runnable> catalogListeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch initialized = new CountDownLatch(1);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final ConnectionStateListener connectionStateListener;
+    private final Object syncLock = new Object();
+    //Guarded by syncLock
+    private long connectionEpoch;
+    private Generation syncing;
+    private boolean closed;
+    private volatile Generation current;
+    private volatile boolean synced;
+
+    public ZkNamespaceMirror(CuratorFramework curatorFramework) {
+        this(curatorFramework, DEFAULT_INITIAL_LOAD_TIMEOUT_MS);
+    }
+
+    /**
+     * @param curatorFramework     curator framework for the namespace to be mirrored
+     * @param initialLoadTimeoutMs max time {@link #start()} waits for the namespace to be loaded
+     */
+    public ZkNamespaceMirror(CuratorFramework curatorFramework, long initialLoadTimeoutMs) {
+        Preconditions.checkNotNull(curatorFramework, "Curator framework can't be null");
+        this.curatorFramework = curatorFramework;
+        this.initialLoadTimeoutMs = initialLoadTimeoutMs;
+        this.current = new Generation(0);
+        this.connectionStateListener = (client, newState) -> onConnectionStateChanged(newState);
+    }
+
+    public void start() {
+        if (started.getAndSet(true)) {
+            log.info("Namespace mirror is already started. Ignoring.");
+            return;
+        }
+        curatorFramework.getConnectionStateListenable().addListener(connectionStateListener);
+        synchronized (syncLock) {
+            syncing = current;
+        }
+        current.start();
+        try {
+            if (!initialized.await(initialLoadTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Namespace mirror could not be loaded in {} ms. It will stay inactive till loaded",
+                         initialLoadTimeoutMs);
+            }
+        }
+        catch (InterruptedException e) {
+            log.error("Interrupted while waiting for namespace mirror to load");
+            Thread.currentThread().interrupt();
+        }
+        log.info("Namespace mirror started with {} services", current.services.size());
+    }
+
+    @Override
+    public void close() {
+        curatorFramework.getConnectionStateListenable().removeListener(connectionStateListener);
+        synchronized (syncLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synced = false;
+            if (null != syncing) {
+                syncing.close();
+            }
+            current.close();
+        }
+        log.info("Namespace mirror closed");
+    }
+
+    /**
+     * @return true if the mirror is started, connected to ZK and in sync with it
+     */
+    public boolean isActive() {
+        return started.get() && synced && curatorFramework.getState() == CuratorFrameworkState.STARTED;
+    }
+
+    /**
+     * @return names of all services in the namespace
+     */
+    public Set<String> services() {
+        return Set.copyOf(current.services.keySet());
+    }
+
+    /**
+     * @param serviceName name of the service
+     * @return data of all instances of the service, empty if the service is not present
+     */
+    public List<ChildData> instances(String serviceName) {
+        val instances = current.services.get(serviceName);
+        return null == instances ? Collections.emptyList() : List.copyOf(instances.values());
+    }
+
+    /**
+     * @param serviceName name of the service
+     * @return health records of the instances of the service by instance name, for instances that have one
+     */
+    public Map<String, ZkHealthRecord> healthRecords(String serviceName) {
+        val records = current.healthRecords.get(serviceName);
+        return null == records ? Collections.emptyMap() : Map.copyOf(records);
+    }
+
+    public void addCatalogListener(Runnable listener) {
+        catalogListeners.add(listener);
+    }
+
+    public void removeCatalogListener(Runnable listener) {
+        catalogListeners.remove(listener);
+    }
+
+    public void addServiceListener(String serviceName, Consumer<ServiceChange> listener) {
+        serviceListeners.computeIfAbsent(serviceName, name -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    public void removeServiceListener(String serviceName, Consumer<ServiceChange> listener) {
+        serviceListeners.computeIfPresent(serviceName, (name, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    private void onConnectionStateChanged(ConnectionState newState) {
+        if (newState == ConnectionState.SUSPENDED || newState == ConnectionState.LOST) {
+            synchronized (syncLock) {
+                connectionEpoch++;
+                if (synced) {
+                    log.warn("ZK connection {}. Namespace mirror is inactive till it is synced again", newState);
+                }
+                synced = false;
+            }
+        }
+        else if (newState == ConnectionState.RECONNECTED) {
+            final Generation next;
+            synchronized (syncLock) {
+                if (closed) {
+                    return;
+                }
+                connectionEpoch++;
+                synced = false;
+                if (null != syncing && syncing != current) {
+                    syncing.close();
+                }
+                //The copy loaded afresh replaces the current one, which therefore does not have to catch up
+                current.close();
+                next = new Generation(connectionEpoch);
+                syncing = next;
+            }
+            log.info("Reconnected to ZK. Namespace mirror will be loaded again");
+            next.start();
+        }
+    }
+
+    private void onLoaded(Generation generation) {
+        synchronized (syncLock) {
+            if (closed || generation != syncing || generation.epoch != connectionEpoch) {
+                log.info("Connection to ZK changed while loading the namespace mirror. Discarding loaded data");
+                if (generation != current) {
+                    generation.close();
+                }
+                return;
+            }
+            current = generation;
+            syncing = null;
+            synced = true;
+        }
+        initialized.countDown();
+        log.info("Namespace mirror is in sync with {} services", generation.services.size());
+        catalogListeners.forEach(ZkNamespaceMirror::notify);
+        serviceListeners.values()
+                .forEach(listeners -> listeners.forEach(listener -> notify(listener, ServiceChange.NODES)));
+    }
+
+    private void onEvent(Generation generation, CuratorCacheListener.Type type, ChildData oldData, ChildData data) {
+        val path = (null != data ? data : oldData).getPath();
+        val parts = ZKPaths.split(path);
+        if (parts.isEmpty()) {
+            return;
+        }
+        //Changes are applied to copies being loaded, but listeners only hear of changes to the synced copy
+        val notify = generation == current && synced;
+        val serviceName = parts.get(0);
+        if (parts.size() == 1) {
+            if (type == CuratorCacheListener.Type.NODE_CREATED) {
+                generation.services.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>());
+                if (notify) {
+                    catalogListeners.forEach(ZkNamespaceMirror::notify);
+                }
+            }
+            else if (type == CuratorCacheListener.Type.NODE_DELETED) {
+                generation.services.remove(serviceName);
+                generation.healthRecords.remove(serviceName);
+                if (notify) {
+                    catalogListeners.forEach(ZkNamespaceMirror::notify);
+                    notifyService(serviceName, ServiceChange.NODES);
+                }
+            }
+            return;
+        }
+        final ServiceChange change;
+        if (PathBuilder.HEALTH_NODE_NAME.equals(parts.get(1))) {
+            change = onHealthEvent(generation, type, serviceName, parts, data);
+        }
+        else if (parts.size() == 2) {
+            val instances = generation.services.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>());
+            if (type == CuratorCacheListener.Type.NODE_DELETED) {
+                instances.remove(parts.get(1));
+            }
+            else {
+                instances.put(parts.get(1), data);
+            }
+            change = type == CuratorCacheListener.Type.NODE_CHANGED ? ServiceChange.NODE_DATA : ServiceChange.NODES;
+        }
+        else {
+            change = ServiceChange.NODE_DATA;
+        }
+        if (notify) {
+            notifyService(serviceName, change);
+        }
+    }
+
+    private static ServiceChange onHealthEvent(
+            Generation generation,
+            CuratorCacheListener.Type type,
+            String serviceName,
+            List<String> parts,
+            ChildData data) {
+        if (parts.size() == 2) {
+            if (type == CuratorCacheListener.Type.NODE_DELETED) {
+                generation.healthRecords.remove(serviceName);
+            }
+            return ServiceChange.NODES;
+        }
+        if (parts.size() != 3) {
+            return ServiceChange.NODE_DATA;
+        }
+        val records = generation.healthRecords.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>());
+        val record = type == CuratorCacheListener.Type.NODE_DELETED ? null : ZkHealthRecord.parse(data.getData());
+        val previous = null == record ? records.remove(parts.get(2)) : records.put(parts.get(2), record);
+        //A record written again with the same health is a heartbeat
+        return null != record
+                       && null != previous
+                       && record.getHealthcheckStatus() == previous.getHealthcheckStatus()
+                       && record.getHealthScore() == previous.getHealthScore()
+               ? ServiceChange.NODE_DATA
+               : ServiceChange.NODES;
+    }
+
+    private void notifyService(String serviceName, ServiceChange change) {
+        val listeners = serviceListeners.get(serviceName);
+        if (null != listeners) {
+            listeners.forEach(listener -> notify(listener, change));
+        }
+    }
+
+    private static void notify(Runnable listener) {
+        try {
+            listener.run();
+        }
+        catch (Exception e) {
+            log.error("Error notifying namespace mirror listener", e);
+        }
+    }
+
+    private static void notify(Consumer<ServiceChange> listener, ServiceChange change) {
+        try {
+            listener.accept(change);
+        }
+        catch (Exception e) {
+            log.error("Error notifying namespace mirror listener", e);
+        }
+    }
+
+    /**
+     * Kind of change to the instances of a service
+     */
+    public enum ServiceChange {
+        /**
+         * Instances added or removed, or the health status or score of an instance changed in its health record.
+         * Also sent to all listeners once the mirror is in sync again
+         */
+        NODES,
+        /**
+         * Data of an instance or its health record written again without any of the above. Providers rewrite
+         * their data on every heartbeat, so these are frequent
+         */
+        NODE_DATA
+    }
+
+    /**
+     * A copy of the namespace, loaded by a cache of its own. A new copy is loaded after every reconnect.
+     */
+    private final class Generation {
+        private final long epoch;
+        private final CuratorCache cache;
+        private final Map<String, Map<String, ChildData>> services = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, ZkHealthRecord>> healthRecords = new ConcurrentHashMap<>();
+        private boolean cacheStarted;
+        private boolean cacheClosed;
+
+        private Generation(long epoch) {
+            this.epoch = epoch;
+            this.cache = CuratorCache.builder(curatorFramework, PathBuilder.REGISTERED_SERVICES_PATH)
+                    .withStorage(CuratorCacheStorage.dataNotCached())
+                    .build();
+            this.cache.listenable().addListener(new CuratorCacheListener() {
+                @Override
+                public void event(Type type, ChildData oldData, ChildData data) {
+                    onEvent(Generation.this, type, oldData, data);
+                }
+
+                @Override
+                public void initialized() {
+                    onLoaded(Generation.this);
+                }
+            });
+        }
+
+        private synchronized void start() {
+            if (cacheStarted || cacheClosed) {
+                return;
+            }
+            cacheStarted = true;
+            cache.start();
+        }
+
+        private synchronized void close() {
+            if (cacheClosed) {
+                return;
+            }
+            cacheClosed = true;
+            if (cacheStarted) {
+                cache.close();
+            }
+        }
+    }
+}
@@ -40,18 +40,37 @@ public class ZkServiceDataSource implements ServiceDataSource {
     private final String connectionString;
     private CuratorFramework curatorFramework;
     private boolean curatorProvided;
+    private final ZkNamespaceMirror namespaceMirror;
 
     public ZkServiceDataSource(String namespace,
                                String connectionString,
                                CuratorFramework curatorFramework){
+        this(namespace, connectionString, curatorFramework, null);
+    }
+
+    /**
+     * @param namespaceMirror if not null, services are read from this mirror instead of from ZK. The mirror is
+     *                        started and closed along with this data source
+     */
+    public ZkServiceDataSource(String namespace,
+                               String connectionString,
+                               CuratorFramework curatorFramework,
+                               ZkNamespaceMirror namespaceMirror){
         this.namespace = namespace;
         this.connectionString = connectionString;
         this.curatorFramework = curatorFramework;
+        this.namespaceMirror = namespaceMirror;
     }
 
     @Override
     @SneakyThrows
     public Collection<Service> services() {
+        if (null != namespaceMirror) {
+            return namespaceMirror.services()
+                    .stream()
+                    .map(child -> Service.builder().namespace(namespace).serviceName(child).build())
+                    .collect(Collectors.toSet());
+        }
         val children = curatorFramework.getChildren()
                 .forPath(PathBuilder.REGISTERED_SERVICES_PATH);
         return null == children ? Collections.emptySet() :
@@ -80,12 +99,18 @@ public class ZkServiceDataSource implements ServiceDataSource {
             log.error("Curator block interrupted", e);
             Thread.currentThread().interrupt();
         }
+        if (null != namespaceMirror) {
+            namespaceMirror.start();
+        }
         log.info("Service data source started. Curator state is: {}", curatorFramework.getState().name());
     }
 
     @Override
     public void stop() {
         log.info("Service data stopped");
+        if (null != namespaceMirror) {
+            namespaceMirror.close();
+        }
         if(!curatorProvided) curatorFramework.close();
         log.info("Service data source stopped");
     }
@@ -19,11 +19,15 @@ import com.google.common.base.Preconditions;
 import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.finderhub.ServiceFinderHubBuilder;
 import io.appform.ranger.core.model.ServiceRegistry;
+import io.appform.ranger.core.signals.ExternalTriggeredSignal;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 
+import java.util.Collections;
+
 /**
  *
  */
@@ -32,6 +36,7 @@ public class ZkServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> extends
     private String namespace;
     private CuratorFramework curatorFramework;
     private String connectionString;
+    private ZkNamespaceMirror namespaceMirror;
 
     public ZkServiceFinderHubBuilder<T, R> withNamespace(final String namespace) {
         this.namespace = namespace;
@@ -48,8 +53,25 @@ public class ZkServiceFinderHubBuilder<T, R extends ServiceRegistry<T>> extends
         return this;
     }
 
+    /**
+     * Refresh the list of services as soon as the namespace mirror sees a service being added or removed.
+     * The same mirror should be passed to the {@link ZkServiceDataSource} and the finder factory used by the hub.
+     *
+     * @param namespaceMirror mirror of the namespace
+     * @return builder for next call
+     */
+    public ZkServiceFinderHubBuilder<T, R> withNamespaceMirror(final ZkNamespaceMirror namespaceMirror) {
+        this.namespaceMirror = namespaceMirror;
+        return this;
+    }
+
     @Override
     protected void preBuild() {
+        if (null != namespaceMirror) {
+            val catalogSignal = new ExternalTriggeredSignal<Void>(() -> null, Collections.emptyList());
+            namespaceMirror.addCatalogListener(catalogSignal::trigger);
+            super.withExtraRefreshSignal(catalogSignal);
+        }
         if (null == curatorFramework) {
             Preconditions.checkNotNull(connectionString);
             log.info("Building custom curator framework");
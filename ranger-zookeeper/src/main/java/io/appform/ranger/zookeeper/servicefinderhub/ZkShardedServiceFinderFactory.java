@@ -15,6 +15,7 @@
  */
 package io.appform.ranger.zookeeper.servicefinderhub;
 
+import io.appform.ranger.core.executor.RefreshExecutor;
 import io.appform.ranger.core.finder.SimpleShardedServiceFinder;
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
 import io.appform.ranger.core.finderhub.ServiceFinderFactory;
@@ -38,6 +39,8 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
     private final ZkNodeDataDeserializer<T> deserializer;
     private final ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector;
     private final ServiceNodeSelector<T> nodeSelector;
+    private final RefreshExecutor refreshExecutor;
+    private final ZkNamespaceMirror namespaceMirror;
 
     @Builder
     public ZkShardedServiceFinderFactory(
@@ -47,7 +50,9 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
             boolean disablePushUpdaters,
             ZkNodeDataDeserializer<T> deserializer,
             ShardSelector<T, MapBasedServiceRegistry<T>> shardSelector,
-            ServiceNodeSelector<T> nodeSelector) {
+            ServiceNodeSelector<T> nodeSelector,
+            RefreshExecutor refreshExecutor,
+            ZkNamespaceMirror namespaceMirror) {
         this.curatorFramework = curatorFramework;
         this.connectionString = connectionString;
         this.nodeRefreshIntervalMs = nodeRefreshIntervalMs;
@@ -55,6 +60,8 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
         this.deserializer = deserializer;
         this.shardSelector = shardSelector;
         this.nodeSelector = nodeSelector;
+        this.refreshExecutor = refreshExecutor;
+        this.namespaceMirror = namespaceMirror;
     }
 
     @Override
@@ -69,6 +76,8 @@ public class ZkShardedServiceFinderFactory<T> implements ServiceFinderFactory<T,
                 .withNodeSelector(nodeSelector)
                 .withConnectionString(connectionString)
                 .withCuratorFramework(curatorFramework)
+                .withRefreshExecutor(refreshExecutor)
+                .withNamespaceMirror(namespaceMirror)
                 .build();
         finder.start();
         return finder;
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.serviceprovider;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Settings for the heartbeat mode of {@link ZkNodeDataSink}, in which node data is written only when the state
+ * of the node changes or its last update is about to be considered stale by finders
+ */
+@Value
+@Builder
+public class ZkHeartbeatConfig {
+    /**
+     * Max time between two writes of unchanged node data. Must be well below the zombie check threshold of
+     * finders (1 minute by default)
+     */
+    @Builder.Default
+    long maxHeartbeatIntervalMs = 30_000;
+    /**
+     * Heartbeats are sent up to this percentage of the interval early, at random, so that nodes started
+     * together do not keep writing together
+     */
+    @Builder.Default
+    int jitterPercent = 20;
+}
@@ -20,25 +20,107 @@ import io.appform.ranger.core.model.NodeDataSink;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.model.ServiceNode;
 import io.appform.ranger.core.util.Exceptions;
+import io.appform.ranger.zookeeper.common.ZkHealthRecord;
 import io.appform.ranger.zookeeper.common.ZkNodeDataStoreConnector;
+import io.appform.ranger.zookeeper.common.ZkNodeLayout;
 import io.appform.ranger.zookeeper.common.ZkStoreType;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataSerializer;
 import io.appform.ranger.zookeeper.util.PathBuilder;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- *
+ * Writes the state of a node to ZK. By default, every update is written. In heartbeat mode (see
+ * {@link ZkHeartbeatConfig}), an update is written only if the health status, score or data of the node has
+ * changed, or if the last write is about to become stale. Writes in heartbeat mode are a single versioned
+ * setData, the node is created only if it turns out to be missing.
+ * In the {@link ZkNodeLayout#SPLIT} layout, the node is written to the instance path only when its registration
+ * data changes, and writes in between store just a small {@link ZkHealthRecord} at the health path of the instance.
+ * The split layout always runs in heartbeat mode, with the default {@link ZkHeartbeatConfig} if none is given, so
+ * the health record is written only when the health status or score changes or a heartbeat is due. The record
+ * carries the mzxid of the registration data, so that finders re-read the instance path only when it changes.
  */
 @Slf4j
 public class ZkNodeDataSink<T, S extends ZkNodeDataSerializer<T>> extends ZkNodeDataStoreConnector<T> implements NodeDataSink<T,S> {
+    private final ZkHeartbeatConfig heartbeatConfig;
+    private final ZkNodeLayout layout;
+    private final AtomicBoolean forceWrite = new AtomicBoolean(true);
+    private final ConnectionStateListener connectionStateListener;
+    private ServiceNode<T> lastWrittenState;
+    private int lastWrittenVersion = -1;
+    private int lastWrittenHealthVersion = -1;
+    private long lastRegistrationMzxid;
+    private long nextHeartbeatTime;
+
     public ZkNodeDataSink(
             Service service,
             CuratorFramework curatorFramework) {
+        this(service, curatorFramework, null);
+    }
+
+    public ZkNodeDataSink(
+            Service service,
+            CuratorFramework curatorFramework,
+            ZkHeartbeatConfig heartbeatConfig) {
+        this(service, curatorFramework, heartbeatConfig, ZkNodeLayout.COMBINED);
+    }
+
+    /**
+     * @param heartbeatConfig settings for heartbeat mode, null to write every update (or to use the default
+     *                        settings in the split layout)
+     * @param layout          how the node is stored in ZK
+     */
+    public ZkNodeDataSink(
+            Service service,
+            CuratorFramework curatorFramework,
+            ZkHeartbeatConfig heartbeatConfig,
+            ZkNodeLayout layout) {
         super(service, curatorFramework, ZkStoreType.SINK);
+        Preconditions.checkNotNull(layout, "Node layout can't be null");
+        if (null != heartbeatConfig) {
+            Preconditions.checkArgument(heartbeatConfig.getMaxHeartbeatIntervalMs() > 0,
+                                        "Heartbeat interval must be positive");
+            Preconditions.checkArgument(heartbeatConfig.getJitterPercent() >= 0
+                                                && heartbeatConfig.getJitterPercent() < 100,
+                                        "Jitter must be in [0, 100)");
+        }
+        //Finders are signalled on every write of a health record, so these must not be written on every update
+        this.heartbeatConfig = null == heartbeatConfig && layout == ZkNodeLayout.SPLIT
+                               ? ZkHeartbeatConfig.builder().build()
+                               : heartbeatConfig;
+        this.layout = layout;
+        //Ephemeral node is gone if the session expired, so the next update must reach ZK
+        this.connectionStateListener = (client, newState) -> {
+            if (newState == ConnectionState.RECONNECTED) {
+                forceWrite.set(true);
+            }
+        };
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        if (writesOnlyChanges()) {
+            curatorFramework.getConnectionStateListenable().addListener(connectionStateListener);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (writesOnlyChanges()) {
+            curatorFramework.getConnectionStateListenable().removeListener(connectionStateListener);
+        }
+        super.stop();
     }
 
     @Override
@@ -50,6 +132,14 @@ public class ZkNodeDataSink<T, S extends ZkNodeDataSerializer<T>> extends ZkNode
         }
         Preconditions.checkNotNull(serializer, "Serializer has not been set for node data");
         val path = PathBuilder.instancePath(service, serviceNode);
+        if (layout == ZkNodeLayout.SPLIT) {
+            writeSplit(serializer, serviceNode, path);
+            return;
+        }
+        if (null != heartbeatConfig) {
+            heartbeat(serializer, serviceNode, path);
+            return;
+        }
         try {
             if (null == curatorFramework.checkExists().forPath(path)) {
                 log.info("No node exists for path: {}. Will create now.", path);
@@ -65,6 +155,125 @@ public class ZkNodeDataSink<T, S extends ZkNodeDataSerializer<T>> extends ZkNode
         }
     }
 
+    private synchronized void heartbeat(S serializer, ServiceNode<T> serviceNode, String path) {
+        val now = System.currentTimeMillis();
+        val state = stateOf(serviceNode);
+        if (!isWriteDue(state, now, forceWrite.getAndSet(false))) {
+            return;
+        }
+        try {
+            lastWrittenVersion = writeVersioned(path, lastWrittenVersion, serializer.serialize(serviceNode))
+                    .getVersion();
+        }
+        catch (Exception e) {
+            forceWrite.set(true);
+            log.error("Error updating node data at path " + path, e);
+            Exceptions.illegalState(e);
+        }
+        markWritten(state, now);
+    }
+
+    private synchronized void writeSplit(S serializer, ServiceNode<T> serviceNode, String path) {
+        val now = System.currentTimeMillis();
+        val state = stateOf(serviceNode);
+        val forced = forceWrite.getAndSet(false);
+        if (!isWriteDue(state, now, forced)) {
+            return;
+        }
+        val healthPath = PathBuilder.healthPath(service, serviceNode);
+        try {
+            if (forced || !sameRegistration(state, lastWrittenState)) {
+                val stat = writeVersioned(path, lastWrittenVersion, serializer.serialize(serviceNode));
+                lastWrittenVersion = stat.getVersion();
+                lastRegistrationMzxid = stat.getMzxid();
+            }
+            lastWrittenHealthVersion = writeVersioned(healthPath,
+                                                      lastWrittenHealthVersion,
+                                                      ZkHealthRecord.of(serviceNode, lastRegistrationMzxid)
+                                                              .serialize())
+                    .getVersion();
+        }
+        catch (Exception e) {
+            forceWrite.set(true);
+            log.error("Error updating node data at path " + healthPath, e);
+            Exceptions.illegalState(e);
+        }
+        markWritten(state, now);
+    }
+
+    private boolean writesOnlyChanges() {
+        return null != heartbeatConfig;
+    }
+
+    private boolean isWriteDue(ServiceNode<T> state, long now, boolean forced) {
+        return forced
+                || null == heartbeatConfig
+                || !state.equals(lastWrittenState)
+                || now >= nextHeartbeatTime;
+    }
+
+    private void markWritten(ServiceNode<T> state, long now) {
+        lastWrittenState = state;
+        if (null != heartbeatConfig) {
+            val maxIntervalMs = heartbeatConfig.getMaxHeartbeatIntervalMs();
+            val jitterMs = (long) (ThreadLocalRandom.current().nextDouble()
+                    * maxIntervalMs * heartbeatConfig.getJitterPercent() / 100);
+            nextHeartbeatTime = now + maxIntervalMs - jitterMs;
+        }
+    }
+
+    private Stat writeVersioned(String path, int version, byte[] data) throws Exception {
+        try {
+            return curatorFramework.setData()
+                    .withVersion(version)
+                    .forPath(path, data);
+        }
+        catch (KeeperException.NoNodeException e) {
+            log.info("No node exists for path: {}. Will create now.", path);
+            return createOrOverwrite(path, data);
+        }
+        catch (KeeperException.BadVersionException e) {
+            log.warn("Node data at {} has been modified outside this provider. Overwriting.", path);
+            return curatorFramework.setData().forPath(path, data);
+        }
+    }
+
+    private Stat createOrOverwrite(String path, byte[] data) throws Exception {
+        try {
+            val stat = new Stat();
+            curatorFramework.create()
+                    .storingStatIn(stat)
+                    .creatingParentContainersIfNeeded()
+                    .withMode(CreateMode.EPHEMERAL)
+                    .forPath(path, data);
+            log.info("Created instance path: {}", path);
+            return stat;
+        }
+        catch (KeeperException.NodeExistsException e) {
+            log.warn("Node already exists.. Race condition?", e);
+            return curatorFramework.setData().forPath(path, data);
+        }
+    }
+
+    private static <T> ServiceNode<T> stateOf(ServiceNode<T> serviceNode) {
+        return ServiceNode.<T>builder()
+                .host(serviceNode.getHost())
+                .port(serviceNode.getPort())
+                .nodeData(serviceNode.getNodeData())
+                .healthcheckStatus(serviceNode.getHealthcheckStatus())
+                .portScheme(serviceNode.getPortScheme())
+                .healthScore(serviceNode.getHealthScore())
+                .build();
+    }
+
+    private static <T> boolean sameRegistration(ServiceNode<T> lhs, ServiceNode<T> rhs) {
+        return null != rhs
+                && Objects.equals(lhs.getHost(), rhs.getHost())
+                && lhs.getPort() == rhs.getPort()
+                && Objects.equals(lhs.getNodeData(), rhs.getNodeData())
+                && Objects.equals(lhs.getPortScheme(), rhs.getPortScheme());
+    }
+
     private synchronized void createPath(
             ServiceNode<T> serviceNode,
             S serializer) {
@@ -20,6 +20,7 @@ import io.appform.ranger.core.model.NodeDataSink;
 import io.appform.ranger.core.model.Service;
 import io.appform.ranger.core.serviceprovider.BaseServiceProviderBuilder;
 import io.appform.ranger.core.serviceprovider.ServiceProvider;
+import io.appform.ranger.zookeeper.common.ZkNodeLayout;
 import io.appform.ranger.zookeeper.serde.ZkNodeDataSerializer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
@@ -33,6 +34,8 @@ import org.apache.curator.retry.ExponentialBackoffRetry;
 public class ZkServiceProviderBuilder<T> extends BaseServiceProviderBuilder<T, ZkServiceProviderBuilder<T>, ZkNodeDataSerializer<T>> {
     private CuratorFramework curatorFramework;
     private String connectionString;
+    private ZkHeartbeatConfig heartbeatConfig;
+    private ZkNodeLayout nodeLayout = ZkNodeLayout.COMBINED;
 
     public ZkServiceProviderBuilder<T> withCuratorFramework(CuratorFramework curatorFramework) {
         this.curatorFramework = curatorFramework;
@@ -44,6 +47,32 @@ public class ZkServiceProviderBuilder<T> extends BaseServiceProviderBuilder<T, Z
         return this;
     }
 
+    /**
+     * Write node data only when the state of the node changes or a heartbeat is due, instead of on every health
+     * update. See {@link ZkNodeDataSink}
+     *
+     * @param heartbeatConfig heartbeat settings, null to write every update
+     * @return builder for next call
+     */
+    public ZkServiceProviderBuilder<T> withHeartbeatConfig(final ZkHeartbeatConfig heartbeatConfig) {
+        this.heartbeatConfig = heartbeatConfig;
+        return this;
+    }
+
+    /**
+     * Store health updates separately from the registration data of the node. See {@link ZkNodeLayout#SPLIT}.
+     * Providers in this layout always write in heartbeat mode, with default settings if no heartbeat config is set.
+     * Finders built from this version onwards read both layouts. Older finders see the node as never updated and
+     * treat it as stale, so switch providers to this layout only after all finders of the service are upgraded.
+     *
+     * @param nodeLayout layout of the node in ZK
+     * @return builder for next call
+     */
+    public ZkServiceProviderBuilder<T> withNodeLayout(final ZkNodeLayout nodeLayout) {
+        this.nodeLayout = nodeLayout;
+        return this;
+    }
+
     @Override
     public ServiceProvider<T, ZkNodeDataSerializer<T>> build() {
         if (null == curatorFramework) {
@@ -61,6 +90,6 @@ public class ZkServiceProviderBuilder<T> extends BaseServiceProviderBuilder<T, Z
 
     @Override
     protected NodeDataSink<T, ZkNodeDataSerializer<T>> dataSink(Service service) {
-        return new ZkNodeDataSink<>(service, curatorFramework);
+        return new ZkNodeDataSink<>(service, curatorFramework, heartbeatConfig, nodeLayout);
     }
 }
@@ -24,6 +24,8 @@ import lombok.experimental.UtilityClass;
 public class PathBuilder {
 
     public static String REGISTERED_SERVICES_PATH = "/";
+    //Child of a service node holding health records. Can't clash with instances, which are named host:port
+    public static final String HEALTH_NODE_NAME = "_health";
 
     public static String servicePath(final Service service) {
         return String.format("/%s", service.getServiceName());
@@ -32,4 +34,12 @@ public class PathBuilder {
     public static<T> String instancePath(final Service service, final ServiceNode<T> node) {
         return String.format("/%s/%s", service.getServiceName(), node.representation());
     }
+
+    public static String healthRootPath(final Service service) {
+        return String.format("/%s/%s", service.getServiceName(), HEALTH_NODE_NAME);
+    }
+
+    public static<T> String healthPath(final Service service, final ServiceNode<T> node) {
+        return String.format("/%s/%s/%s", service.getServiceName(), HEALTH_NODE_NAME, node.representation());
+    }
 }
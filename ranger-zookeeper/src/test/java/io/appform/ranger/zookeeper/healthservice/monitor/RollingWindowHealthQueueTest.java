@@ -111,4 +111,18 @@ class RollingWindowHealthQueueTest {
         Assertions.assertTrue(rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.healthy));
         Assertions.assertTrue(rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.unhealthy));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHealthScore() {
+        val rollingWindowHealthQueue = new RollingWindowHealthQueue(4, 3);
+        Assertions.assertEquals(1.0, rollingWindowHealthQueue.healthScore());
+        rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.unhealthy);
+        Assertions.assertEquals(0.0, rollingWindowHealthQueue.healthScore());
+        rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.healthy);
+        rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.healthy);
+        rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.healthy);
+        Assertions.assertEquals(0.75, rollingWindowHealthQueue.healthScore());
+        rollingWindowHealthQueue.checkInRollingWindow(HealthcheckStatus.healthy);
+        Assertions.assertEquals(1.0, rollingWindowHealthQueue.healthScore());
+    }
+}
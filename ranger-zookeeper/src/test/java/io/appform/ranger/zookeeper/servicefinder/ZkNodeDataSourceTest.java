@@ -0,0 +1,328 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.zookeeper.common.ZkNodeLayout;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataSerializer;
+import io.appform.ranger.zookeeper.serviceprovider.ZkNodeDataSink;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apache.curator.drivers.TracerDriver;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class ZkNodeDataSourceTest {
+
+    private static final Service SERVICE = Service.builder()
+            .namespace("test")
+            .serviceName("test-service")
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TestingCluster testingCluster;
+    private CuratorFramework curatorFramework;
+
+    @BeforeEach
+    public void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(3);
+        testingCluster.start();
+        curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace(SERVICE.getNamespace())
+                .connectString(testingCluster.getConnectString())
+                .retryPolicy(new ExponentialBackoffRetry(1000, 100)).build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+    }
+
+    @AfterEach
+    public void stopTestCluster() throws Exception {
+        if (null != curatorFramework) {
+            curatorFramework.close();
+        }
+        if (null != testingCluster) {
+            testingCluster.close();
+        }
+    }
+
+    @Test
+    void testReadsAllChildren() throws Exception {
+        //More children than the max number of outstanding reads
+        for (int i = 0; i < 150; i++) {
+            val node = node(i);
+            curatorFramework.create()
+                    .creatingParentContainersIfNeeded()
+                    .forPath(PathBuilder.instancePath(SERVICE, node), objectMapper.writeValueAsBytes(node));
+        }
+        curatorFramework.create().forPath(PathBuilder.servicePath(SERVICE) + "/empty", new byte[0]);
+
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework);
+        dataSource.start();
+        val nodes = dataSource.refresh(this::deserialize).orElse(null);
+        Assertions.assertNotNull(nodes);
+        Assertions.assertEquals(150, nodes.size());
+        Assertions.assertEquals(150, nodes.stream().map(ServiceNode::getHost).collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    void testRereadsOnlyChangedNodes() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            val node = node(i);
+            curatorFramework.create()
+                    .creatingParentContainersIfNeeded()
+                    .forPath(PathBuilder.instancePath(SERVICE, node), objectMapper.writeValueAsBytes(node));
+        }
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework);
+        dataSource.start();
+        val deserialized = new AtomicInteger();
+        ZkNodeDataDeserializer<TestNodeData> deserializer = data -> {
+            deserialized.incrementAndGet();
+            return deserialize(data);
+        };
+        val first = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+        Assertions.assertEquals(3, deserialized.get());
+
+        val updated = node(1);
+        updated.setHealthcheckStatus(HealthcheckStatus.unhealthy);
+        curatorFramework.setData()
+                .forPath(PathBuilder.instancePath(SERVICE, updated), objectMapper.writeValueAsBytes(updated));
+        val second = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+        Assertions.assertEquals(4, deserialized.get());
+        Assertions.assertEquals(2, second.size());
+        Assertions.assertSame(first.get("host-0"), second.get("host-0"));
+        Assertions.assertSame(first.get("host-2"), second.get("host-2"));
+    }
+
+    @Test
+    void testReusesUnmodifiedNodesWhenMostNodesAreRewritten() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            val node = node(i);
+            curatorFramework.create()
+                    .creatingParentContainersIfNeeded()
+                    .forPath(PathBuilder.instancePath(SERVICE, node), objectMapper.writeValueAsBytes(node));
+        }
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework);
+        dataSource.start();
+        val deserialized = new AtomicInteger();
+        ZkNodeDataDeserializer<TestNodeData> deserializer = data -> {
+            deserialized.incrementAndGet();
+            return deserialize(data);
+        };
+        dataSource.refresh(deserializer).orElseThrow();
+
+        //Heartbeats in the combined layout rewrite every node
+        for (int i = 0; i < 3; i++) {
+            val node = node(i);
+            curatorFramework.setData()
+                    .forPath(PathBuilder.instancePath(SERVICE, node), objectMapper.writeValueAsBytes(node));
+        }
+        val rewritten = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+        Assertions.assertEquals(6, deserialized.get());
+
+        //Nodes are then read without checking for modifications first, but only modified ones are deserialized
+        val updated = node(1);
+        curatorFramework.setData()
+                .forPath(PathBuilder.instancePath(SERVICE, updated), objectMapper.writeValueAsBytes(updated));
+        val current = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+        Assertions.assertEquals(7, deserialized.get());
+        Assertions.assertEquals(3, current.size());
+        Assertions.assertSame(rewritten.get("host-0"), current.get("host-0"));
+        Assertions.assertNotSame(rewritten.get("host-1"), current.get("host-1"));
+        Assertions.assertSame(rewritten.get("host-2"), current.get("host-2"));
+    }
+
+    @Test
+    void testRefreshFailsWhenCallbacksAreHeldBack() throws Exception {
+        for (int i = 0; i < 150; i++) {
+            val node = node(i);
+            curatorFramework.create()
+                    .creatingParentContainersIfNeeded()
+                    .forPath(PathBuilder.instancePath(SERVICE, node), objectMapper.writeValueAsBytes(node));
+        }
+        try (val client = CuratorFrameworkFactory.builder()
+                .namespace(SERVICE.getNamespace())
+                .connectString(testingCluster.getConnectString())
+                .connectionTimeoutMs(1_000)
+                .retryPolicy(new ExponentialBackoffRetry(1000, 100)).build()) {
+            client.start();
+            client.blockUntilConnected();
+            val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                    SERVICE, client);
+            dataSource.start();
+            ZkNodeDataDeserializer<TestNodeData> deserializer = this::deserialize;
+            val previous = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+            Assertions.assertEquals(150, previous.size());
+
+            //Callbacks are delivered on the event thread, which is kept busy till released
+            val release = new CountDownLatch(1);
+            client.checkExists().inBackground((c, event) -> release.await()).forPath("/");
+            try {
+                Assertions.assertTimeoutPreemptively(
+                        Duration.ofSeconds(10),
+                        () -> Assertions.assertTrue(dataSource.refresh(deserializer).isEmpty()));
+            }
+            finally {
+                release.countDown();
+            }
+            //The nodes read before the failed refresh are still used
+            val current = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+            Assertions.assertEquals(150, current.size());
+            Assertions.assertSame(previous.get("host-0"), current.get("host-0"));
+        }
+    }
+
+    @Test
+    void testReadsSplitLayout() throws Exception {
+        val sink = new ZkNodeDataSink<TestNodeData, ZkNodeDataSerializer<TestNodeData>>(
+                SERVICE, curatorFramework, null, ZkNodeLayout.SPLIT);
+        sink.start();
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework);
+        dataSource.start();
+        val node = node(0);
+        val path = PathBuilder.instancePath(SERVICE, node);
+        val healthPath = PathBuilder.healthPath(SERVICE, node);
+        val firstUpdateTime = node.getLastUpdatedTimeStamp();
+        for (int i = 0; i < 3; i++) {
+            node.setLastUpdatedTimeStamp(firstUpdateTime + i);
+            sink.updateState(this::serialize, node);
+        }
+        //Unchanged health is not written again before a heartbeat is due
+        Assertions.assertEquals(0, curatorFramework.checkExists().forPath(path).getVersion());
+        Assertions.assertEquals(0, curatorFramework.checkExists().forPath(healthPath).getVersion());
+        val nodes = dataSource.refresh(this::deserialize).orElseThrow();
+        Assertions.assertEquals(1, nodes.size());
+        Assertions.assertEquals(firstUpdateTime, nodes.get(0).getLastUpdatedTimeStamp());
+
+        //Health changes go to the health record only
+        node.setHealthcheckStatus(HealthcheckStatus.unhealthy);
+        sink.updateState(this::serialize, node);
+        Assertions.assertEquals(0, curatorFramework.checkExists().forPath(path).getVersion());
+        Assertions.assertEquals(1, curatorFramework.checkExists().forPath(healthPath).getVersion());
+        Assertions.assertTrue(dataSource.refresh(this::deserialize).orElseThrow().isEmpty());
+
+        //Registration data changes are written to the instance path
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        node.setNodeData(TestNodeData.builder().shardId(2).build());
+        sink.updateState(this::serialize, node);
+        Assertions.assertEquals(1, curatorFramework.checkExists().forPath(path).getVersion());
+        val updated = dataSource.refresh(this::deserialize).orElseThrow();
+        Assertions.assertEquals(1, updated.size());
+        Assertions.assertEquals(2, updated.get(0).getNodeData().getShardId());
+        sink.stop();
+    }
+
+    @Test
+    void testReadsOnlyHealthRecordsWhileRegistrationsAreUnchanged() throws Exception {
+        val sinks = new ArrayList<ZkNodeDataSink<TestNodeData, ZkNodeDataSerializer<TestNodeData>>>();
+        val nodes = new ArrayList<ServiceNode<TestNodeData>>();
+        for (int i = 0; i < 3; i++) {
+            val sink = new ZkNodeDataSink<TestNodeData, ZkNodeDataSerializer<TestNodeData>>(
+                    SERVICE, curatorFramework, null, ZkNodeLayout.SPLIT);
+            sink.start();
+            val node = node(i);
+            sink.updateState(this::serialize, node);
+            sinks.add(sink);
+            nodes.add(node);
+        }
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework);
+        dataSource.start();
+        ZkNodeDataDeserializer<TestNodeData> deserializer = this::deserialize;
+        val first = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+        Assertions.assertEquals(3, first.size());
+
+        val updateTime = System.currentTimeMillis() + 1000;
+        for (int i = 0; i < 3; i++) {
+            nodes.get(i).setLastUpdatedTimeStamp(updateTime);
+            nodes.get(i).setHealthScore(0.5);
+            sinks.get(i).updateState(this::serialize, nodes.get(i));
+        }
+        val calls = new ConcurrentHashMap<String, AtomicInteger>();
+        curatorFramework.getZookeeperClient().setTracerDriver(new TracerDriver() {
+            @Override
+            public void addTrace(String name, long time, TimeUnit unit) {
+                calls.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            }
+
+            @Override
+            public void addCount(String name, int increment) {
+            }
+        });
+        val second = hostToNode(dataSource.refresh(deserializer).orElseThrow());
+        Assertions.assertEquals(3, second.size());
+        Assertions.assertFalse(calls.containsKey("ExistsBuilderImpl-Background"));
+        Assertions.assertEquals(3, calls.get("GetDataBuilderImpl-Background").get());
+        for (val host : first.keySet()) {
+            Assertions.assertEquals(updateTime, second.get(host).getLastUpdatedTimeStamp());
+            Assertions.assertEquals(0.5, second.get(host).getHealthScore());
+            Assertions.assertSame(first.get(host).getNodeData(), second.get(host).getNodeData());
+        }
+        sinks.forEach(ZkNodeDataSink::stop);
+    }
+
+    private static ServiceNode<TestNodeData> node(int i) {
+        return ServiceNode.<TestNodeData>builder()
+                .host("host-" + i)
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(i % 3).build())
+                .healthcheckStatus(HealthcheckStatus.healthy)
+                .lastUpdatedTimeStamp(System.currentTimeMillis())
+                .build();
+    }
+
+    private static Map<String, ServiceNode<TestNodeData>> hostToNode(List<ServiceNode<TestNodeData>> nodes) {
+        return nodes.stream().collect(Collectors.toMap(ServiceNode::getHost, Function.identity()));
+    }
+
+    @SneakyThrows
+    private byte[] serialize(ServiceNode<TestNodeData> node) {
+        return objectMapper.writeValueAsBytes(node);
+    }
+
+    @SneakyThrows
+    private ServiceNode<TestNodeData> deserialize(byte[] data) {
+        return objectMapper.readValue(data, new TypeReference<ServiceNode<TestNodeData>>() {
+        });
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder.signals;
+
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.zookeeper.common.ZkHealthRecord;
+import io.appform.ranger.zookeeper.servicefinderhub.ZkNamespaceMirror;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+class ZkMirrorRegistryUpdateSignalTest {
+
+    private static final Service SERVICE = Service.builder()
+            .namespace("test")
+            .serviceName("test-service")
+            .build();
+    private static final long MIN_DATA_CHANGE_INTERVAL_MS = 3_000;
+
+    private TestingCluster testingCluster;
+    private CuratorFramework curatorFramework;
+
+    @BeforeEach
+    public void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(3);
+        testingCluster.start();
+        curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace(SERVICE.getNamespace())
+                .connectString(testingCluster.getConnectString())
+                .retryPolicy(new ExponentialBackoffRetry(1000, 100)).build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+    }
+
+    @AfterEach
+    public void stopTestCluster() throws Exception {
+        if (null != curatorFramework) {
+            curatorFramework.close();
+        }
+        if (null != testingCluster) {
+            testingCluster.close();
+        }
+    }
+
+    @Test
+    void testThrottlesOnlyDataRewrites() throws Exception {
+        val instancePath = PathBuilder.servicePath(SERVICE) + "/host-1:8080";
+        val healthPath = PathBuilder.healthRootPath(SERVICE) + "/host-1:8080";
+        curatorFramework.create().creatingParentContainersIfNeeded().forPath(PathBuilder.healthRootPath(SERVICE));
+        val mirror = new ZkNamespaceMirror(curatorFramework);
+        mirror.start();
+        val signals = new Semaphore(0);
+        val signal = new ZkMirrorRegistryUpdateSignal<>(SERVICE, mirror, MIN_DATA_CHANGE_INTERVAL_MS);
+        signal.registerConsumer(data -> signals.release());
+        signal.start();
+
+        curatorFramework.create().forPath(instancePath, bytes("healthy"));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        //Data rewritten by instances is signalled at most once per interval
+        curatorFramework.setData().forPath(instancePath, bytes("unhealthy"));
+        Assertions.assertFalse(signals.tryAcquire(500, TimeUnit.MILLISECONDS));
+        Thread.sleep(MIN_DATA_CHANGE_INTERVAL_MS);
+        curatorFramework.setData().forPath(instancePath, bytes("healthy"));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+
+        //A health record rewritten by a heartbeat is throttled, a health transition is not
+        curatorFramework.create().forPath(healthPath, record(HealthcheckStatus.healthy, 1));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        curatorFramework.setData().forPath(healthPath, record(HealthcheckStatus.healthy, 2));
+        Assertions.assertFalse(signals.tryAcquire(500, TimeUnit.MILLISECONDS));
+        curatorFramework.setData().forPath(healthPath, record(HealthcheckStatus.unhealthy, 3));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        curatorFramework.delete().forPath(instancePath);
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+
+        signal.stop();
+        curatorFramework.create().forPath(instancePath, bytes("healthy"));
+        Assertions.assertFalse(signals.tryAcquire(500, TimeUnit.MILLISECONDS));
+        mirror.close();
+    }
+
+    private static byte[] record(HealthcheckStatus status, long lastUpdatedTimeStamp) {
+        return new ZkHealthRecord(status, lastUpdatedTimeStamp, 1.0, 0L).serialize();
+    }
+
+    private static byte[] bytes(String data) {
+        return data.getBytes(StandardCharsets.UTF_8);
+    }
+}
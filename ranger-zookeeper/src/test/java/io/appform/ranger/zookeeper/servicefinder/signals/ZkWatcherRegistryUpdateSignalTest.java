@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinder.signals;
+
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.zookeeper.servicefinder.ZkNodeDataSource;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+class ZkWatcherRegistryUpdateSignalTest {
+
+    private static final Service SERVICE = Service.builder()
+            .namespace("test")
+            .serviceName("test-service")
+            .build();
+
+    private TestingCluster testingCluster;
+    private CuratorFramework curatorFramework;
+
+    @BeforeEach
+    public void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(3);
+        testingCluster.start();
+        curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace(SERVICE.getNamespace())
+                .connectString(testingCluster.getConnectString())
+                .retryPolicy(new ExponentialBackoffRetry(1000, 100)).build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+    }
+
+    @AfterEach
+    public void stopTestCluster() throws Exception {
+        if (null != curatorFramework) {
+            curatorFramework.close();
+        }
+        if (null != testingCluster) {
+            testingCluster.close();
+        }
+    }
+
+    @Test
+    void testSignalsOnChildAndDataChanges() throws Exception {
+        val instancePath = PathBuilder.servicePath(SERVICE) + "/host-1:8080";
+        val healthPath = PathBuilder.healthRootPath(SERVICE) + "/host-1:8080";
+        curatorFramework.create().creatingParentContainersIfNeeded().forPath(PathBuilder.servicePath(SERVICE));
+        val dataSource = new ZkNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, curatorFramework);
+        dataSource.start();
+        val signals = new Semaphore(0);
+        val signal = new ZkWatcherRegistryUpdateSignal<>(SERVICE, dataSource, curatorFramework, 1_000);
+        signal.registerConsumer(data -> signals.release());
+        signal.start();
+
+        curatorFramework.create().forPath(instancePath, bytes("healthy"));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        //Watch stays armed for data changes of the instances, which are signalled at most once per interval
+        curatorFramework.setData().forPath(instancePath, bytes("unhealthy"));
+        Assertions.assertFalse(signals.tryAcquire(500, TimeUnit.MILLISECONDS));
+        Thread.sleep(600);
+        curatorFramework.setData().forPath(instancePath, bytes("healthy"));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        //Health records are only written on health changes and heartbeats, and are always signalled
+        curatorFramework.create().forPath(PathBuilder.healthRootPath(SERVICE));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        curatorFramework.create().forPath(healthPath, bytes("healthy"));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+        curatorFramework.setData().forPath(healthPath, bytes("unhealthy"));
+        Assertions.assertTrue(signals.tryAcquire(5, TimeUnit.SECONDS));
+
+        signal.stop();
+        curatorFramework.delete().forPath(instancePath);
+        Assertions.assertFalse(signals.tryAcquire(500, TimeUnit.MILLISECONDS));
+    }
+
+    private static byte[] bytes(String data) {
+        return data.getBytes(StandardCharsets.UTF_8);
+    }
+}
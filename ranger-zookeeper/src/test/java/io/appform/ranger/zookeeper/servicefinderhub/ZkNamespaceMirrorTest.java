@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.servicefinderhub;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataDeserializer;
+import io.appform.ranger.zookeeper.servicefinder.ZkMirrorNodeDataSource;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.InstanceSpec;
+import org.apache.curator.test.TestingCluster;
+import org.apache.curator.utils.ZKPaths;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+class ZkNamespaceMirrorTest {
+
+    private static final Service SERVICE = Service.builder()
+            .namespace("test")
+            .serviceName("test-service")
+            .build();
+    private static final long ZOMBIE_THRESHOLD_MS = 60_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TestingCluster testingCluster;
+    private InstanceSpec mirrorServer;
+    private CuratorFramework mirrorCurator;
+    private CuratorFramework writerCurator;
+
+    @BeforeEach
+    public void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(3);
+        testingCluster.start();
+        val servers = List.copyOf(testingCluster.getInstances());
+        //The mirror only knows one server, so that it can be disconnected while the others keep a quorum
+        mirrorServer = servers.get(0);
+        mirrorCurator = curator(address(mirrorServer));
+        writerCurator = curator(servers.stream()
+                                        .skip(1)
+                                        .map(ZkNamespaceMirrorTest::address)
+                                        .collect(Collectors.joining(",")));
+    }
+
+    @AfterEach
+    public void stopTestCluster() throws Exception {
+        if (null != mirrorCurator) {
+            mirrorCurator.close();
+        }
+        if (null != writerCurator) {
+            writerCurator.close();
+        }
+        if (null != testingCluster) {
+            testingCluster.close();
+        }
+    }
+
+    @Test
+    void testMirrorIsInactiveTillSyncedAfterReconnect() throws Exception {
+        //Becomes a zombie a few seconds into the disconnect
+        val stale = node("host-1", System.currentTimeMillis() - ZOMBIE_THRESHOLD_MS + 3_000);
+        writerCurator.create()
+                .creatingParentContainersIfNeeded()
+                .forPath(PathBuilder.instancePath(SERVICE, stale), objectMapper.writeValueAsBytes(stale));
+        val mirror = new ZkNamespaceMirror(mirrorCurator);
+        mirror.start();
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> hosts(mirror).equals(List.of("host-1")));
+        val dataSource = new ZkMirrorNodeDataSource<TestNodeData, ZkNodeDataDeserializer<TestNodeData>>(
+                SERVICE, mirror);
+        ZkNodeDataDeserializer<TestNodeData> deserializer = this::deserialize;
+        Assertions.assertEquals(1, dataSource.refresh(deserializer).orElseThrow().size());
+        val notified = new CopyOnWriteArrayList<String>();
+        mirror.addServiceListener(SERVICE.getServiceName(),
+                                  change -> notified.add(mirror.isActive() + ":" + hosts(mirror)));
+
+        testingCluster.killServer(mirrorServer);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(30))
+                .until(() -> !mirror.isActive());
+        Thread.sleep(Math.max(0, stale.getLastUpdatedTimeStamp() + ZOMBIE_THRESHOLD_MS - System.currentTimeMillis())
+                             + 500);
+        //Nodes look like zombies while disconnected, but no update is published instead of an empty list
+        Assertions.assertTrue(dataSource.refresh(deserializer).isEmpty());
+
+        val fresh = node("host-2", System.currentTimeMillis());
+        writerCurator.delete().forPath(PathBuilder.instancePath(SERVICE, stale));
+        writerCurator.create()
+                .forPath(PathBuilder.instancePath(SERVICE, fresh), objectMapper.writeValueAsBytes(fresh));
+        testingCluster.restartServer(mirrorServer);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(60))
+                .until(mirror::isActive);
+
+        //Listeners are told only once the changes made while disconnected have been loaded
+        Assertions.assertFalse(notified.isEmpty());
+        Assertions.assertTrue(notified.stream().allMatch("true:[host-2]"::equals), notified.toString());
+        val nodes = dataSource.refresh(deserializer).orElseThrow();
+        Assertions.assertEquals(1, nodes.size());
+        Assertions.assertEquals("host-2", nodes.get(0).getHost());
+        mirror.close();
+    }
+
+    private static List<String> hosts(ZkNamespaceMirror mirror) {
+        return mirror.instances(SERVICE.getServiceName())
+                .stream()
+                .map(instance -> ZKPaths.getNodeFromPath(instance.getPath()).split(":")[0])
+                .sorted()
+                .toList();
+    }
+
+    private static ServiceNode<TestNodeData> node(String host, long lastUpdatedTimeStamp) {
+        return ServiceNode.<TestNodeData>builder()
+                .host(host)
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .healthcheckStatus(HealthcheckStatus.healthy)
+                .lastUpdatedTimeStamp(lastUpdatedTimeStamp)
+                .build();
+    }
+
+    private static String address(InstanceSpec server) {
+        return server.getHostname() + ":" + server.getPort();
+    }
+
+    private static CuratorFramework curator(String connectString) throws InterruptedException {
+        val curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace(SERVICE.getNamespace())
+                .connectString(connectString)
+                //Keeps clients on the servers they are given, instead of the whole ensemble
+                .ensembleTracker(false)
+                .retryPolicy(new ExponentialBackoffRetry(1000, 100)).build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+        return curatorFramework;
+    }
+
+    @SneakyThrows
+    private ServiceNode<TestNodeData> deserialize(byte[] data) {
+        return objectMapper.readValue(data, new TypeReference<ServiceNode<TestNodeData>>() {
+        });
+    }
+}
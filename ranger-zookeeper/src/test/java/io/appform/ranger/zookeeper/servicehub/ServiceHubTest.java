@@ -18,14 +18,18 @@ package io.appform.ranger.zookeeper.servicehub;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.appform.ranger.core.finder.serviceregistry.MapBasedServiceRegistry;
+import io.appform.ranger.core.finderhub.ServiceFinderHub;
 import io.appform.ranger.core.healthcheck.HealthcheckResult;
 import io.appform.ranger.core.healthcheck.HealthcheckStatus;
 import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.serviceprovider.ServiceProvider;
 import io.appform.ranger.core.signals.ExternalTriggeredSignal;
 import io.appform.ranger.core.units.TestNodeData;
 import io.appform.ranger.core.util.Exceptions;
 import io.appform.ranger.core.utils.RangerTestUtils;
 import io.appform.ranger.zookeeper.ServiceProviderBuilders;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataSerializer;
+import io.appform.ranger.zookeeper.servicefinderhub.ZkNamespaceMirror;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkServiceDataSource;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkServiceFinderHubBuilder;
 import io.appform.ranger.zookeeper.servicefinderhub.ZkShardedServiceFinderFactory;
@@ -35,12 +39,14 @@ import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.curator.test.TestingCluster;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Date;
 
@@ -123,6 +129,64 @@ class ServiceHubTest {
         provider1.stop();
     }
 
+    @Test
+    void testHubWithNamespaceMirror() throws Exception {
+        val provider1 = provider("s1", 1080);
+        provider1.start();
+        val namespaceMirror = new ZkNamespaceMirror(curatorFramework);
+        val hub = new ZkServiceFinderHubBuilder<TestNodeData, MapBasedServiceRegistry<TestNodeData>>()
+                .withCuratorFramework(curatorFramework)
+                .withNamespace(NAMESPACE)
+                .withNamespaceMirror(namespaceMirror)
+                .withRefreshFrequencyMs(60_000)
+                .withServiceDataSource(new ZkServiceDataSource(NAMESPACE, testingCluster.getConnectString(),
+                                                               curatorFramework, namespaceMirror))
+                .withServiceFinderFactory(ZkShardedServiceFinderFactory.<TestNodeData>builder()
+                                                  .curatorFramework(curatorFramework)
+                                                  .deserializer(this::read)
+                                                  .namespaceMirror(namespaceMirror)
+                                                  .build())
+                .build();
+        hub.start();
+        Assertions.assertTrue(hasNode(hub, "s1"));
+
+        //New services and nodes are picked up from watch events without waiting for the hub refresh
+        val provider2 = provider("s2", 1081);
+        provider2.start();
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> hasNode(hub, "s2"));
+        provider1.stop();
+        for (val instance : curatorFramework.getChildren().forPath("/s1")) {
+            curatorFramework.delete().forPath("/s1/" + instance);
+        }
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> !hasNode(hub, "s1"));
+        hub.stop();
+        provider2.stop();
+    }
+
+    private ServiceProvider<TestNodeData, ZkNodeDataSerializer<TestNodeData>> provider(String serviceName, int port) {
+        return ServiceProviderBuilders.<TestNodeData>shardedServiceProviderBuilder()
+                .withHostname("localhost")
+                .withPort(port)
+                .withNamespace(NAMESPACE)
+                .withServiceName(serviceName)
+                .withSerializer(this::write)
+                .withNodeData(TestNodeData.builder().shardId(1).build())
+                .withHealthcheck(() -> HealthcheckStatus.healthy)
+                .withCuratorFramework(curatorFramework)
+                .build();
+    }
+
+    private static boolean hasNode(ServiceFinderHub<TestNodeData, MapBasedServiceRegistry<TestNodeData>> hub,
+                                   String serviceName) {
+        return hub.finder(RangerTestUtils.getService(NAMESPACE, serviceName))
+                .flatMap(finder -> finder.get(nodeData -> nodeData.getShardId() == 1))
+                .isPresent();
+    }
+
     private ServiceNode<TestNodeData> read(final byte[] data) {
         try {
             return objectMapper.readValue(data, new TypeReference<ServiceNode<TestNodeData>>() {});
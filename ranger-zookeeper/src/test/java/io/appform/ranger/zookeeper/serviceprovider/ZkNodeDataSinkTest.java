@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Authors, Flipkart Internet Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.ranger.zookeeper.serviceprovider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appform.ranger.core.healthcheck.HealthcheckStatus;
+import io.appform.ranger.core.model.Service;
+import io.appform.ranger.core.model.ServiceNode;
+import io.appform.ranger.core.units.TestNodeData;
+import io.appform.ranger.zookeeper.serde.ZkNodeDataSerializer;
+import io.appform.ranger.zookeeper.util.PathBuilder;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ZkNodeDataSinkTest {
+
+    private static final Service SERVICE = Service.builder()
+            .namespace("test")
+            .serviceName("test-service")
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TestingCluster testingCluster;
+    private CuratorFramework curatorFramework;
+
+    @BeforeEach
+    public void startTestCluster() throws Exception {
+        testingCluster = new TestingCluster(3);
+        testingCluster.start();
+        curatorFramework = CuratorFrameworkFactory.builder()
+                .namespace(SERVICE.getNamespace())
+                .connectString(testingCluster.getConnectString())
+                .retryPolicy(new ExponentialBackoffRetry(1000, 100)).build();
+        curatorFramework.start();
+        curatorFramework.blockUntilConnected();
+    }
+
+    @AfterEach
+    public void stopTestCluster() throws Exception {
+        if (null != curatorFramework) {
+            curatorFramework.close();
+        }
+        if (null != testingCluster) {
+            testingCluster.close();
+        }
+    }
+
+    @Test
+    void testHeartbeatWritesOnlyChanges() throws Exception {
+        val sink = new ZkNodeDataSink<TestNodeData, ZkNodeDataSerializer<TestNodeData>>(
+                SERVICE, curatorFramework, ZkHeartbeatConfig.builder().maxHeartbeatIntervalMs(60_000).build());
+        sink.start();
+        val node = ServiceNode.<TestNodeData>builder()
+                .host("localhost")
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .build();
+        val path = PathBuilder.instancePath(SERVICE, node);
+        for (int i = 0; i < 5; i++) {
+            node.setLastUpdatedTimeStamp(System.currentTimeMillis());
+            sink.updateState(this::write, node);
+        }
+        Assertions.assertEquals(0, curatorFramework.checkExists().forPath(path).getVersion());
+
+        node.setHealthcheckStatus(HealthcheckStatus.unhealthy);
+        sink.updateState(this::write, node);
+        Assertions.assertEquals(1, curatorFramework.checkExists().forPath(path).getVersion());
+
+        //Node gone missing is created again on the next write
+        curatorFramework.delete().forPath(path);
+        node.setHealthcheckStatus(HealthcheckStatus.healthy);
+        sink.updateState(this::write, node);
+        Assertions.assertNotNull(curatorFramework.checkExists().forPath(path));
+        sink.stop();
+    }
+
+    @Test
+    void testHeartbeatIsSentBeforeStaleness() throws Exception {
+        val sink = new ZkNodeDataSink<TestNodeData, ZkNodeDataSerializer<TestNodeData>>(
+                SERVICE, curatorFramework, ZkHeartbeatConfig.builder()
+                .maxHeartbeatIntervalMs(100)
+                .jitterPercent(0)
+                .build());
+        sink.start();
+        val node = ServiceNode.<TestNodeData>builder()
+                .host("localhost")
+                .port(8080)
+                .nodeData(TestNodeData.builder().shardId(1).build())
+                .build();
+        val path = PathBuilder.instancePath(SERVICE, node);
+        sink.updateState(this::write, node);
+        sink.updateState(this::write, node);
+        Assertions.assertEquals(0, curatorFramework.checkExists().forPath(path).getVersion());
+        Thread.sleep(150);
+        sink.updateState(this::write, node);
+        Assertions.assertEquals(1, curatorFramework.checkExists().forPath(path).getVersion());
+        sink.stop();
+    }
+
+    @SneakyThrows
+    private byte[] write(ServiceNode<TestNodeData> node) {
+        return objectMapper.writeValueAsBytes(node);
+    }
+}